@@ -0,0 +1,72 @@
+package com.project.document_management.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.elasticsearch.core.convert.MappingElasticsearchConverter;
+import org.springframework.data.elasticsearch.core.mapping.SimpleElasticsearchMappingContext;
+
+import com.project.document_management.elastic.ElasticDocument;
+
+/**
+ * Indexing-side mapping: Document to ElasticDocument, ElasticDocument to the _source map BulkIndexingService sends,
+ * and that map as JSON.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ElasticMappingBenchmark {
+
+    // OCR text of a one-page letter and of a long scanned report
+    @Param({"2000", "50000"})
+    int ocrTextChars;
+
+    private MappingElasticsearchConverter converter;
+    private com.project.document_management.model.Document document;
+    private ElasticDocument elasticDocument;
+
+    @Setup
+    public void setUp() {
+        converter = new MappingElasticsearchConverter(new SimpleElasticsearchMappingContext());
+        converter.afterPropertiesSet();
+
+        document = new com.project.document_management.model.Document();
+        document.setId(4711L);
+        document.setTitle("Quarterly report Q3 2024");
+        document.setOcrText(SyntheticPages.text(ocrTextChars));
+        document.setUploadedAt(LocalDateTime.of(2024, 10, 1, 9, 30));
+        document.setFileSize(1_482_113L);
+        document.setContentType("application/pdf");
+        elasticDocument = ElasticDocument.fromDocument(document);
+    }
+
+    @Benchmark
+    public ElasticDocument fromDocument() {
+        return ElasticDocument.fromDocument(document);
+    }
+
+    @Benchmark
+    public Map<String, Object> toSource() {
+        return converter.mapObject(elasticDocument);
+    }
+
+    @Benchmark
+    public String toJson() {
+        return converter.mapObject(elasticDocument).toJson();
+    }
+}
@@ -0,0 +1,87 @@
+package com.project.document_management.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockMultipartFile;
+
+import com.project.document_management.service.FileStorageService;
+import com.project.document_management.service.StoredFile;
+
+/**
+ * Upload storage: filename sanitising, the per-file copy ({@code storeFile}) and the streaming store that hashes on
+ * the way to disk, which the upload endpoints use. Files land under ./uploads and are deleted after each call,
+ * outside the measurement.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class FileStorageBenchmark {
+
+    private final FileStorageService storage = new FileStorageService();
+
+    @Benchmark
+    public String sanitizeFilename() {
+        return storage.sanitizeFilename("Scan 2024-03-01 (Rechnung Nr. 117) – Kopie.final.pdf");
+    }
+
+    @Benchmark
+    public String storeFile(Upload upload) throws IOException {
+        upload.written = storage.storeFile(upload.multipart);
+        return upload.written;
+    }
+
+    @Benchmark
+    public StoredFile storeStream(Upload upload) throws IOException {
+        StoredFile stored = storage.store(new ByteArrayInputStream(upload.content), "scan.pdf");
+        upload.written = stored.getPath();
+        return stored;
+    }
+
+    @State(Scope.Thread)
+    public static class Upload {
+
+        // 64 KB page scan, 4 MB multi-page PDF
+        @Param({"65536", "4194304"})
+        int sizeBytes;
+
+        byte[] content;
+        MockMultipartFile multipart;
+        String written;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            content = new byte[sizeBytes];
+            new Random(1).nextBytes(content);
+            multipart = new MockMultipartFile("file", "scan.pdf", "application/pdf", content);
+        }
+
+        @TearDown(Level.Invocation)
+        public void deleteWritten() throws IOException {
+            if (written != null) {
+                Files.deleteIfExists(Paths.get(written));
+                written = null;
+            }
+        }
+    }
+}
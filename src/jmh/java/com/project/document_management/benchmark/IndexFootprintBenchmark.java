@@ -0,0 +1,182 @@
+package com.project.document_management.benchmark;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.HttpHost;
+import org.elasticsearch.client.RestClient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.elasticsearch.client.elc.ElasticsearchTemplate;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.document.Document;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.IndexQuery;
+import org.springframework.data.elasticsearch.core.query.IndexQueryBuilder;
+import org.testcontainers.elasticsearch.ElasticsearchContainer;
+
+import com.project.document_management.elastic.ElasticDocument;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.json.jackson.JacksonJsonpMapper;
+import co.elastic.clients.transport.rest_client.RestClientTransport;
+
+/**
+ * Bulk indexing of a fixed corpus into the old mapping (OCR text copied into an edge n-gram ocrTextNgram field) and
+ * the current ElasticDocument mapping, one fresh index per invocation. Needs Docker for the Elasticsearch container.
+ * After each invocation the index is merged to one segment and its store size printed, so the sizes compare data
+ * rather than merge timing.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IndexFootprintBenchmark {
+
+    // es-settings.json and the ocrTextNgram mapping as they were before the multi-field title
+    private static final String LEGACY_SETTINGS = """
+            {"analysis": {
+              "analyzer": {"autocomplete_analyzer": {"type": "custom", "tokenizer": "standard",
+                "filter": ["lowercase", "english_stop", "english_stemmer", "autocomplete_filter"]}},
+              "filter": {
+                "english_stop": {"type": "stop", "stopwords": "_english_"},
+                "english_stemmer": {"type": "stemmer", "language": "english"},
+                "autocomplete_filter": {"type": "edge_ngram", "min_gram": 2, "max_gram": 20}}}}
+            """;
+    private static final String LEGACY_MAPPING = """
+            {"properties": {
+              "title": {"type": "text", "analyzer": "english"},
+              "ocrText": {"type": "text", "analyzer": "english"},
+              "ocrTextNgram": {"type": "text", "analyzer": "autocomplete_analyzer", "search_analyzer": "standard"},
+              "uploadedAt": {"type": "date"},
+              "fileSize": {"type": "long"},
+              "contentType": {"type": "keyword"}}}
+            """;
+    private static final int BATCH = 500;
+    private static final IndexCoordinates INDEX = IndexCoordinates.of("footprint");
+
+    @Param({"legacy", "current"})
+    String mapping;
+
+    @Param({"2000"})
+    int docs;
+
+    private ElasticsearchContainer elasticsearch;
+    private RestClientTransport transport;
+    private ElasticsearchClient client;
+    private ElasticsearchTemplate template;
+    private List<ElasticDocument> corpus;
+    private long rawBytes;
+
+    @Setup
+    public void startElasticsearch() {
+        elasticsearch = new ElasticsearchContainer("docker.elastic.co/elasticsearch/elasticsearch:8.11.1")
+                .withEnv("discovery.type", "single-node")
+                .withEnv("xpack.security.enabled", "false");
+        elasticsearch.start();
+        RestClient restClient = RestClient.builder(HttpHost.create(elasticsearch.getHttpHostAddress())).build();
+        transport = new RestClientTransport(restClient, new JacksonJsonpMapper());
+        client = new ElasticsearchClient(transport);
+        template = new ElasticsearchTemplate(client);
+        corpus = corpus(docs);
+        rawBytes = corpus.stream().mapToLong(d -> d.getTitle().length() + d.getOcrText().length()).sum();
+    }
+
+    @TearDown
+    public void stopElasticsearch() throws IOException {
+        transport.close();
+        elasticsearch.stop();
+    }
+
+    @Setup(Level.Invocation)
+    public void createIndex() {
+        IndexOperations indexOps = template.indexOps(INDEX);
+        if ("legacy".equals(mapping)) {
+            indexOps.create(Document.parse(LEGACY_SETTINGS), Document.parse(LEGACY_MAPPING));
+        } else {
+            indexOps.create(indexOps.createSettings(ElasticDocument.class), indexOps.createMapping(ElasticDocument.class));
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void reportStoreSizeAndDeleteIndex() throws IOException {
+        client.indices().forcemerge(f -> f.index(INDEX.getIndexName()).maxNumSegments(1L));
+        long storeBytes = client.indices().stats(s -> s.index(INDEX.getIndexName()))
+                .indices().get(INDEX.getIndexName()).primaries().store().sizeInBytes();
+        System.out.printf("docs=%d raw-text=%.1fMB store=%.1fMB (%.2fx raw)%n",
+                docs, rawBytes / 1e6, storeBytes / 1e6, (double) storeBytes / rawBytes);
+        template.indexOps(INDEX).delete();
+    }
+
+    @Benchmark
+    public void bulkIndex() {
+        boolean legacy = "legacy".equals(mapping);
+        for (int from = 0; from < corpus.size(); from += BATCH) {
+            List<IndexQuery> queries = new ArrayList<>();
+            for (ElasticDocument document : corpus.subList(from, Math.min(from + BATCH, corpus.size()))) {
+                Object source = legacy ? legacySource(document) : document;
+                queries.add(new IndexQueryBuilder().withId(document.getId()).withObject(source).build());
+            }
+            template.bulkIndex(queries, INDEX);
+        }
+        template.indexOps(INDEX).refresh();
+    }
+
+    private static Map<String, Object> legacySource(ElasticDocument document) {
+        Map<String, Object> source = new HashMap<>();
+        source.put("title", document.getTitle());
+        source.put("ocrText", document.getOcrText());
+        source.put("ocrTextNgram", document.getOcrText());
+        source.put("fileSize", document.getFileSize());
+        source.put("contentType", document.getContentType());
+        return source;
+    }
+
+    // Pages of about 600 words drawn from a 20k-word vocabulary, skewed towards the common words
+    private static List<ElasticDocument> corpus(int docs) {
+        Random random = new Random(42);
+        String[] vocabulary = new String[20_000];
+        for (int i = 0; i < vocabulary.length; i++) {
+            StringBuilder word = new StringBuilder();
+            int length = 3 + random.nextInt(8);
+            for (int c = 0; c < length; c++) {
+                word.append((char) ('a' + random.nextInt(26)));
+            }
+            vocabulary[i] = word.toString();
+        }
+        List<ElasticDocument> corpus = new ArrayList<>(docs);
+        for (int d = 0; d < docs; d++) {
+            StringBuilder text = new StringBuilder();
+            for (int w = 0; w < 600; w++) {
+                double r = random.nextDouble();
+                text.append(vocabulary[(int) (r * r * vocabulary.length)]).append(w % 12 == 11 ? ".\n" : " ");
+            }
+            ElasticDocument document = new ElasticDocument();
+            document.setId(String.valueOf(d));
+            document.setTitle(vocabulary[random.nextInt(2000)] + " " + vocabulary[random.nextInt(2000)] + " " + d);
+            document.setOcrText(text.toString());
+            document.setFileSize((long) text.length());
+            document.setContentType("application/pdf");
+            corpus.add(document);
+        }
+        return corpus;
+    }
+}
@@ -0,0 +1,158 @@
+package com.project.document_management.benchmark;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.imageio.ImageIO;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.project.document_management.ocr.ImagePreprocessor;
+import com.project.document_management.ocr.TesseractPool;
+
+import net.sourceforge.tess4j.TesseractException;
+
+/**
+ * OCR over a fixed page corpus, one engine, time per corpus pass. {@code preprocess} is the pure-Java page cleanup and
+ * runs anywhere; {@code recognize} needs a native Tesseract install and runs with and without the cleanup
+ * ({@code -p preprocessed=true,false}). The corpus is every image in {@code -p corpus=dir}, or a generated set of A4
+ * pages (clean, 600 dpi, skewed, scanner border, phone photo) when no directory is given; keep the corpus fixed
+ * between runs that are compared. After each {@code recognize} trial the character accuracy of the last pass is
+ * printed, against the text of the generated pages or the {@code .txt} next to each corpus image (scan.png + scan.txt).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OcrBenchmark {
+
+    @Param({""})
+    String corpus;
+
+    private List<BufferedImage> pages;
+    private List<String> expected;
+    private ImagePreprocessor preprocessor;
+    private String[] recognized;
+
+    @Setup
+    public void setUp() throws IOException {
+        pages = new ArrayList<>();
+        expected = new ArrayList<>();
+        if (corpus.isEmpty()) {
+            pages.addAll(SyntheticPages.corpus());
+            pages.forEach(page -> expected.add(SyntheticPages.corpusText()));
+        } else {
+            load(new File(corpus));
+        }
+        preprocessor = new ImagePreprocessor(true, 3508, 5, true, true);
+        recognized = new String[pages.size()];
+    }
+
+    @Benchmark
+    public void preprocess(Blackhole blackhole) {
+        for (BufferedImage page : pages) {
+            blackhole.consume(preprocessor.process(page));
+        }
+    }
+
+    @Benchmark
+    public void recognize(Engine engine) throws TesseractException, InterruptedException {
+        for (int i = 0; i < pages.size(); i++) {
+            BufferedImage page = engine.preprocessed ? preprocessor.process(pages.get(i)) : pages.get(i);
+            recognized[i] = engine.pool.execute(tesseract -> tesseract.doOCR(page));
+        }
+    }
+
+    @TearDown
+    public void reportAccuracy() {
+        double total = 0;
+        int scored = 0;
+        for (int i = 0; i < pages.size(); i++) {
+            if (recognized[i] != null && expected.get(i) != null) {
+                total += accuracy(expected.get(i), recognized[i]);
+                scored++;
+            }
+        }
+        if (scored > 0) {
+            System.out.printf("character accuracy: %.1f%% over %d page(s)%n", total / scored * 100, scored);
+        }
+    }
+
+    private void load(File directory) throws IOException {
+        File[] files = directory.listFiles((dir, name) -> name.matches("(?i).*\\.(png|jpe?g|tiff?)$"));
+        if (files == null || files.length == 0) {
+            throw new IOException("No page images in " + directory);
+        }
+        for (File file : files) {
+            pages.add(ImageIO.read(file));
+            File text = new File(file.getParent(), file.getName().replaceFirst("\\.[^.]+$", ".txt"));
+            expected.add(text.exists() ? Files.readString(text.toPath(), StandardCharsets.UTF_8) : null);
+        }
+    }
+
+    // 1 - edit distance / expected length, on whitespace-normalised text
+    private static double accuracy(String expected, String actual) {
+        String a = expected.replaceAll("\\s+", " ").trim();
+        String b = actual.replaceAll("\\s+", " ").trim();
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int substitution = previous[j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return Math.max(0, 1 - (double) previous[b.length()] / Math.max(1, a.length()));
+    }
+
+    // Separate state so preprocess runs without the native library
+    @State(Scope.Benchmark)
+    public static class Engine {
+
+        @Param({"/usr/share/tessdata"})
+        String tessdata;
+
+        @Param({"true", "false"})
+        boolean preprocessed;
+
+        TesseractPool pool;
+
+        @Setup
+        public void setUp() {
+            pool = new TesseractPool(tessdata, "eng", 1);
+            pool.warmUp();
+        }
+
+        @TearDown
+        public void tearDown() {
+            pool.close();
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.project.document_management.benchmark;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.SearchHitsImpl;
+import org.springframework.data.elasticsearch.core.TotalHitsRelation;
+import org.springframework.data.elasticsearch.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.project.document_management.elastic.ElasticDocument;
+import com.project.document_management.elastic.ElasticDocumentRepository;
+import com.project.document_management.elastic.SearchResult;
+import com.project.document_management.service.ElasticSearchService;
+import com.project.document_management.service.SearchIndexVersion;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * A query log replayed against ElasticSearchService with the result cache off ({@code cacheWeight=0}) and on.
+ * Elasticsearch is simulated with a fixed delay, and a document is indexed every {@code writeEvery} queries so
+ * invalidation is part of the picture. The log is {@code -p log=queries.txt}, one query per line, or a Zipf-distributed
+ * log of 5000 queries over 200 terms. Sample mode reports latency percentiles; the hit ratio is printed per trial.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SearchCacheBenchmark {
+
+    @Param({"0", "20000000"})
+    long cacheWeight;
+
+    @Param({"15"})
+    long latencyMs;
+
+    @Param({"500"})
+    int writeEvery;
+
+    @Param({""})
+    String log;
+
+    private List<String> queries;
+    private SimpleMeterRegistry registry;
+    private ElasticSearchService service;
+    private int next;
+
+    @Setup
+    public void setUp() throws IOException {
+        queries = log.isEmpty() ? zipfLog() : Files.readAllLines(Path.of(log)).stream()
+                .filter(line -> !line.isBlank()).toList();
+        ElasticsearchOperations operations = mock(ElasticsearchOperations.class);
+        when(operations.search(any(Query.class), eq(ElasticDocument.class))).thenAnswer(invocation -> {
+            Thread.sleep(latencyMs);
+            NativeQuery query = invocation.getArgument(0);
+            return hits(query.getQuery().match().query().stringValue());
+        });
+        registry = new SimpleMeterRegistry();
+        service = new ElasticSearchService(new SearchIndexVersion(), registry, cacheWeight, 60_000);
+        ReflectionTestUtils.setField(service, "elasticDocumentRepository", mock(ElasticDocumentRepository.class));
+        ReflectionTestUtils.setField(service, "elasticsearchOperations", operations);
+    }
+
+    @TearDown
+    public void reportHitRatio() {
+        // Counts warmup queries too, on both sides of the ratio
+        FunctionCounter hits = registry.find("cache.gets")
+                .tags("cache", "searchResults", "result", "hit").functionCounter();
+        double ratio = hits == null || next == 0 ? 0 : hits.count() / next;
+        System.out.printf("queries=%d hit-ratio=%.1f%%%n", next, ratio * 100);
+    }
+
+    @Benchmark
+    public Page<SearchResult> search() {
+        int i = next++;
+        if (i > 0 && i % writeEvery == 0) {
+            ElasticDocument written = new ElasticDocument();
+            written.setId("w" + i);
+            service.indexDocument(written);
+        }
+        return service.search(queries.get(i % queries.size()), PageRequest.of(0, 10), false, false);
+    }
+
+    // Zipf(1.0): a handful of dashboard queries dominate, with a long tail
+    private static List<String> zipfLog() {
+        Random random = new Random(42);
+        int terms = 200;
+        double[] cumulative = new double[terms];
+        double sum = 0;
+        for (int k = 0; k < terms; k++) {
+            sum += 1.0 / (k + 1);
+            cumulative[k] = sum;
+        }
+        List<String> log = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            double r = random.nextDouble() * sum;
+            int k = Arrays.binarySearch(cumulative, r);
+            log.add("invoice " + (k < 0 ? -k - 1 : k));
+        }
+        return log;
+    }
+
+    // Ten hits with three 150-character fragments each, as the highlighted search returns them
+    private static SearchHits<ElasticDocument> hits(String query) {
+        List<SearchHit<ElasticDocument>> content = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            ElasticDocument document = new ElasticDocument();
+            document.setId(query + "-" + i);
+            document.setTitle(query);
+            content.add(new SearchHit<>("documents", document.getId(), null, 1.0f, null,
+                    Map.of("ocrText", List.of("x".repeat(150), "x".repeat(150), "x".repeat(150))),
+                    null, null, null, null, document));
+        }
+        return new SearchHitsImpl<>(10, TotalHitsRelation.EQUAL_TO, 1.0f, null, null, content, null, null);
+    }
+}
@@ -0,0 +1,69 @@
+package com.project.document_management.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.document_management.elastic.SearchResult;
+
+/**
+ * A page of /api/documents/search hits written as JSON, with highlights only (the default) and with the full OCR text
+ * ({@code full=true}). The mapper is built the way Spring MVC builds its own.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SearchResultSerializationBenchmark {
+
+    @Param({"false", "true"})
+    boolean full;
+
+    @Param({"20"})
+    int pageSize;
+
+    private ObjectMapper objectMapper;
+    private Page<SearchResult> page;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        String ocrText = SyntheticPages.text(8000);
+        List<SearchResult> results = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            results.add(new SearchResult(String.valueOf(1000 + i), "Invoice 2024-" + i,
+                    LocalDateTime.of(2024, 3, 1, 12, 0).plusHours(i), 250_000L + i, "application/pdf",
+                    12.5f - i * 0.1f,
+                    List.of("total due within <em>thirty</em> days", "quote the <em>invoice</em> number",
+                            "<em>invoice</em> issued to Northwind Traders"),
+                    full ? ocrText : null));
+        }
+        page = new PageImpl<>(results, PageRequest.of(0, pageSize), 4_000);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
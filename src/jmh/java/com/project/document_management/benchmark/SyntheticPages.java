@@ -0,0 +1,81 @@
+package com.project.document_management.benchmark;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.util.List;
+import java.util.Random;
+
+// Deterministic benchmark input, so results from different runs compare
+final class SyntheticPages {
+
+    private static final String[] LINES = {
+            "Invoice 2024-0173 issued to Northwind Traders",
+            "Delivery address: 42 Harbour Street, Rotterdam",
+            "Item 1: steel brackets, quantity 120, unit price 3.40",
+            "Item 2: hex bolts M8, quantity 900, unit price 0.12",
+            "Total due within thirty days of the invoice date",
+            "Please quote the invoice number with your payment"
+    };
+
+    private SyntheticPages() {
+    }
+
+    static String text(int chars) {
+        StringBuilder text = new StringBuilder(chars + 64);
+        for (int i = 0; text.length() < chars; i++) {
+            text.append(LINES[i % LINES.length]).append('\n');
+        }
+        return text.substring(0, chars);
+    }
+
+    // What every corpus page says
+    static String corpusText() {
+        return String.join("\n", LINES);
+    }
+
+    // A4 pages at 300 dpi unless noted
+    static List<BufferedImage> corpus() {
+        return List.of(
+                render(2480, 3508, 1, 0, false, false),
+                render(4960, 7016, 2, 0, false, false),
+                render(2480, 3508, 1, 3, false, false),
+                render(2480, 3508, 1, 0, true, false),
+                render(3000, 4000, 1.2, -2, false, true));
+    }
+
+    private static BufferedImage render(int width, int height, double scale, double skewDegrees, boolean border,
+                                        boolean photo) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g.setColor(photo ? new Color(214, 200, 178) : Color.WHITE);
+        g.fillRect(0, 0, width, height);
+        g.rotate(Math.toRadians(skewDegrees), width / 2.0, height / 2.0);
+        g.setColor(photo ? new Color(40, 36, 30) : Color.BLACK);
+        g.setFont(new Font(Font.SERIF, Font.PLAIN, (int) (42 * scale)));
+        for (int i = 0; i < LINES.length; i++) {
+            g.drawString(LINES[i], (int) (200 * scale), (int) ((400 + i * 70) * scale));
+        }
+        g.dispose();
+        if (border) {
+            Graphics2D frame = image.createGraphics();
+            frame.setColor(Color.BLACK);
+            frame.fillRect(0, 0, width, 90);
+            frame.fillRect(0, 0, 70, height);
+            frame.fillRect(width - 60, 0, 60, height);
+            frame.dispose();
+        }
+        if (photo) {
+            // Sensor noise
+            Random random = new Random(7);
+            for (int i = 0; i < width * height / 20; i++) {
+                int shade = 120 + random.nextInt(100);
+                image.setRGB(random.nextInt(width), random.nextInt(height), new Color(shade, shade, shade).getRGB());
+            }
+        }
+        return image;
+    }
+}
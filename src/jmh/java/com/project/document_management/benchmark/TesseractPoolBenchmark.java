@@ -0,0 +1,82 @@
+package com.project.document_management.benchmark;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.project.document_management.ocr.TesseractPool;
+
+/**
+ * Pages per second through the engine pool with as many workers as engines. Needs a native Tesseract install.
+ * Every invocation recognises the same batch of clean A4 pages, so only {@code workers} changes between results.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1, time = 10)
+@Measurement(iterations = 3, time = 20)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TesseractPoolBenchmark {
+
+    private static final int PAGES = 16;
+
+    @Param({"1", "4", "8"})
+    int workers;
+
+    @Param({"/usr/share/tessdata"})
+    String tessdata;
+
+    private List<BufferedImage> pages;
+    private TesseractPool pool;
+    private ExecutorService executor;
+
+    @Setup
+    public void setUp() {
+        BufferedImage page = SyntheticPages.corpus().get(0);
+        pages = new ArrayList<>(PAGES);
+        for (int i = 0; i < PAGES; i++) {
+            pages.add(page);
+        }
+        pool = new TesseractPool(tessdata, "eng", workers);
+        pool.warmUp();
+        executor = Executors.newFixedThreadPool(workers);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdown();
+        pool.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAGES)
+    public void recognizeBatch(Blackhole blackhole) throws InterruptedException, ExecutionException {
+        List<Future<String>> results = new ArrayList<>(PAGES);
+        for (BufferedImage page : pages) {
+            results.add(executor.submit(() -> pool.execute(engine -> engine.doOCR(page))));
+        }
+        for (Future<String> result : results) {
+            blackhole.consume(result.get());
+        }
+    }
+}
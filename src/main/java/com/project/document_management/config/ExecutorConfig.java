@@ -0,0 +1,90 @@
+package com.project.document_management.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.core.task.support.ContextPropagatingTaskDecorator;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import com.project.document_management.ocr.TesseractPool;
+
+// Every executor carries the submitting thread's observation over (ContextPropagatingTaskDecorator), so work handed
+// off to a page, upload or indexing thread stays in the trace of the upload or OCR message that caused it
+@Configuration
+public class ExecutorConfig {
+
+    // Page-level OCR tasks; as many threads as engines, any more would only wait on the pool. Always platform threads,
+    // even in virtual-thread mode: a virtual thread inside Tesseract's native code would pin its carrier
+    @Bean
+    public ThreadPoolTaskExecutor ocrPageExecutor(TesseractPool tesseractPool) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(tesseractPool.getSize());
+        executor.setMaxPoolSize(tesseractPool.getSize());
+        executor.setThreadNamePrefix("ocr-page-");
+        executor.setTaskDecorator(new ContextPropagatingTaskDecorator());
+        return executor;
+    }
+
+    // Async uploads (AsyncUploadService): hashing, database insert and event dispatch. The queue is bounded so a
+    // burst is turned away with 503 instead of piling staged files up on disk
+    @Bean
+    public ThreadPoolTaskExecutor uploadExecutor(@Value("${upload.async.threads:4}") int threads,
+                                                 @Value("${upload.async.queue-capacity:200}") int queueCapacity,
+                                                 Environment environment) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        useVirtualThreadsIfEnabled(executor, environment, "upload-");
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("upload-");
+        executor.setTaskDecorator(new ContextPropagatingTaskDecorator());
+        // Let accepted uploads finish on shutdown; their clients already got a 202
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    // Elasticsearch indexing after commit (IndexingQueue). Bounded: once full, updates are dropped and counted
+    // rather than run on the thread that saved the document
+    @Bean
+    public ThreadPoolTaskExecutor indexingExecutor(@Value("${indexing.queue.threads:2}") int threads,
+                                                   @Value("${indexing.queue.capacity:10000}") int capacity,
+                                                   Environment environment) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        useVirtualThreadsIfEnabled(executor, environment, "indexing-");
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(capacity);
+        executor.setThreadNamePrefix("indexing-");
+        executor.setTaskDecorator(new ContextPropagatingTaskDecorator());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        return executor;
+    }
+
+    // Reindex backfill slices (ReindexService), one thread per slice of the single running job
+    @Bean
+    public ThreadPoolTaskExecutor reindexExecutor(@Value("${reindex.slices:4}") int slices) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(Math.max(1, slices));
+        executor.setMaxPoolSize(Math.max(1, slices));
+        // A job resumed with more slices than configured now queues the rest
+        executor.setQueueCapacity(64);
+        executor.setThreadNamePrefix("reindex-slice-");
+        // Interrupted on shutdown; each slice resumes from its checkpoint
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+
+    // spring.threads.virtual.enabled on Java 21+: these executors only block on I/O (disk, database, Elasticsearch),
+    // so their workers become virtual threads. Pool size and queue stay as configured; they are the backpressure
+    private static void useVirtualThreadsIfEnabled(ThreadPoolTaskExecutor executor, Environment environment,
+                                                   String threadNamePrefix) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            executor.setThreadFactory(new VirtualThreadTaskExecutor(threadNamePrefix).getVirtualThreadFactory());
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.project.document_management.config;
+
+import org.springframework.boot.autoconfigure.web.servlet.MultipartProperties;
+import org.springframework.boot.web.servlet.MultipartConfigFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.project.document_management.service.FileStorageService;
+
+import jakarta.servlet.MultipartConfigElement;
+
+@Configuration
+public class MultipartConfig {
+
+    // Same as Boot's default, except parts are spooled next to the uploads directory.
+    // The container's temp dir is often another filesystem, which turns transferTo() into a second full copy.
+    @Bean
+    public MultipartConfigElement multipartConfigElement(MultipartProperties properties,
+                                                         FileStorageService fileStorageService) {
+        MultipartConfigFactory factory = new MultipartConfigFactory();
+        factory.setLocation(fileStorageService.getIncomingLocation().toString());
+        factory.setMaxFileSize(properties.getMaxFileSize());
+        factory.setMaxRequestSize(properties.getMaxRequestSize());
+        factory.setFileSizeThreshold(properties.getFileSizeThreshold());
+        return factory.createMultipartConfig();
+    }
+}
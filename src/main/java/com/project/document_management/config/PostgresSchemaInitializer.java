@@ -0,0 +1,178 @@
+package com.project.document_management.config;
+
+import java.sql.DatabaseMetaData;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.stereotype.Component;
+
+/**
+ * PostgreSQL-only schema Hibernate cannot express: the {@code search_vector} tsvector column with its GIN index
+ * and a trigram index for title substring matches. Runs after Hibernate's DDL; a no-op on other databases.
+ * Also moves the id sequences past rows inserted while the ids were IDENTITY columns.
+ */
+@Component
+public class PostgresSchemaInitializer implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostgresSchemaInitializer.class);
+    private static final int BACKFILL_BATCH_SIZE = 500;
+    // to_tsvector rejects documents whose vector would exceed 1MB; the tail of huge scans is not worth failing for
+    public static final int MAX_INDEXED_CHARS = 1_000_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String textSearchConfig;
+    private volatile boolean fullTextSearchReady;
+    private volatile String ocrTextExpression;
+
+    @Autowired
+    public PostgresSchemaInitializer(JdbcTemplate jdbcTemplate,
+                                     @Value("${search.postgres.text-search-config:english}") String textSearchConfig) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.textSearchConfig = textSearchConfig;
+    }
+
+    // After every singleton (so Hibernate has created the sequences), before the web server and listeners start
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!isPostgres()) {
+            return;
+        }
+        alignSequence("document", "document_seq");
+        alignSequence("outbox_message", "outbox_message_seq");
+    }
+
+    // Only ever moves a sequence forward. With pooled allocation nextval hands out the block ending at the new value,
+    // so after setval(max(id)) the next block starts at max(id) + 1.
+    private void alignSequence(String table, String sequence) {
+        try {
+            List<Long> moved = jdbcTemplate.queryForList(
+                    "SELECT setval('" + sequence + "', (SELECT max(id) FROM " + table + ")) " +
+                            "WHERE (SELECT max(id) FROM " + table + ") >= (SELECT last_value FROM " + sequence + ")",
+                    Long.class);
+            if (!moved.isEmpty()) {
+                logger.info("Moved sequence {} past existing {} ids (now {})", sequence, table, moved.get(0));
+            }
+        } catch (DataAccessException e) {
+            logger.warn("Could not align sequence {} with {}: {}", sequence, table, e.getMessage());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        try {
+            if (!isPostgres()) {
+                logger.info("Not running on PostgreSQL, database full-text search disabled");
+                return;
+            }
+            jdbcTemplate.execute("ALTER TABLE document ADD COLUMN IF NOT EXISTS search_vector tsvector");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_document_search_vector ON document USING GIN (search_vector)");
+            createTrigramIndex();
+            ocrTextExpression = resolveOcrTextExpression();
+            fullTextSearchReady = true;
+            logger.info("PostgreSQL full-text search ready (text search config: {})", textSearchConfig);
+        } catch (DataAccessException e) {
+            logger.warn("Could not set up PostgreSQL full-text search, falling back to LIKE: {}", e.getMessage());
+            return;
+        }
+        Thread backfill = new Thread(this::backfillSearchVectors, "search-vector-backfill");
+        backfill.setDaemon(true);
+        backfill.start();
+    }
+
+    public boolean isFullTextSearchReady() {
+        return fullTextSearchReady;
+    }
+
+    public String getTextSearchConfig() {
+        return textSearchConfig;
+    }
+
+    private boolean isPostgres() {
+        try {
+            String product = JdbcUtils.extractDatabaseMetaData(jdbcTemplate.getDataSource(),
+                    DatabaseMetaData::getDatabaseProductName);
+            return "PostgreSQL".equalsIgnoreCase(product);
+        } catch (Exception e) {
+            logger.warn("Could not determine database product: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private void createTrigramIndex() {
+        try {
+            jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_document_title_trgm ON document USING GIN (lower(title) gin_trgm_ops)");
+        } catch (DataAccessException e) {
+            // Needs CREATE privilege on the database; title matches still work, just without an index
+            logger.warn("pg_trgm not available, title substring search will not be indexed: {}", e.getMessage());
+        }
+    }
+
+    // Hibernate maps the @Lob to a large object (oid) on PostgreSQL, older schemas may have text
+    private String resolveOcrTextExpression() {
+        String type = jdbcTemplate.queryForObject(
+                "SELECT data_type FROM information_schema.columns " +
+                        "WHERE table_schema = current_schema() AND table_name = 'document' AND column_name = 'ocr_text'",
+                String.class);
+        return "oid".equals(type) ? "convert_from(lo_get(ocr_text), 'UTF8')" : "ocr_text";
+    }
+
+    // Documents recognised before the column existed; in small batches so it never holds long locks
+    private void backfillSearchVectors() {
+        String sql = "UPDATE document SET search_vector = " + searchVector() +
+                "WHERE id IN (SELECT id FROM document WHERE search_vector IS NULL ORDER BY id LIMIT ?)";
+        long total = 0;
+        try {
+            int updated;
+            do {
+                try {
+                    updated = jdbcTemplate.update(sql, textSearchConfig, textSearchConfig, BACKFILL_BATCH_SIZE);
+                } catch (DataAccessException e) {
+                    // One row the batch cannot index would otherwise stop the backfill here on every startup
+                    logger.warn("Search vector backfill batch failed, retrying it row by row: {}", e.getMessage());
+                    updated = backfillRowByRow();
+                }
+                total += updated;
+            } while (updated == BACKFILL_BATCH_SIZE);
+            if (total > 0) {
+                logger.info("Backfilled search vectors for {} documents", total);
+            }
+        } catch (DataAccessException e) {
+            logger.warn("Search vector backfill stopped after {} documents: {}", total, e.getMessage());
+        }
+    }
+
+    // A row whose text cannot be indexed gets a title-only vector, so it is still found by title and not retried
+    private int backfillRowByRow() {
+        List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM document WHERE search_vector IS NULL ORDER BY id LIMIT ?",
+                Long.class, BACKFILL_BATCH_SIZE);
+        for (Long id : ids) {
+            try {
+                jdbcTemplate.update("UPDATE document SET search_vector = " + searchVector() + "WHERE id = ?",
+                        textSearchConfig, textSearchConfig, id);
+            } catch (DataAccessException e) {
+                logger.warn("Indexing only the title of document ID {}, its text failed: {}", id, e.getMessage());
+                jdbcTemplate.update("UPDATE document SET search_vector = " +
+                                "setweight(to_tsvector(CAST(? AS regconfig), coalesce(title, '')), 'A') WHERE id = ?",
+                        textSearchConfig, id);
+            }
+        }
+        return ids.size();
+    }
+
+    // Same vector as DocumentSearchRepository.updateSearchVector, text capped at MAX_INDEXED_CHARS
+    private String searchVector() {
+        return "setweight(to_tsvector(CAST(? AS regconfig), coalesce(title, '')), 'A') || " +
+                "setweight(to_tsvector(CAST(? AS regconfig), " +
+                "left(coalesce(" + ocrTextExpression + ", ''), " + MAX_INDEXED_CHARS + ")), 'B') ";
+    }
+}
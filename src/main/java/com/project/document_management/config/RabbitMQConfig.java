@@ -1,16 +1,98 @@
 package com.project.document_management.config;
 
+import java.time.Duration;
+import java.util.Date;
+
+import org.springframework.amqp.core.MessagePostProcessor;
 import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import com.project.document_management.ocr.TesseractPool;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
 @Configuration
 public class RabbitMQConfig {
 
+    // Interactive OCR requests: single uploads of ordinary size
     public static final String DOCUMENT_QUEUE = "documentQueue";
+    // Batch imports and large files; messages carry a priority (see OcrQueueRouter)
+    public static final String BULK_DOCUMENT_QUEUE = "documentBulkQueue";
+    public static final int BULK_MAX_PRIORITY = 9;
 
     @Bean
     public Queue documentQueue() {
         return new Queue(DOCUMENT_QUEUE, true);
     }
-}
\ No newline at end of file
+
+    @Bean
+    public Queue documentBulkQueue() {
+        return QueueBuilder.durable(BULK_DOCUMENT_QUEUE).maxPriority(BULK_MAX_PRIORITY).build();
+    }
+
+    @Bean
+    public SimpleRabbitListenerContainerFactory ocrListenerContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            ConnectionFactory connectionFactory,
+            TesseractPool tesseractPool,
+            MeterRegistry meterRegistry) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        observe(factory, meterRegistry, "interactive");
+        // One consumer per engine, so a node keeps all of its engines busy without queueing on the pool
+        factory.setConcurrentConsumers(tesseractPool.getSize());
+        factory.setMaxConcurrentConsumers(tesseractPool.getSize());
+        // OCR messages take seconds to minutes; don't let one consumer hold deliveries another could start
+        factory.setPrefetchCount(1);
+        return factory;
+    }
+
+    // One consumer per bulk engine. The engine limit itself is in TesseractPool (a bulk document's pages run in
+    // parallel, so consumers alone would not bound it). Prefetch 1 lets the broker's priority order decide what
+    // starts next.
+    @Bean
+    public SimpleRabbitListenerContainerFactory bulkOcrListenerContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            ConnectionFactory connectionFactory,
+            TesseractPool tesseractPool,
+            MeterRegistry meterRegistry) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        observe(factory, meterRegistry, "bulk");
+        int consumers = tesseractPool.getBulkEngines();
+        factory.setConcurrentConsumers(consumers);
+        factory.setMaxConcurrentConsumers(consumers);
+        factory.setPrefetchCount(1);
+        return factory;
+    }
+
+    // Deliveries continue the trace from the message's traceparent header (see OutboxRelay), and the time each
+    // message spent in the queue, from the publish timestamp the relay sets, is recorded per queue
+    private static void observe(SimpleRabbitListenerContainerFactory factory, MeterRegistry meterRegistry,
+                                String queue) {
+        factory.setObservationEnabled(true);
+        Timer queueWait = Timer.builder("ocr.queue.wait")
+                .description("Time an OCR request waited in RabbitMQ before a consumer took it")
+                .tag("queue", queue)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        factory.setAfterReceivePostProcessors(queueWaitRecorder(queueWait));
+    }
+
+    static MessagePostProcessor queueWaitRecorder(Timer queueWait) {
+        return message -> {
+            Date publishedAt = message.getMessageProperties().getTimestamp();
+            if (publishedAt != null) {
+                // Clocks of the publishing and consuming nodes can disagree; never record a negative wait
+                queueWait.record(Duration.ofMillis(Math.max(0, System.currentTimeMillis() - publishedAt.getTime())));
+            }
+            return message;
+        };
+    }
+}
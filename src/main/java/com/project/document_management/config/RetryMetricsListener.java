@@ -0,0 +1,63 @@
+package com.project.document_management.config;
+
+import java.lang.reflect.Method;
+
+import org.springframework.retry.RetryCallback;
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.RetryListener;
+import org.springframework.retry.interceptor.MethodInvocationRetryCallback;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Counts what {@code @Retryable} methods go through. Spring Retry applies every RetryListener bean to all of them.
+ * Per method: {@code retry.attempts.failed} for each failed attempt, {@code retry.recovered} when the attempts ran out
+ * and the {@code @Recover} fallback answered, {@code retry.exhausted} when there was no fallback to answer.
+ */
+@Component
+public class RetryMetricsListener implements RetryListener {
+
+    private final MeterRegistry meterRegistry;
+
+    public RetryMetricsListener(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public <T, E extends Throwable> void onError(RetryContext context, RetryCallback<T, E> callback,
+                                                 Throwable throwable) {
+        Counter.builder("retry.attempts.failed")
+                .description("Failed attempts of @Retryable methods")
+                .tag("method", methodName(context, callback))
+                .tag("exception", throwable.getClass().getSimpleName())
+                .register(meterRegistry)
+                .increment();
+    }
+
+    @Override
+    public <T, E extends Throwable> void close(RetryContext context, RetryCallback<T, E> callback,
+                                               Throwable throwable) {
+        if (throwable == null) {
+            return;
+        }
+        boolean recovered = Boolean.TRUE.equals(context.getAttribute(RetryContext.RECOVERED));
+        Counter.builder(recovered ? "retry.recovered" : "retry.exhausted")
+                .description(recovered ? "Calls answered by their @Recover fallback after every attempt failed"
+                        : "Calls that failed every attempt without a fallback")
+                .tag("method", methodName(context, callback))
+                .register(meterRegistry)
+                .increment();
+    }
+
+    // ElasticSearchService.indexDocument rather than the full generic signature Spring Retry uses as its label
+    private static String methodName(RetryContext context, RetryCallback<?, ?> callback) {
+        if (callback instanceof MethodInvocationRetryCallback<?, ?> invocation) {
+            Method method = invocation.getInvocation().getMethod();
+            return method.getDeclaringClass().getSimpleName() + "." + method.getName();
+        }
+        Object name = context.getAttribute(RetryContext.NAME);
+        return name != null ? name.toString() : "unknown";
+    }
+}
@@ -1,16 +1,20 @@
 package com.project.document_management.controller;
 
 import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.http.HttpHeaders;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -23,12 +27,20 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
-import com.project.document_management.elastic.ElasticDocument;
 import com.project.document_management.elastic.ElasticDocumentRepository;
+import com.project.document_management.elastic.SearchResult;
 import com.project.document_management.model.Document;
+import com.project.document_management.model.DocumentSummary;
+import com.project.document_management.model.OcrProgress;
+import com.project.document_management.model.UploadStatus;
+import com.project.document_management.service.AsyncUploadService;
+import com.project.document_management.service.BatchUploadService;
 import com.project.document_management.service.DocumentService;
 import com.project.document_management.service.ElasticSearchService;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
 @RestController
 @RequestMapping("/api/documents")
 public class DocumentController {
@@ -40,6 +52,11 @@ public class DocumentController {
     private ElasticSearchService elasticSearchService;
     @Autowired
     private ElasticDocumentRepository elasticDocumentRepository;
+    @Autowired
+    private AsyncUploadService asyncUploadService;
+    @Autowired
+    private BatchUploadService batchUploadService;
+    private final FileDownloadWriter fileDownloadWriter = new FileDownloadWriter();
 
     @PostMapping(value = "/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<Document> uploadDocument(
@@ -49,30 +66,93 @@ public class DocumentController {
         return ResponseEntity.ok(savedDocument);
     }
 
+    // Body is the file itself (Content-Type = the file's type); streamed to storage without multipart parsing
+    @PostMapping(value = "/upload/stream", consumes = "!" + MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<Document> uploadDocumentStream(
+            HttpServletRequest request,
+            @RequestParam("title") String title,
+            @RequestParam("filename") String filename) throws IOException {
+        String contentType = request.getContentType() != null
+                ? request.getContentType() : MediaType.APPLICATION_OCTET_STREAM_VALUE;
+        Document savedDocument = documentService.uploadDocument(request.getInputStream(), filename, contentType, title);
+        return ResponseEntity.ok(savedDocument);
+    }
+
+    // Async mode (?async=true on either upload endpoint): 202 as soon as the bytes are on disk, the rest runs
+    // in the background. Follow the Location header for the status.
+    @PostMapping(value = "/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE, params = "async=true")
+    public ResponseEntity<UploadStatus> uploadDocumentAsync(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam("title") String title) throws IOException {
+        return accepted(asyncUploadService.submit(file, title));
+    }
+
+    @PostMapping(value = "/upload/stream", consumes = "!" + MediaType.MULTIPART_FORM_DATA_VALUE, params = "async=true")
+    public ResponseEntity<UploadStatus> uploadDocumentStreamAsync(
+            HttpServletRequest request,
+            @RequestParam("title") String title,
+            @RequestParam("filename") String filename) throws IOException {
+        String contentType = request.getContentType() != null
+                ? request.getContentType() : MediaType.APPLICATION_OCTET_STREAM_VALUE;
+        return accepted(asyncUploadService.submit(request.getInputStream(), filename, contentType, title));
+    }
+
+    // Scanner batches: many "files" parts in one multipart request, titled by file name
+    @PostMapping(value = "/upload/batch", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<List<Document>> uploadBatch(@RequestParam("files") List<MultipartFile> files)
+            throws IOException {
+        return ResponseEntity.ok(batchUploadService.upload(files));
+    }
+
+    // Same, with a zip archive as the request body; entries are stored while the archive is still arriving
+    @PostMapping(value = "/upload/batch", consumes = {"application/zip", "application/x-zip-compressed"})
+    public ResponseEntity<List<Document>> uploadBatchZip(HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(batchUploadService.uploadZip(request.getInputStream()));
+    }
+
+    @GetMapping("/uploads/{token}")
+    public ResponseEntity<UploadStatus> getUploadStatus(@PathVariable String token) {
+        return ResponseEntity.of(asyncUploadService.getStatus(token));
+    }
+
+    private static ResponseEntity<UploadStatus> accepted(UploadStatus status) {
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/documents/uploads/" + status.getToken()))
+                .body(status);
+    }
+
     @GetMapping("/{id}/ocr")
     public ResponseEntity<String> getOCRText(@PathVariable Long id) {
         String ocrText = documentService.getOCRText(id);
         return ResponseEntity.ok(ocrText);
     }
 
+    @GetMapping("/{id}/ocr/status")
+    public ResponseEntity<OcrProgress> getOCRStatus(@PathVariable Long id) {
+        return ResponseEntity.ok(documentService.getOCRProgress(id));
+    }
+
     @GetMapping("/search")
 public ResponseEntity<?> searchDocuments(
         @RequestParam String query,
         @RequestParam(defaultValue = "0") int page,
         @RequestParam(defaultValue = "10") int size,
-        @RequestParam(defaultValue = "false") boolean fuzzy) {
+        @RequestParam(defaultValue = "false") boolean fuzzy,
+        @RequestParam(defaultValue = "false") boolean full) {
     
     try {
-        Page<ElasticDocument> results;
+        Page<SearchResult> results;
         Pageable pageable = PageRequest.of(page, size);
         
-        // Use service if available, otherwise direct repository
+        // Use service if available, otherwise direct repository (no highlighting there)
         if (elasticSearchService != null) {
-            results = elasticSearchService.search(query, pageable, fuzzy);
+            results = elasticSearchService.search(query, pageable, fuzzy, full);
         } else if (fuzzy) {
-            results = elasticDocumentRepository.searchByOcrTextOrTitleFuzzy(query, pageable);
+            results = elasticDocumentRepository.searchByOcrTextOrTitleFuzzy(query, pageable)
+                    .map(document -> SearchResult.of(document, null, null, full));
         } else {
-            results = elasticDocumentRepository.findByOcrTextContaining(query, pageable);
+            results = elasticDocumentRepository.findByOcrTextContaining(query, pageable)
+                    .map(document -> SearchResult.of(document, null, null, full));
         }
         
         return ResponseEntity.ok(results);
@@ -83,16 +163,39 @@ public ResponseEntity<?> searchDocuments(
                 .body("Error searching documents: " + e.getMessage());
     }
 }
+    // Title suggestions for a search box, matched on word prefixes
+    @GetMapping("/search/suggest")
+    public ResponseEntity<List<SearchResult>> suggestTitles(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int size) {
+        if (elasticSearchService == null) {
+            return ResponseEntity.ok(List.of());
+        }
+        return ResponseEntity.ok(elasticSearchService.suggestTitles(prefix, size));
+    }
+
+    // Ranked database search (PostgreSQL full-text); works while Elasticsearch is down
+    @GetMapping("/search/db")
+    public ResponseEntity<Slice<DocumentSummary>> searchDocumentsInDatabase(
+            @RequestParam String query,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+        return ResponseEntity.ok(documentService.searchDocuments(query, page, size));
+    }
+
+    // Range requests let PDF viewers seek without re-downloading; If-None-Match / If-Range use the content hash
     @GetMapping("/{id}/download")
-    public ResponseEntity<Resource> downloadDocument(@PathVariable Long id) throws IOException {
+    public void downloadDocument(@PathVariable Long id, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
         Document document = documentService.getDocumentById(id);
-        Resource resource = documentService.getDocumentFile(id);
-
-        return ResponseEntity.ok()
-                .contentType(MediaType.parseMediaType(document.getContentType()))
-                .header(HttpHeaders.CONTENT_DISPOSITION,
-                        "attachment; filename=\"" + resource.getFilename() + "\"")
-                .body(resource);
+        Path file = Paths.get(document.getStoragePath());
+        String contentType = document.getContentType() != null
+                ? document.getContentType() : MediaType.APPLICATION_OCTET_STREAM_VALUE;
+        String filename = document.getOriginalFilename() != null
+                ? document.getOriginalFilename() : file.getFileName().toString();
+        String contentDisposition = ContentDisposition.attachment()
+                .filename(filename, StandardCharsets.UTF_8).build().toString();
+        fileDownloadWriter.write(request, response, file, contentType, document.getContentHash(), contentDisposition);
     }
 
     @DeleteMapping("/{id}")
@@ -101,13 +204,28 @@ public ResponseEntity<?> searchDocuments(
         return ResponseEntity.noContent().build();
     }
 
+    // Paged: size defaults to 50 and is capped at 200; use /page to walk the whole list
     @GetMapping
-    public ResponseEntity<List<Document>> getDocuments(
+    public ResponseEntity<List<DocumentSummary>> getDocuments(
             @RequestParam(defaultValue = "") String search,
             @RequestParam(defaultValue = "uploadedAt") String sort,
-            @RequestParam(defaultValue = "desc") String direction) {
+            @RequestParam(defaultValue = "desc") String direction,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
 
-        List<Document> documents = documentService.getDocuments(search, sort, direction);
+        List<DocumentSummary> documents = documentService.getDocuments(search, sort, direction, page, size);
         return ResponseEntity.ok(documents);
     }
-}
\ No newline at end of file
+
+    // Newest first; follow nextCursor for older documents
+    @GetMapping("/page")
+    public ResponseEntity<?> listDocuments(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        try {
+            return ResponseEntity.ok(documentService.listDocuments(cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.project.document_management.controller;
+
+import java.io.IOException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.project.document_management.model.ReindexJob;
+import com.project.document_management.service.ReindexService;
+
+// Rebuilding the Elasticsearch index from the database; jobs run in the background, poll them for progress
+@RestController
+@RequestMapping("/api/admin/reindex")
+public class ReindexController {
+
+    @Autowired
+    private ReindexService reindexService;
+
+    @PostMapping
+    public ResponseEntity<?> startReindex() throws IOException {
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(reindexService.start());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
+    }
+
+    @GetMapping
+    public ResponseEntity<ReindexJob> getLatestJob() {
+        return ResponseEntity.of(reindexService.getLatestJob());
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ReindexJob> getJob(@PathVariable Long id) {
+        return ResponseEntity.of(reindexService.getJob(id));
+    }
+
+    @PostMapping("/{id}/resume")
+    public ResponseEntity<?> resumeJob(@PathVariable Long id) {
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(reindexService.resume(id));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
+    }
+}
@@ -3,9 +3,12 @@ package com.project.document_management.elastic;
 import java.time.LocalDateTime;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.elasticsearch.annotations.DateFormat;
 import org.springframework.data.elasticsearch.annotations.Document;
 import org.springframework.data.elasticsearch.annotations.Field;
 import org.springframework.data.elasticsearch.annotations.FieldType;
+import org.springframework.data.elasticsearch.annotations.InnerField;
+import org.springframework.data.elasticsearch.annotations.MultiField;
 import org.springframework.data.elasticsearch.annotations.Setting;
 
 @Document(indexName = "documents")
@@ -15,17 +18,20 @@ public class ElasticDocument {
     @Id
     private String id;
 
-    @Field(type = FieldType.Text, analyzer = "english")
+    // title.autocomplete holds edge n-grams of each title word for as-you-type suggestions. It is a sub-field,
+    // so the title is stored once in _source; OCR text is only analyzed as whole words
+    @MultiField(
+            mainField = @Field(type = FieldType.Text, analyzer = "english"),
+            otherFields = @InnerField(suffix = "autocomplete", type = FieldType.Text,
+                    analyzer = "title_autocomplete", searchAnalyzer = "title_autocomplete_search"))
     private String title;
 
     @Field(type = FieldType.Text, analyzer = "english")
     private String ocrText;
-    
-    // Additional field for partial matches (fuzzy-like behavior)
-    @Field(type = FieldType.Text, analyzer = "autocomplete_analyzer", searchAnalyzer = "standard")
-    private String ocrTextNgram;
 
-    @Field(type = FieldType.Date)
+    // Without an explicit format a LocalDateTime was written as a bare date, which could not be read back into hits.
+    // Documents indexed before that need a rebuild (POST /api/admin/reindex) to show up in search again
+    @Field(type = FieldType.Date, format = DateFormat.date_hour_minute_second_millis)
     private LocalDateTime uploadedAt;
     
     @Field(type = FieldType.Long)
@@ -34,6 +40,17 @@ public class ElasticDocument {
     @Field(type = FieldType.Keyword)
     private String contentType;
 
+    public static ElasticDocument fromDocument(com.project.document_management.model.Document document) {
+        ElasticDocument elasticDocument = new ElasticDocument();
+        elasticDocument.setId(document.getId().toString());
+        elasticDocument.setTitle(document.getTitle());
+        elasticDocument.setOcrText(document.getOcrText());
+        elasticDocument.setUploadedAt(document.getUploadedAt());
+        elasticDocument.setFileSize(document.getFileSize());
+        elasticDocument.setContentType(document.getContentType());
+        return elasticDocument;
+    }
+
     // Getters and Setters
     public String getId() {
         return id;
@@ -57,15 +74,6 @@ public class ElasticDocument {
 
     public void setOcrText(String ocrText) {
         this.ocrText = ocrText;
-        this.ocrTextNgram = ocrText; // Also set the n-gram field
-    }
-
-    public String getOcrTextNgram() {
-        return ocrTextNgram;
-    }
-
-    public void setOcrTextNgram(String ocrTextNgram) {
-        this.ocrTextNgram = ocrTextNgram;
     }
 
     public LocalDateTime getUploadedAt() {
@@ -22,7 +22,4 @@ public interface ElasticDocumentRepository extends ElasticsearchRepository<Elast
     // Fuzzy search with pagination
     @Query("{\"bool\": {\"should\": [{\"match\": {\"ocrText\": {\"query\": \"?0\", \"fuzziness\": \"AUTO\"}}}, {\"match\": {\"title\": {\"query\": \"?0\", \"fuzziness\": \"AUTO\"}}}]}}")
     Page<ElasticDocument> searchByOcrTextOrTitleFuzzy(String query, Pageable pageable);
-    
-    // Search using the n-gram field for partial matches
-    List<ElasticDocument> findByOcrTextNgramContaining(String query);
 }
\ No newline at end of file
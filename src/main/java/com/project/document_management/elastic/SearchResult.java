@@ -0,0 +1,70 @@
+package com.project.document_management.elastic;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+// One search hit as returned by /api/documents/search: metadata and highlighted fragments, full text only on request
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SearchResult {
+
+    private final String id;
+    private final String title;
+    private final LocalDateTime uploadedAt;
+    private final Long fileSize;
+    private final String contentType;
+    private final Float score;
+    private final List<String> highlights;
+    private final String ocrText;
+
+    public SearchResult(String id, String title, LocalDateTime uploadedAt, Long fileSize, String contentType,
+                        Float score, List<String> highlights, String ocrText) {
+        this.id = id;
+        this.title = title;
+        this.uploadedAt = uploadedAt;
+        this.fileSize = fileSize;
+        this.contentType = contentType;
+        this.score = score;
+        this.highlights = highlights;
+        this.ocrText = ocrText;
+    }
+
+    public static SearchResult of(ElasticDocument document, Float score, List<String> highlights, boolean full) {
+        return new SearchResult(document.getId(), document.getTitle(), document.getUploadedAt(),
+                document.getFileSize(), document.getContentType(), score, highlights,
+                full ? document.getOcrText() : null);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public LocalDateTime getUploadedAt() {
+        return uploadedAt;
+    }
+
+    public Long getFileSize() {
+        return fileSize;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public Float getScore() {
+        return score;
+    }
+
+    public List<String> getHighlights() {
+        return highlights;
+    }
+
+    public String getOcrText() {
+        return ocrText;
+    }
+}
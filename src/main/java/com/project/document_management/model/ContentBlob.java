@@ -0,0 +1,38 @@
+package com.project.document_management.model;
+
+import jakarta.persistence.*;
+
+// One stored blob per distinct content hash, with the number of documents pointing at it
+@Entity
+public class ContentBlob {
+
+    @Id
+    @Column(length = 64)
+    private String hash; // SHA-256 (hex), also the blob's file name
+
+    private int refCount;
+
+    public ContentBlob() {
+    }
+
+    public ContentBlob(String hash) {
+        this.hash = hash;
+    }
+
+    // Getters and Setters
+    public String getHash() {
+        return hash;
+    }
+
+    public void setHash(String hash) {
+        this.hash = hash;
+    }
+
+    public int getRefCount() {
+        return refCount;
+    }
+
+    public void setRefCount(int refCount) {
+        this.refCount = refCount;
+    }
+}
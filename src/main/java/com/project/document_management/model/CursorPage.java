@@ -0,0 +1,23 @@
+package com.project.document_management.model;
+
+import java.util.List;
+
+// One page of a keyset-paginated listing; pass nextCursor back to get the following page (null on the last one)
+public class CursorPage<T> {
+
+    private final List<T> items;
+    private final String nextCursor;
+
+    public CursorPage(List<T> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
@@ -4,21 +4,50 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_document_content_hash", columnList = "content_hash"),
+        // Keyset pagination of the document listing
+        @Index(name = "idx_document_uploaded_at_id", columnList = "uploaded_at, id"),
+        // Reindex catch-up: documents changed while the new index was being filled
+        @Index(name = "idx_document_last_modified_at", columnList = "last_modified_at")
+})
 public class Document {
 
+    // Pooled sequence: one nextval per 50 rows, and unlike IDENTITY it lets Hibernate batch the inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "document_seq")
+    @SequenceGenerator(name = "document_seq", sequenceName = "document_seq", allocationSize = 50)
     private Long id;
 
     private String title;
     private String storagePath; // Path to the stored file
     private Long fileSize; // File size in bytes
     private String contentType; // File MIME type (e.g., application/pdf)
+    @Column(name = "uploaded_at")
     private LocalDateTime uploadedAt; // Timestamp of upload
+    private String originalFilename; // Name the file was uploaded with
+    @Column(name = "content_hash", length = 64)
+    private String contentHash; // SHA-256 of the stored bytes (hex), shared by duplicate uploads
 
     @Lob
     private String ocrText; // Field to store extracted OCR text
 
+    private Integer ocrPagesDone; // Pages recognised so far
+    private Integer ocrPagesTotal; // Page count, known once OCR has started
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private ProcessingStatus processingStatus;
+
+    @Column(name = "last_modified_at")
+    private LocalDateTime lastModifiedAt; // Set on every entity save; bulk JPQL updates (OCR progress) leave it alone
+
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        lastModifiedAt = LocalDateTime.now();
+    }
+
     // Getters and Setters
     public Long getId() {
         return id;
@@ -76,4 +105,52 @@ public class Document {
         this.ocrText = ocrText;
     }
 
+    public Integer getOcrPagesDone() {
+        return ocrPagesDone;
+    }
+
+    public void setOcrPagesDone(Integer ocrPagesDone) {
+        this.ocrPagesDone = ocrPagesDone;
+    }
+
+    public Integer getOcrPagesTotal() {
+        return ocrPagesTotal;
+    }
+
+    public void setOcrPagesTotal(Integer ocrPagesTotal) {
+        this.ocrPagesTotal = ocrPagesTotal;
+    }
+
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
+    public String getOriginalFilename() {
+        return originalFilename;
+    }
+
+    public void setOriginalFilename(String originalFilename) {
+        this.originalFilename = originalFilename;
+    }
+
+    public LocalDateTime getLastModifiedAt() {
+        return lastModifiedAt;
+    }
+
+    public void setLastModifiedAt(LocalDateTime lastModifiedAt) {
+        this.lastModifiedAt = lastModifiedAt;
+    }
+
+    public ProcessingStatus getProcessingStatus() {
+        return processingStatus;
+    }
+
+    public void setProcessingStatus(ProcessingStatus processingStatus) {
+        this.processingStatus = processingStatus;
+    }
+
 }
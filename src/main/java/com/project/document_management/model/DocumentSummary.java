@@ -0,0 +1,54 @@
+package com.project.document_management.model;
+
+import java.time.LocalDateTime;
+
+// Document as shown in listings; selected with a constructor expression so the OCR text is never read
+public class DocumentSummary {
+
+    private final Long id;
+    private final String title;
+    private final String originalFilename;
+    private final Long fileSize;
+    private final String contentType;
+    private final LocalDateTime uploadedAt;
+    private final boolean ocrComplete;
+
+    public DocumentSummary(Long id, String title, String originalFilename, Long fileSize, String contentType,
+                           LocalDateTime uploadedAt, boolean ocrComplete) {
+        this.id = id;
+        this.title = title;
+        this.originalFilename = originalFilename;
+        this.fileSize = fileSize;
+        this.contentType = contentType;
+        this.uploadedAt = uploadedAt;
+        this.ocrComplete = ocrComplete;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getOriginalFilename() {
+        return originalFilename;
+    }
+
+    public Long getFileSize() {
+        return fileSize;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public LocalDateTime getUploadedAt() {
+        return uploadedAt;
+    }
+
+    public boolean isOcrComplete() {
+        return ocrComplete;
+    }
+}
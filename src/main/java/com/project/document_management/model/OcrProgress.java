@@ -0,0 +1,38 @@
+package com.project.document_management.model;
+
+// OCR status of a document as reported by GET /api/documents/{id}/ocr/status
+public class OcrProgress {
+
+    private final Long documentId;
+    private final Integer pagesDone;
+    private final Integer pagesTotal;
+    private final boolean complete;
+
+    public OcrProgress(Long documentId, Integer pagesDone, Integer pagesTotal, boolean complete) {
+        this.documentId = documentId;
+        this.pagesDone = pagesDone;
+        this.pagesTotal = pagesTotal;
+        this.complete = complete;
+    }
+
+    public static OcrProgress of(Document document) {
+        return new OcrProgress(document.getId(), document.getOcrPagesDone(), document.getOcrPagesTotal(),
+                document.getOcrText() != null);
+    }
+
+    public Long getDocumentId() {
+        return documentId;
+    }
+
+    public Integer getPagesDone() {
+        return pagesDone;
+    }
+
+    public Integer getPagesTotal() {
+        return pagesTotal;
+    }
+
+    public boolean isComplete() {
+        return complete;
+    }
+}
@@ -0,0 +1,84 @@
+package com.project.document_management.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Message waiting to be relayed to RabbitMQ, written in the same transaction as the change it announces
+@Entity
+public class OutboxMessage {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_message_seq")
+    @SequenceGenerator(name = "outbox_message_seq", sequenceName = "outbox_message_seq", allocationSize = 50)
+    private Long id;
+
+    private String queue; // Routing key on the default exchange
+    private String payload;
+    private Integer priority; // AMQP message priority, only meaningful on priority queues
+    @Column(length = 55)
+    private String traceParent; // W3C traceparent of the request that wrote the message, sent along as a header
+    private LocalDateTime createdAt;
+
+    public OutboxMessage() {
+    }
+
+    public OutboxMessage(String queue, String payload) {
+        this.queue = queue;
+        this.payload = payload;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public OutboxMessage(String queue, String payload, Integer priority) {
+        this(queue, payload);
+        this.priority = priority;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getQueue() {
+        return queue;
+    }
+
+    public void setQueue(String queue) {
+        this.queue = queue;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+
+    public Integer getPriority() {
+        return priority;
+    }
+
+    public void setPriority(Integer priority) {
+        this.priority = priority;
+    }
+
+    public String getTraceParent() {
+        return traceParent;
+    }
+
+    public void setTraceParent(String traceParent) {
+        this.traceParent = traceParent;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,12 @@
+package com.project.document_management.model;
+
+// Where an upload is in the pipeline, in order; RECEIVED, STORED and FAILED only exist for async uploads
+public enum ProcessingStatus {
+    RECEIVED, // Bytes staged, waiting for an upload worker
+    STORED, // Hashed and moved into the blob store, document row being written
+    QUEUED, // Saved, OCR message in the outbox
+    OCR_RUNNING,
+    OCR_DONE, // Text saved (or reused from identical content), waiting for Elasticsearch
+    INDEXED,
+    FAILED
+}
@@ -0,0 +1,146 @@
+package com.project.document_management.model;
+
+import jakarta.persistence.*;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+// One rebuild of the Elasticsearch index from the database; per-range progress is kept in ReindexSlice
+@Entity
+public class ReindexJob {
+
+    public enum Status {
+        RUNNING, COMPLETED, FAILED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String targetIndex; // Versioned index being filled, e.g. documents_v20240501120000
+
+    @Enumerated(EnumType.STRING)
+    private Status status;
+
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private LocalDateTime changesSince; // Documents modified since then are indexed again by the next catch-up pass
+    private boolean backfillDone;
+    private long docsIndexed; // Backfill and catch-up together
+
+    @Column(length = 1000)
+    private String error;
+
+    // The node driving the job and when it last renewed its lease. Only the claim and heartbeat queries in
+    // ReindexJobRepository change them, so a save of a stale copy of the job cannot hand the lease back
+    @Column(updatable = false)
+    private String owner;
+
+    @Column(updatable = false)
+    private LocalDateTime heartbeatAt;
+
+    public ReindexJob() {
+    }
+
+    public ReindexJob(String targetIndex, LocalDateTime changesSince) {
+        this.targetIndex = targetIndex;
+        this.changesSince = changesSince;
+        this.status = Status.RUNNING;
+        this.startedAt = LocalDateTime.now();
+    }
+
+    // Overall rate since the job was first started, including any time it spent interrupted
+    public double getDocsPerSecond() {
+        LocalDateTime end = finishedAt != null ? finishedAt : LocalDateTime.now();
+        long millis = Math.max(1, Duration.between(startedAt, end).toMillis());
+        return docsIndexed * 1000.0 / millis;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTargetIndex() {
+        return targetIndex;
+    }
+
+    public void setTargetIndex(String targetIndex) {
+        this.targetIndex = targetIndex;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(LocalDateTime finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public LocalDateTime getChangesSince() {
+        return changesSince;
+    }
+
+    public void setChangesSince(LocalDateTime changesSince) {
+        this.changesSince = changesSince;
+    }
+
+    public boolean isBackfillDone() {
+        return backfillDone;
+    }
+
+    public void setBackfillDone(boolean backfillDone) {
+        this.backfillDone = backfillDone;
+    }
+
+    public long getDocsIndexed() {
+        return docsIndexed;
+    }
+
+    public void setDocsIndexed(long docsIndexed) {
+        this.docsIndexed = docsIndexed;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public void setOwner(String owner) {
+        this.owner = owner;
+    }
+
+    public LocalDateTime getHeartbeatAt() {
+        return heartbeatAt;
+    }
+
+    public void setHeartbeatAt(LocalDateTime heartbeatAt) {
+        this.heartbeatAt = heartbeatAt;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
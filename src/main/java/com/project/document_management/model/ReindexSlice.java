@@ -0,0 +1,95 @@
+package com.project.document_management.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+// A document id range of a reindex job, backfilled by one worker; lastId is the checkpoint to resume from
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(columnNames = {"job_id", "slice_number"}))
+public class ReindexSlice {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "job_id")
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private ReindexJob job;
+
+    @Column(name = "slice_number")
+    private int sliceNumber;
+
+    private long lastId; // Highest document id already in the target index (exclusive lower bound of the rest)
+    private long toId; // Inclusive upper bound
+    private long docsIndexed;
+    private boolean done;
+
+    public ReindexSlice() {
+    }
+
+    public ReindexSlice(ReindexJob job, int sliceNumber, long lastId, long toId) {
+        this.job = job;
+        this.sliceNumber = sliceNumber;
+        this.lastId = lastId;
+        this.toId = toId;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public ReindexJob getJob() {
+        return job;
+    }
+
+    public void setJob(ReindexJob job) {
+        this.job = job;
+    }
+
+    public int getSliceNumber() {
+        return sliceNumber;
+    }
+
+    public void setSliceNumber(int sliceNumber) {
+        this.sliceNumber = sliceNumber;
+    }
+
+    public long getLastId() {
+        return lastId;
+    }
+
+    public void setLastId(long lastId) {
+        this.lastId = lastId;
+    }
+
+    public long getToId() {
+        return toId;
+    }
+
+    public void setToId(long toId) {
+        this.toId = toId;
+    }
+
+    public long getDocsIndexed() {
+        return docsIndexed;
+    }
+
+    public void setDocsIndexed(long docsIndexed) {
+        this.docsIndexed = docsIndexed;
+    }
+
+    public boolean isDone() {
+        return done;
+    }
+
+    public void setDone(boolean done) {
+        this.done = done;
+    }
+}
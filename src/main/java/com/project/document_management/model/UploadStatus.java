@@ -0,0 +1,40 @@
+package com.project.document_management.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+// Progress of an async upload as reported by GET /api/documents/uploads/{token}
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UploadStatus {
+
+    private final String token;
+    private final ProcessingStatus state;
+    private final Long documentId; // Known once the document row is written
+    private final String error;
+
+    public UploadStatus(String token, ProcessingStatus state, Long documentId, String error) {
+        this.token = token;
+        this.state = state;
+        this.documentId = documentId;
+        this.error = error;
+    }
+
+    public UploadStatus withState(ProcessingStatus state) {
+        return new UploadStatus(token, state, documentId, error);
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public ProcessingStatus getState() {
+        return state;
+    }
+
+    public Long getDocumentId() {
+        return documentId;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
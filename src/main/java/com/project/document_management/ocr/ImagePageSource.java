@@ -0,0 +1,49 @@
+package com.project.document_management.ocr;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+// Single images and multi-page TIFFs (via the jai-imageio reader that ships with tess4j)
+class ImagePageSource implements PageSource {
+
+    private final ImageInputStream input;
+    private final ImageReader reader;
+    private final int pageCount;
+
+    ImagePageSource(File file) throws IOException {
+        this.input = ImageIO.createImageInputStream(file);
+        if (input == null) {
+            throw new IOException("Cannot open image: " + file);
+        }
+        Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+        if (!readers.hasNext()) {
+            input.close();
+            throw new IOException("Unsupported image format: " + file);
+        }
+        this.reader = readers.next();
+        reader.setInput(input, false, true);
+        this.pageCount = reader.getNumImages(true);
+    }
+
+    @Override
+    public int getPageCount() {
+        return pageCount;
+    }
+
+    @Override
+    public BufferedImage renderPage(int pageIndex) throws IOException {
+        return reader.read(pageIndex);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.dispose();
+        input.close();
+    }
+}
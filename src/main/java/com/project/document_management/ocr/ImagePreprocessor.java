@@ -0,0 +1,489 @@
+package com.project.document_management.ocr;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cleans a page up before recognition: grayscale, downscale so the long side is at most {@code maxDimension}
+ * pixels (phone photos, 600 dpi scans), deskew, crop scanner borders and binarize with Otsu's threshold.
+ * Steps are switched by {@code ocr.preprocess.*}. Works on byte arrays taken from a small pool and returned after
+ * the page, so a page usually costs one allocation (the returned image). Buffers grown past MAX_RETAINED_BYTES by an
+ * outsized page are dropped rather than pooled, and pages beyond the pool size work on fresh ones.
+ */
+@Component
+public class ImagePreprocessor {
+
+    public static final ImagePreprocessor DISABLED = new ImagePreprocessor(false, 0, 0, false, false);
+
+    private static final double SKEW_STEP_DEGREES = 0.25;
+    // Rotations smaller than this are not worth the resampling
+    private static final double MIN_SKEW_DEGREES = 0.3;
+    // Skew is estimated on a subsample, about this many pixels wide
+    private static final int SKEW_SAMPLE_WIDTH = 1000;
+    // Edge rows/columns darker than this are scanner border, not page
+    private static final double BORDER_DARK_FRACTION = 0.5;
+    private static final int CROP_MARGIN = 16;
+
+    // Enough for the engines recognising at once on a typical host; the pool keeps at most this many
+    private static final int MAX_POOLED_BUFFERS = 4;
+    // About two 300 dpi A4 pages plus the skew scratch arrays
+    private static final long MAX_RETAINED_BYTES = 48L * 1024 * 1024;
+
+    private final BlockingQueue<Buffers> pooledBuffers = new ArrayBlockingQueue<>(MAX_POOLED_BUFFERS);
+
+    private final boolean enabled;
+    private final int maxDimension;
+    private final double maxSkewDegrees;
+    private final boolean cropBorders;
+    private final boolean binarize;
+
+    @Autowired
+    public ImagePreprocessor(@Value("${ocr.preprocess.enabled:true}") boolean enabled,
+                             @Value("${ocr.preprocess.max-dimension:3508}") int maxDimension,
+                             @Value("${ocr.preprocess.max-skew-degrees:5}") double maxSkewDegrees,
+                             @Value("${ocr.preprocess.crop-borders:true}") boolean cropBorders,
+                             @Value("${ocr.preprocess.binarize:true}") boolean binarize) {
+        this.enabled = enabled;
+        this.maxDimension = maxDimension;
+        // Beyond 45 degrees a page is rotated, not skewed
+        this.maxSkewDegrees = Math.min(maxSkewDegrees, 45);
+        this.cropBorders = cropBorders;
+        this.binarize = binarize;
+    }
+
+    // Part of the OCR cache key: different settings mean different text
+    public String fingerprint() {
+        if (!enabled) {
+            return "off";
+        }
+        return "max=" + maxDimension + ",skew=" + maxSkewDegrees + ",crop=" + cropBorders + ",bin=" + binarize;
+    }
+
+    public BufferedImage process(BufferedImage page) {
+        if (!enabled) {
+            return page;
+        }
+        Buffers buffers = acquireBuffers();
+        try {
+            return process(page, buffers);
+        } finally {
+            releaseBuffers(buffers);
+        }
+    }
+
+    private BufferedImage process(BufferedImage page, Buffers buffers) {
+        int width = page.getWidth();
+        int height = page.getHeight();
+        byte[] gray = buffers.first(width * height);
+        toGray(page, gray, buffers);
+
+        int longSide = Math.max(width, height);
+        if (maxDimension > 0 && longSide > maxDimension) {
+            double scale = (double) longSide / maxDimension;
+            int scaledWidth = Math.max(1, (int) Math.round(width / scale));
+            int scaledHeight = Math.max(1, (int) Math.round(height / scale));
+            byte[] scaled = buffers.second(scaledWidth * scaledHeight);
+            downscale(gray, width, height, scaled, scaledWidth, scaledHeight, buffers);
+            buffers.swap();
+            gray = scaled;
+            width = scaledWidth;
+            height = scaledHeight;
+        }
+
+        int threshold = otsuThreshold(gray, width * height, buffers);
+
+        if (maxSkewDegrees > 0) {
+            double skew = estimateSkew(gray, width, height, threshold, buffers);
+            if (Math.abs(skew) >= MIN_SKEW_DEGREES) {
+                byte[] rotated = buffers.second(width * height);
+                rotate(gray, rotated, width, height, Math.toRadians(skew));
+                buffers.swap();
+                gray = rotated;
+            }
+        }
+
+        int left = 0;
+        int top = 0;
+        int right = width;
+        int bottom = height;
+        if (cropBorders) {
+            int[] box = contentBox(gray, width, height, threshold);
+            left = box[0];
+            top = box[1];
+            right = box[2];
+            bottom = box[3];
+        }
+
+        int outWidth = right - left;
+        int outHeight = bottom - top;
+        BufferedImage out = new BufferedImage(outWidth, outHeight, BufferedImage.TYPE_BYTE_GRAY);
+        byte[] target = ((DataBufferByte) out.getRaster().getDataBuffer()).getData();
+        for (int y = 0; y < outHeight; y++) {
+            int from = (top + y) * width + left;
+            int to = y * outWidth;
+            if (binarize) {
+                for (int x = 0; x < outWidth; x++) {
+                    target[to + x] = (gray[from + x] & 0xFF) < threshold ? 0 : (byte) 255;
+                }
+            } else {
+                System.arraycopy(gray, from, target, to, outWidth);
+            }
+        }
+        return out;
+    }
+
+    private static void toGray(BufferedImage page, byte[] gray, Buffers buffers) {
+        int width = page.getWidth();
+        int height = page.getHeight();
+        if (page.getType() == BufferedImage.TYPE_BYTE_GRAY) {
+            page.getRaster().getDataElements(0, 0, width, height, gray);
+            return;
+        }
+        int[] row = buffers.row(width);
+        for (int y = 0; y < height; y++) {
+            page.getRGB(0, y, width, 1, row, 0, width);
+            int offset = y * width;
+            for (int x = 0; x < width; x++) {
+                int rgb = row[x];
+                int luminance = (((rgb >> 16) & 0xFF) * 299 + ((rgb >> 8) & 0xFF) * 587 + (rgb & 0xFF) * 114) / 1000;
+                gray[offset + x] = (byte) luminance;
+            }
+        }
+    }
+
+    // Area average: every target pixel is the mean of the source pixels it covers
+    private static void downscale(byte[] source, int width, int height, byte[] target, int targetWidth,
+                                  int targetHeight, Buffers buffers) {
+        int[] column = buffers.column(width);
+        int[] columnCount = buffers.columnCount(targetWidth);
+        long[] sums = buffers.sums(targetWidth);
+        Arrays.fill(columnCount, 0, targetWidth, 0);
+        for (int x = 0; x < width; x++) {
+            int tx = Math.min(targetWidth - 1, (int) ((long) x * targetWidth / width));
+            column[x] = tx;
+            columnCount[tx]++;
+        }
+        int sourceRow = 0;
+        for (int ty = 0; ty < targetHeight; ty++) {
+            int rowEnd = (int) ((long) (ty + 1) * height / targetHeight);
+            Arrays.fill(sums, 0, targetWidth, 0);
+            int rows = 0;
+            for (; sourceRow < rowEnd; sourceRow++, rows++) {
+                int offset = sourceRow * width;
+                for (int x = 0; x < width; x++) {
+                    sums[column[x]] += source[offset + x] & 0xFF;
+                }
+            }
+            int offset = ty * targetWidth;
+            for (int tx = 0; tx < targetWidth; tx++) {
+                int count = columnCount[tx] * Math.max(rows, 1);
+                target[offset + tx] = (byte) (sums[tx] / Math.max(count, 1));
+            }
+        }
+    }
+
+    private static int otsuThreshold(byte[] gray, int length, Buffers buffers) {
+        int[] histogram = buffers.histogram();
+        Arrays.fill(histogram, 0);
+        for (int i = 0; i < length; i++) {
+            histogram[gray[i] & 0xFF]++;
+        }
+        long total = 0;
+        for (int level = 0; level < 256; level++) {
+            total += (long) level * histogram[level];
+        }
+        long backgroundCount = 0;
+        long backgroundSum = 0;
+        double bestVariance = -1;
+        int threshold = 128;
+        for (int level = 0; level < 256; level++) {
+            backgroundCount += histogram[level];
+            if (backgroundCount == 0) {
+                continue;
+            }
+            long foregroundCount = length - backgroundCount;
+            if (foregroundCount == 0) {
+                break;
+            }
+            backgroundSum += (long) level * histogram[level];
+            double backgroundMean = (double) backgroundSum / backgroundCount;
+            double foregroundMean = (double) (total - backgroundSum) / foregroundCount;
+            double variance = (double) backgroundCount * foregroundCount
+                    * (backgroundMean - foregroundMean) * (backgroundMean - foregroundMean);
+            if (variance > bestVariance) {
+                bestVariance = variance;
+                threshold = level + 1;
+            }
+        }
+        return threshold;
+    }
+
+    // Projection profile: the angle at which dark pixels fall into the fewest, fullest rows is the text angle.
+    // Positive means text lines run downwards to the right.
+    double estimateSkew(byte[] gray, int width, int height, int threshold) {
+        Buffers buffers = acquireBuffers();
+        try {
+            return estimateSkew(gray, width, height, threshold, buffers);
+        } finally {
+            releaseBuffers(buffers);
+        }
+    }
+
+    private double estimateSkew(byte[] gray, int width, int height, int threshold, Buffers buffers) {
+        int step = Math.max(1, width / SKEW_SAMPLE_WIDTH);
+        // Dark sample points, collected once and projected at every candidate angle
+        int[] xs = buffers.pointsX(((width + step - 1) / step) * ((height + step - 1) / step));
+        int[] ys = buffers.pointsY(xs.length);
+        int points = 0;
+        for (int y = 0; y < height; y += step) {
+            int offset = y * width;
+            for (int x = 0; x < width; x += step) {
+                if ((gray[offset + x] & 0xFF) < threshold) {
+                    xs[points] = x;
+                    ys[points] = y;
+                    points++;
+                }
+            }
+        }
+        int steps = (int) Math.round(maxSkewDegrees / SKEW_STEP_DEGREES);
+        // y - x * tan(angle) lies within (-width, height) for angles up to 45 degrees
+        int bins = height + 2 * width + 1;
+        int[] profile = buffers.profile(bins);
+        double bestScore = -1;
+        double bestAngle = 0;
+        // 0, +1, -1, +2, -2, ... steps: on a tie (a blank page) the smallest rotation wins
+        for (int k = 0; k <= 2 * steps; k++) {
+            double angle = (k + 1) / 2 * (k % 2 == 0 ? -1 : 1) * SKEW_STEP_DEGREES;
+            double tan = Math.tan(Math.toRadians(angle));
+            Arrays.fill(profile, 0, bins, 0);
+            for (int i = 0; i < points; i++) {
+                profile[(int) (ys[i] - xs[i] * tan + width + 0.5)]++;
+            }
+            double score = 0;
+            for (int i = 0; i < bins; i++) {
+                score += (double) profile[i] * profile[i];
+            }
+            if (score > bestScore) {
+                bestScore = score;
+                bestAngle = angle;
+            }
+        }
+        return bestAngle;
+    }
+
+    // Straightens lines of slope tan(angle): each target pixel samples the source rotated by angle about the centre
+    private static void rotate(byte[] source, byte[] target, int width, int height, double angle) {
+        double cos = Math.cos(angle);
+        double sin = Math.sin(angle);
+        double cx = width / 2.0;
+        double cy = height / 2.0;
+        for (int y = 0; y < height; y++) {
+            double dy = y - cy;
+            int offset = y * width;
+            for (int x = 0; x < width; x++) {
+                double dx = x - cx;
+                double sx = cx + dx * cos - dy * sin;
+                double sy = cy + dx * sin + dy * cos;
+                int x0 = (int) Math.floor(sx);
+                int y0 = (int) Math.floor(sy);
+                if (x0 < 0 || y0 < 0 || x0 + 1 >= width || y0 + 1 >= height) {
+                    target[offset + x] = (byte) 255;
+                    continue;
+                }
+                double fx = sx - x0;
+                double fy = sy - y0;
+                int i = y0 * width + x0;
+                double top = (source[i] & 0xFF) * (1 - fx) + (source[i + 1] & 0xFF) * fx;
+                double bottom = (source[i + width] & 0xFF) * (1 - fx) + (source[i + width + 1] & 0xFF) * fx;
+                target[offset + x] = (byte) (int) Math.round(top * (1 - fy) + bottom * fy);
+            }
+        }
+    }
+
+    // {left, top, right, bottom}: dark scanner borders removed, blank margins trimmed to CROP_MARGIN
+    private static int[] contentBox(byte[] gray, int width, int height, int threshold) {
+        int top = 0;
+        while (top < height - 1 && rowDarkFraction(gray, width, top, threshold) > BORDER_DARK_FRACTION) {
+            top++;
+        }
+        int bottom = height;
+        while (bottom > top + 1 && rowDarkFraction(gray, width, bottom - 1, threshold) > BORDER_DARK_FRACTION) {
+            bottom--;
+        }
+        int left = 0;
+        while (left < width - 1 && columnDarkFraction(gray, width, left, top, bottom, threshold) > BORDER_DARK_FRACTION) {
+            left++;
+        }
+        int right = width;
+        while (right > left + 1
+                && columnDarkFraction(gray, width, right - 1, top, bottom, threshold) > BORDER_DARK_FRACTION) {
+            right--;
+        }
+
+        int contentTop = top;
+        while (contentTop < bottom && rowDarkFraction(gray, width, contentTop, left, right, threshold) == 0) {
+            contentTop++;
+        }
+        if (contentTop == bottom) {
+            // Blank page, nothing to trim to
+            return new int[] {left, top, right, bottom};
+        }
+        int contentBottom = bottom;
+        while (contentBottom > contentTop && rowDarkFraction(gray, width, contentBottom - 1, left, right, threshold) == 0) {
+            contentBottom--;
+        }
+        int contentLeft = left;
+        while (contentLeft < right && columnDarkFraction(gray, width, contentLeft, contentTop, contentBottom, threshold) == 0) {
+            contentLeft++;
+        }
+        int contentRight = right;
+        while (contentRight > contentLeft
+                && columnDarkFraction(gray, width, contentRight - 1, contentTop, contentBottom, threshold) == 0) {
+            contentRight--;
+        }
+        return new int[] {
+                Math.max(left, contentLeft - CROP_MARGIN),
+                Math.max(top, contentTop - CROP_MARGIN),
+                Math.min(right, contentRight + CROP_MARGIN),
+                Math.min(bottom, contentBottom + CROP_MARGIN)
+        };
+    }
+
+    private static double rowDarkFraction(byte[] gray, int width, int y, int threshold) {
+        return rowDarkFraction(gray, width, y, 0, width, threshold);
+    }
+
+    private static double rowDarkFraction(byte[] gray, int width, int y, int from, int to, int threshold) {
+        int dark = 0;
+        int offset = y * width;
+        for (int x = from; x < to; x++) {
+            if ((gray[offset + x] & 0xFF) < threshold) {
+                dark++;
+            }
+        }
+        return (double) dark / Math.max(1, to - from);
+    }
+
+    private static double columnDarkFraction(byte[] gray, int width, int x, int from, int to, int threshold) {
+        int dark = 0;
+        for (int y = from; y < to; y++) {
+            if ((gray[y * width + x] & 0xFF) < threshold) {
+                dark++;
+            }
+        }
+        return (double) dark / Math.max(1, to - from);
+    }
+
+    // Grow-only working memory of one thread
+    private Buffers acquireBuffers() {
+        Buffers buffers = pooledBuffers.poll();
+        return buffers != null ? buffers : new Buffers();
+    }
+
+    // A full pool drops the buffers too
+    private void releaseBuffers(Buffers buffers) {
+        if (buffers.retainedBytes() <= MAX_RETAINED_BYTES) {
+            pooledBuffers.offer(buffers);
+        }
+    }
+
+    private static final class Buffers {
+        private byte[] first = new byte[0];
+        private byte[] second = new byte[0];
+        private int[] row = new int[0];
+        private int[] column = new int[0];
+        private int[] columnCount = new int[0];
+        private long[] sums = new long[0];
+        private int[] profile = new int[0];
+        private int[] pointsX = new int[0];
+        private int[] pointsY = new int[0];
+        private final int[] histogram = new int[256];
+
+        byte[] first(int size) {
+            if (first.length < size) {
+                first = new byte[size];
+            }
+            return first;
+        }
+
+        byte[] second(int size) {
+            if (second.length < size) {
+                second = new byte[size];
+            }
+            return second;
+        }
+
+        // The second buffer now holds the current image; the first becomes scratch
+        void swap() {
+            byte[] current = second;
+            second = first;
+            first = current;
+        }
+
+        int[] row(int size) {
+            if (row.length < size) {
+                row = new int[size];
+            }
+            return row;
+        }
+
+        int[] column(int size) {
+            if (column.length < size) {
+                column = new int[size];
+            }
+            return column;
+        }
+
+        int[] columnCount(int size) {
+            if (columnCount.length < size) {
+                columnCount = new int[size];
+            }
+            return columnCount;
+        }
+
+        long[] sums(int size) {
+            if (sums.length < size) {
+                sums = new long[size];
+            }
+            return sums;
+        }
+
+        int[] pointsX(int size) {
+            if (pointsX.length < size) {
+                pointsX = new int[size];
+            }
+            return pointsX;
+        }
+
+        int[] pointsY(int size) {
+            if (pointsY.length < size) {
+                pointsY = new int[size];
+            }
+            return pointsY;
+        }
+
+        int[] profile(int size) {
+            if (profile.length < size) {
+                profile = new int[size];
+            }
+            return profile;
+        }
+
+        int[] histogram() {
+            return histogram;
+        }
+
+        long retainedBytes() {
+            long ints = (long) row.length + column.length + columnCount.length + profile.length
+                    + pointsX.length + pointsY.length + histogram.length;
+            return (long) first.length + second.length + 4 * ints + 8L * sums.length;
+        }
+    }
+}
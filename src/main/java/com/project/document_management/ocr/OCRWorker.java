@@ -1,49 +1,104 @@
 package com.project.document_management.ocr;
 
+import com.project.document_management.config.RabbitMQConfig;
 import com.project.document_management.model.Document;
+import com.project.document_management.model.ProcessingStatus;
 import com.project.document_management.repository.DocumentRepository;
-import net.sourceforge.tess4j.Tesseract;
+import com.project.document_management.service.OcrProgressService;
+import com.project.document_management.service.PipelineObservations;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.ObservationRegistry;
 import net.sourceforge.tess4j.TesseractException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.io.File;
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
 
 @Service
 public class OCRWorker {
 
     private static final Logger logger = LoggerFactory.getLogger(OCRWorker.class);
     private final DocumentRepository documentRepository;
-    private final Tesseract tesseract;
+    private final PageOcrService pageOcrService;
+    private final OcrProgressService ocrProgressService;
+    private final OcrResultCache ocrResultCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Timer interactiveTimeToText;
+    private final Timer bulkTimeToText;
+
+    @Autowired(required = false)
+    private ObservationRegistry observationRegistry = ObservationRegistry.NOOP;
 
     @Autowired
-    public OCRWorker(DocumentRepository documentRepository,
-                     @Value("${tesseract.datapath:/usr/share/tessdata}") String tesseractDataPath) {
+    public OCRWorker(DocumentRepository documentRepository, PageOcrService pageOcrService,
+                     OcrProgressService ocrProgressService, OcrResultCache ocrResultCache,
+                     ApplicationEventPublisher eventPublisher, MeterRegistry meterRegistry) {
         this.documentRepository = documentRepository;
-        this.tesseract = new Tesseract();
-        this.tesseract.setDatapath(tesseractDataPath);
+        this.pageOcrService = pageOcrService;
+        this.ocrProgressService = ocrProgressService;
+        this.ocrResultCache = ocrResultCache;
+        this.eventPublisher = eventPublisher;
+        this.interactiveTimeToText = timeToText(meterRegistry, "interactive");
+        this.bulkTimeToText = timeToText(meterRegistry, "bulk");
+    }
+
+    private static Timer timeToText(MeterRegistry meterRegistry, String queue) {
+        return Timer.builder("ocr.time.to.text")
+                .description("Time from upload until the document's OCR text is saved")
+                .tag("queue", queue)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
     }
 
-    @RabbitListener(queues = "${rabbitmq.queue.name:documentQueue}")
+    @RabbitListener(queues = "${rabbitmq.queue.name:documentQueue}", containerFactory = "ocrListenerContainerFactory")
     public void processDocument(Long documentId) {
+        process(documentId, interactiveTimeToText, false);
+    }
+
+    @RabbitListener(queues = RabbitMQConfig.BULK_DOCUMENT_QUEUE, containerFactory = "bulkOcrListenerContainerFactory")
+    public void processBulkDocument(Long documentId) {
+        process(documentId, bulkTimeToText, true);
+    }
+
+    private void process(Long documentId, Timer timeToText, boolean bulk) {
         try {
             Document document = documentRepository.findById(documentId)
                     .orElseThrow(() -> new RuntimeException("Document not found with ID: " + documentId));
 
-            Path filePath = Path.of(document.getStoragePath());
-            validateFileExists(filePath);
+            String contentHash = document.getContentHash();
+            List<String> pages = contentHash != null ? ocrResultCache.get(contentHash) : null;
+            if (pages != null) {
+                logger.info("OCR cache hit for document ID: {}", documentId);
+            } else {
+                Path filePath = Path.of(document.getStoragePath());
+                validateFileExists(filePath);
 
-            String ocrText = performOCR(filePath.toFile());
-            updateDocumentWithOCR(document, ocrText);
+                pages = performOCR(document.getId(), filePath.toFile(), bulk);
+                if (contentHash != null) {
+                    ocrResultCache.put(contentHash, pages);
+                }
+            }
+            updateDocumentWithOCR(document, pages);
+            if (document.getUploadedAt() != null) {
+                timeToText.record(Duration.between(document.getUploadedAt(), LocalDateTime.now()));
+            }
 
             logger.info("Successfully processed document ID: {}", documentId);
         } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
             logger.error("OCR processing failed for document ID: {}", documentId, e);
             throw new RuntimeException("OCR processing failed", e);
         }
@@ -56,14 +111,32 @@ public class OCRWorker {
         }
     }
 
-    private String performOCR(File file) throws TesseractException {
+    private List<String> performOCR(Long documentId, File file, boolean bulk)
+            throws IOException, TesseractException, InterruptedException {
         logger.debug("Performing OCR on file: {}", file.getAbsolutePath());
-        return tesseract.doOCR(file);
+        PageOcrService.PageListener listener = new PageOcrService.PageListener() {
+            @Override
+            public void onStart(int pageCount) {
+                ocrProgressService.start(documentId, pageCount);
+            }
+
+            @Override
+            public void onPage(int pageNumber, String text) {
+                ocrProgressService.recordPage(documentId, pageNumber, text);
+            }
+        };
+        return bulk ? pageOcrService.recognizeBulkPages(file, listener) : pageOcrService.recognizePages(file, listener);
     }
 
-    private void updateDocumentWithOCR(Document document, String ocrText) {
-        document.setOcrText(ocrText);
-        documentRepository.save(document);
+    private void updateDocumentWithOCR(Document document, List<String> pages) {
+        document.setOcrText(String.join("", pages));
+        // The entity was loaded before OCR started; don't let save() write back stale counters
+        document.setOcrPagesTotal(pages.size());
+        document.setOcrPagesDone(pages.size());
+        document.setProcessingStatus(ProcessingStatus.OCR_DONE);
+        PipelineObservations.stage(PipelineObservations.DB_UPDATE, observationRegistry)
+                .observe(() -> documentRepository.save(document));
         logger.info("Updated document ID {} with OCR text", document.getId());
+        eventPublisher.publishEvent(document); // OCR complete, hand off to indexing
     }
 }
\ No newline at end of file
@@ -0,0 +1,243 @@
+package com.project.document_management.ocr;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * OCR output per page, keyed by content hash and everything that changes what Tesseract produces
+ * (language, render DPI, page preprocessing, text-layer use, {@code ocr.cache.version}). A bounded in-memory tier sits in front of a
+ * gzip file per entry on disk, which survives restarts and is pruned oldest-access-first.
+ */
+@Component
+public class OcrResultCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(OcrResultCache.class);
+    private static final String CACHE_NAME = "ocrResults";
+
+    private final Cache<String, List<String>> memory;
+    private final Path directory;
+    private final long maxDiskBytes;
+    private final String configFingerprint;
+    private final Counter diskHits;
+    private final Counter diskMisses;
+    private final Counter diskEvictions;
+
+    @Autowired
+    public OcrResultCache(TesseractPool tesseractPool,
+                          ImagePreprocessor preprocessor,
+                          MeterRegistry meterRegistry,
+                          @Value("${ocr.pdf.render-dpi:300}") int pdfRenderDpi,
+                          @Value("${ocr.text-layer.enabled:true}") boolean textLayerEnabled,
+                          @Value("${ocr.text-layer.min-chars:20}") int textLayerMinChars,
+                          @Value("${ocr.cache.version:1}") String version,
+                          @Value("${ocr.cache.memory.max-chars:50000000}") long maxMemoryChars,
+                          @Value("${ocr.cache.dir:./ocr-cache}") String directory,
+                          @Value("${ocr.cache.disk.max-size:2GB}") DataSize maxDiskSize) {
+        this("lang=" + tesseractPool.getLanguage() + ";dpi=" + pdfRenderDpi + ";pre=" + preprocessor.fingerprint()
+                        + ";text=" + (textLayerEnabled ? textLayerMinChars : "off") + ";v=" + version,
+                maxMemoryChars, Paths.get(directory), maxDiskSize.toBytes(), meterRegistry);
+    }
+
+    public OcrResultCache(String configuration, long maxMemoryChars, Path directory, long maxDiskBytes,
+                          MeterRegistry meterRegistry) {
+        this.configFingerprint = sha256(configuration).substring(0, 12);
+        this.directory = directory.toAbsolutePath().normalize();
+        this.maxDiskBytes = maxDiskBytes;
+        // Weighed by characters so one 500-page scan counts for what it actually holds
+        this.memory = Caffeine.newBuilder()
+                .maximumWeight(maxMemoryChars)
+                .weigher((String key, List<String> pages) ->
+                        (int) Math.min(Integer.MAX_VALUE, pages.stream().mapToLong(String::length).sum()))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, memory, CACHE_NAME);
+        String diskCache = CACHE_NAME + "Disk";
+        this.diskHits = Counter.builder("cache.gets").tag("cache", diskCache).tag("result", "hit").register(meterRegistry);
+        this.diskMisses = Counter.builder("cache.gets").tag("cache", diskCache).tag("result", "miss").register(meterRegistry);
+        this.diskEvictions = Counter.builder("cache.evictions").tag("cache", diskCache).register(meterRegistry);
+        try {
+            Files.createDirectories(this.directory);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not create OCR cache directory " + this.directory, e);
+        }
+        logger.info("OCR result cache at {} (configuration {}: {})", this.directory, configFingerprint, configuration);
+    }
+
+    // Page texts in page order, or null if these bytes were never recognised with the current configuration
+    public List<String> get(String contentHash) {
+        String key = key(contentHash);
+        List<String> pages = memory.getIfPresent(key);
+        if (pages != null) {
+            return pages;
+        }
+        pages = readFromDisk(key);
+        if (pages != null) {
+            diskHits.increment();
+            memory.put(key, pages);
+        } else {
+            diskMisses.increment();
+        }
+        return pages;
+    }
+
+    public void put(String contentHash, List<String> pages) {
+        String key = key(contentHash);
+        List<String> copy = List.copyOf(pages);
+        memory.put(key, copy);
+        try {
+            writeToDisk(key, copy);
+        } catch (IOException e) {
+            // Still cached in memory; the disk tier is best effort
+            logger.warn("Could not write OCR cache entry {}: {}", key, e.getMessage());
+        }
+    }
+
+    // Removes least recently used entries until the disk tier is back under its limit
+    @Scheduled(fixedDelayString = "${ocr.cache.disk.prune-interval-ms:600000}")
+    public void pruneDisk() {
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(directory)) {
+            files = walk.filter(path -> path.toString().endsWith(".gz")).toList();
+        } catch (IOException e) {
+            logger.warn("Could not list OCR cache directory: {}", e.getMessage());
+            return;
+        }
+        List<Entry> entries = new ArrayList<>(files.size());
+        long total = 0;
+        for (Path file : files) {
+            try {
+                Entry entry = new Entry(file, Files.size(file), Files.getLastModifiedTime(file));
+                entries.add(entry);
+                total += entry.size;
+            } catch (IOException e) {
+                // Deleted concurrently
+            }
+        }
+        if (total <= maxDiskBytes) {
+            return;
+        }
+        entries.sort(Comparator.comparing((Entry entry) -> entry.lastAccess));
+        int evicted = 0;
+        for (Entry entry : entries) {
+            if (total <= maxDiskBytes) {
+                break;
+            }
+            try {
+                Files.deleteIfExists(entry.path);
+                total -= entry.size;
+                evicted++;
+            } catch (IOException e) {
+                logger.warn("Could not evict OCR cache entry {}: {}", entry.path, e.getMessage());
+            }
+        }
+        diskEvictions.increment(evicted);
+        logger.info("Evicted {} OCR cache entries from disk", evicted);
+    }
+
+    private String key(String contentHash) {
+        return contentHash + "-" + configFingerprint;
+    }
+
+    private Path file(String key) {
+        return directory.resolve(key.substring(0, 2)).resolve(key + ".gz");
+    }
+
+    private List<String> readFromDisk(String key) {
+        Path file = file(key);
+        try (InputStream in = Files.newInputStream(file);
+             DataInputStream data = new DataInputStream(new GZIPInputStream(in))) {
+            int pageCount = data.readInt();
+            List<String> pages = new ArrayList<>(pageCount);
+            for (int i = 0; i < pageCount; i++) {
+                byte[] text = new byte[data.readInt()];
+                data.readFully(text);
+                pages.add(new String(text, StandardCharsets.UTF_8));
+            }
+            // The modification time doubles as last access for pruning
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            return List.copyOf(pages);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            logger.warn("Ignoring unreadable OCR cache entry {}: {}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeToDisk(String key, List<String> pages) throws IOException {
+        Path file = file(key);
+        Files.createDirectories(file.getParent());
+        Path temp = file.resolveSibling(UUID.randomUUID() + ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(temp);
+                 DataOutputStream data = new DataOutputStream(new GZIPOutputStream(out))) {
+                data.writeInt(pages.size());
+                for (String page : pages) {
+                    byte[] text = page.getBytes(StandardCharsets.UTF_8);
+                    data.writeInt(text.length);
+                    data.write(text);
+                }
+            }
+            // Readers never see a half-written entry
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static class Entry {
+        private final Path path;
+        private final long size;
+        private final FileTime lastAccess;
+
+        Entry(Path path, long size, FileTime lastAccess) {
+            this.path = path;
+            this.size = size;
+            this.lastAccess = lastAccess;
+        }
+    }
+}
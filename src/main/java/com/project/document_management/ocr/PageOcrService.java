@@ -0,0 +1,237 @@
+package com.project.document_management.ocr;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import com.project.document_management.service.PipelineObservations;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import net.sourceforge.tess4j.TesseractException;
+
+/**
+ * Splits a file into pages and recognises them in parallel on the shared page executor.
+ * At most {@code maxParallelism} pages of one document are rendered or in flight at a time,
+ * so a single large scan cannot take over every engine or fill the heap with page images.
+ * PDF pages that carry their own text (born-digital documents) are taken from the text layer and never rendered;
+ * only image-only pages go to Tesseract.
+ * Pages of bulk documents borrow engines through {@link TesseractPool#executeBulk}, within the pool's bulk share.
+ */
+@Service
+public class PageOcrService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PageOcrService.class);
+
+    private final TesseractPool tesseractPool;
+    private final AsyncTaskExecutor pageExecutor;
+    private final ImagePreprocessor preprocessor;
+    private final int maxParallelism;
+    private final int pdfRenderDpi;
+
+    // In virtual-thread mode the caller (the OCR listener) is a virtual thread. Tesseract's native call would pin
+    // its carrier for the whole page, starving request handling, so single pages go to the page executor too
+    boolean singlePageOnPageExecutor;
+
+    @Value("${ocr.text-layer.enabled:true}")
+    boolean textLayerEnabled = true;
+
+    // Below this many letters/digits the page is treated as a scan (e.g. one with only a stamped page number)
+    @Value("${ocr.text-layer.min-chars:20}")
+    int textLayerMinChars = 20;
+
+    @Autowired(required = false)
+    ObservationRegistry observationRegistry = ObservationRegistry.NOOP;
+
+    @Autowired
+    public PageOcrService(TesseractPool tesseractPool,
+                          @Qualifier("ocrPageExecutor") AsyncTaskExecutor pageExecutor,
+                          ImagePreprocessor preprocessor,
+                          @Value("${ocr.pages.max-parallelism:4}") int maxParallelism,
+                          @Value("${ocr.pdf.render-dpi:300}") int pdfRenderDpi,
+                          Environment environment) {
+        this(tesseractPool, pageExecutor, preprocessor, maxParallelism, pdfRenderDpi);
+        // Same check as the executors in ExecutorConfig: the property alone does nothing before Java 21
+        this.singlePageOnPageExecutor = Threading.VIRTUAL.isActive(environment);
+    }
+
+    public PageOcrService(TesseractPool tesseractPool, AsyncTaskExecutor pageExecutor, ImagePreprocessor preprocessor,
+                          int maxParallelism, int pdfRenderDpi) {
+        this.tesseractPool = tesseractPool;
+        this.pageExecutor = pageExecutor;
+        this.preprocessor = preprocessor;
+        this.maxParallelism = Math.max(1, maxParallelism);
+        this.pdfRenderDpi = pdfRenderDpi;
+    }
+
+    // Pages go to Tesseract as rendered
+    public PageOcrService(TesseractPool tesseractPool, AsyncTaskExecutor pageExecutor, int maxParallelism,
+                          int pdfRenderDpi) {
+        this(tesseractPool, pageExecutor, ImagePreprocessor.DISABLED, maxParallelism, pdfRenderDpi);
+    }
+
+    public List<String> recognizePages(File file) throws IOException, TesseractException, InterruptedException {
+        return recognizePages(file, PageListener.NONE);
+    }
+
+    // Page texts in page order; the listener sees each page as soon as it is done, in completion order
+    public List<String> recognizePages(File file, PageListener listener)
+            throws IOException, TesseractException, InterruptedException {
+        return recognizePages(file, listener, false);
+    }
+
+    public List<String> recognizeBulkPages(File file, PageListener listener)
+            throws IOException, TesseractException, InterruptedException {
+        return recognizePages(file, listener, true);
+    }
+
+    private List<String> recognizePages(File file, PageListener listener, boolean bulk)
+            throws IOException, TesseractException, InterruptedException {
+        try (PageSource pages = PageSource.open(file, pdfRenderDpi)) {
+            int pageCount = pages.getPageCount();
+            logger.debug("Recognising {} page(s) of {}", pageCount, file.getName());
+            listener.onStart(pageCount);
+            if (pageCount == 1 && !singlePageOnPageExecutor) {
+                // Nothing to parallelise, stay on the calling thread
+                String text = fromTextLayer(pages, 0, listener);
+                return List.of(text != null ? text : recognize(pages.renderPage(0), 1, listener, bulk));
+            }
+            return recognizeInParallel(pages, pageCount, listener, bulk);
+        }
+    }
+
+    private List<String> recognizeInParallel(PageSource pages, int pageCount, PageListener listener, boolean bulk)
+            throws IOException, TesseractException, InterruptedException {
+        Semaphore permits = new Semaphore(maxParallelism);
+        List<Future<String>> results = new ArrayList<>(pageCount);
+        try {
+            for (int i = 0; i < pageCount; i++) {
+                String text = fromTextLayer(pages, i, listener);
+                if (text != null) {
+                    results.add(CompletableFuture.completedFuture(text));
+                    continue;
+                }
+                permits.acquire();
+                BufferedImage image;
+                try {
+                    image = pages.renderPage(i);
+                } catch (IOException | RuntimeException e) {
+                    permits.release();
+                    throw e;
+                }
+                int pageNumber = i + 1;
+                results.add(pageExecutor.submit(() -> {
+                    try {
+                        return recognize(image, pageNumber, listener, bulk);
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+
+            List<String> texts = new ArrayList<>(pageCount);
+            for (Future<String> result : results) {
+                texts.add(result.get());
+            }
+            return texts;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof TesseractException tesseractException) {
+                throw tesseractException;
+            }
+            throw new TesseractException(cause);
+        } finally {
+            // No-op for completed pages; stops the rest of the document after a failure
+            results.forEach(result -> result.cancel(true));
+        }
+    }
+
+    // Null when the page has to be recognised: no text layer, too little text, or text that did not decode cleanly
+    private String fromTextLayer(PageSource pages, int pageIndex, PageListener listener) {
+        if (!textLayerEnabled) {
+            return null;
+        }
+        String text;
+        try {
+            text = pages.extractText(pageIndex);
+        } catch (IOException | RuntimeException e) {
+            // A broken content stream may still render, let Tesseract have it
+            logger.debug("Text layer of page {} unreadable, falling back to OCR: {}", pageIndex + 1, e.getMessage());
+            return null;
+        }
+        if (text == null || !isUsableText(text)) {
+            return null;
+        }
+        logger.debug("Page {} taken from the text layer ({} chars)", pageIndex + 1, text.length());
+        listener.onPage(pageIndex + 1, text);
+        return text;
+    }
+
+    // Fonts without a Unicode mapping come out as replacement, control or private-use characters
+    private boolean isUsableText(String text) {
+        int letters = 0;
+        int garbled = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                letters++;
+            } else if (c == '\uFFFD' || Character.getType(c) == Character.PRIVATE_USE
+                    || (Character.isISOControl(c) && !Character.isWhitespace(c))) {
+                garbled++;
+            }
+        }
+        return letters >= textLayerMinChars && garbled * 10 <= letters;
+    }
+
+    private String recognize(BufferedImage image, int pageNumber, PageListener listener, boolean bulk)
+            throws TesseractException, InterruptedException {
+        Observation observation = PipelineObservations.stage(PipelineObservations.OCR_PAGE, observationRegistry).start();
+        try (Observation.Scope scope = observation.openScope()) {
+            // Before borrowing an engine, so engines are never held while a page is being cleaned up
+            BufferedImage prepared = preprocessor.process(image);
+            TesseractPool.OcrTask<String> task = tesseract -> tesseract.doOCR(prepared);
+            String text = bulk ? tesseractPool.executeBulk(task) : tesseractPool.execute(task);
+            listener.onPage(pageNumber, text);
+            return text;
+        } catch (TesseractException | InterruptedException | RuntimeException e) {
+            observation.error(e);
+            throw e;
+        } finally {
+            observation.stop();
+        }
+    }
+
+    // Called from page threads; implementations must be thread-safe
+    public interface PageListener {
+
+        PageListener NONE = new PageListener() {
+            @Override
+            public void onStart(int pageCount) {
+            }
+
+            @Override
+            public void onPage(int pageNumber, String text) {
+            }
+        };
+
+        void onStart(int pageCount);
+
+        void onPage(int pageNumber, String text);
+    }
+}
@@ -0,0 +1,42 @@
+package com.project.document_management.ocr;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+/**
+ * Pages of a stored file, rendered one at a time so a large document never has to be fully in memory.
+ * Implementations are not thread-safe; render from one thread and hand the images off.
+ */
+interface PageSource extends AutoCloseable {
+
+    int getPageCount();
+
+    BufferedImage renderPage(int pageIndex) throws IOException;
+
+    // Text the page carries itself (PDF text layer), null for formats that have none
+    default String extractText(int pageIndex) throws IOException {
+        return null;
+    }
+
+    @Override
+    void close() throws IOException;
+
+    static PageSource open(File file, int pdfRenderDpi) throws IOException {
+        if (isPdf(file)) {
+            return new PdfPageSource(file, pdfRenderDpi);
+        }
+        return new ImagePageSource(file);
+    }
+
+    private static boolean isPdf(File file) throws IOException {
+        byte[] magic = "%PDF".getBytes(StandardCharsets.US_ASCII);
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            return Arrays.equals(in.readNBytes(magic.length), magic);
+        }
+    }
+}
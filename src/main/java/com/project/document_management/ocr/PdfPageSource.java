@@ -0,0 +1,53 @@
+package com.project.document_management.ocr;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.apache.pdfbox.text.PDFTextStripper;
+
+class PdfPageSource implements PageSource {
+
+    private final PDDocument document;
+    private final PDFRenderer renderer;
+    private final int dpi;
+    private PDFTextStripper stripper;
+
+    PdfPageSource(File file, int dpi) throws IOException {
+        // Spill to temp files rather than heap for large scans
+        this.document = PDDocument.load(file, MemoryUsageSetting.setupTempFileOnly());
+        this.renderer = new PDFRenderer(document);
+        this.dpi = dpi;
+    }
+
+    @Override
+    public int getPageCount() {
+        return document.getNumberOfPages();
+    }
+
+    @Override
+    public BufferedImage renderPage(int pageIndex) throws IOException {
+        return renderer.renderImageWithDPI(pageIndex, dpi, ImageType.GRAY);
+    }
+
+    @Override
+    public String extractText(int pageIndex) throws IOException {
+        if (stripper == null) {
+            stripper = new PDFTextStripper();
+            // Reading order by position rather than by how the generator happened to emit the content stream
+            stripper.setSortByPosition(true);
+        }
+        stripper.setStartPage(pageIndex + 1);
+        stripper.setEndPage(pageIndex + 1);
+        return stripper.getText(document);
+    }
+
+    @Override
+    public void close() throws IOException {
+        document.close();
+    }
+}
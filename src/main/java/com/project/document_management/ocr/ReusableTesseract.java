@@ -0,0 +1,33 @@
+package com.project.document_management.ocr;
+
+import net.sourceforge.tess4j.Tesseract;
+
+/**
+ * Tesseract that keeps its native handle (and the loaded traineddata) alive between calls.
+ * The stock implementation creates and tears down the engine around every doOCR, which is
+ * most of the cost for a single page. Not thread-safe: only use it through {@link TesseractPool}.
+ */
+class ReusableTesseract extends Tesseract {
+
+    private boolean initialized;
+
+    @Override
+    protected void init() {
+        if (!initialized) {
+            super.init();
+            initialized = true;
+        }
+    }
+
+    @Override
+    protected void dispose() {
+        // Keep the handle for the next page; released in close()
+    }
+
+    void close() {
+        if (initialized) {
+            super.dispose();
+            initialized = false;
+        }
+    }
+}
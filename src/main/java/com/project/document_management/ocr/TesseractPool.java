@@ -0,0 +1,171 @@
+package com.project.document_management.ocr;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import net.sourceforge.tess4j.ITesseract;
+import net.sourceforge.tess4j.TesseractException;
+
+/**
+ * Bounded pool of Tesseract engines. Each engine is used by one thread at a time,
+ * callers block in {@link #execute} until one is free.
+ * Bulk work ({@link #executeBulk}) holds at most {@code bulkEngines} engines at once, however many documents
+ * and pages it has in flight, so the rest of the pool stays free for interactive pages.
+ */
+@Component
+public class TesseractPool implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(TesseractPool.class);
+
+    private final BlockingQueue<ITesseract> idle;
+    private final List<ITesseract> engines;
+    private final String language;
+    private final int bulkEngines;
+    private final Semaphore bulkPermits;
+
+    @Value("${ocr.pool.warmup:true}")
+    private boolean warmup = true;
+
+    @Autowired
+    public TesseractPool(@Value("${tesseract.datapath:/usr/share/tessdata}") String tesseractDataPath,
+                         @Value("${tesseract.language:eng}") String language,
+                         @Value("${ocr.pool.size:0}") int size,
+                         @Value("${ocr.bulk.consumers:0}") int bulkEngines) {
+        this(resolveSize(size), bulkEngines, language, () -> {
+            ReusableTesseract tesseract = new ReusableTesseract();
+            tesseract.setDatapath(tesseractDataPath);
+            tesseract.setLanguage(language);
+            return tesseract;
+        });
+    }
+
+    public TesseractPool(String tesseractDataPath, String language, int size) {
+        this(tesseractDataPath, language, size, 0);
+    }
+
+    public TesseractPool(int size, String language, Supplier<? extends ITesseract> factory) {
+        this(size, 0, language, factory);
+    }
+
+    // bulkEngines 0 = a quarter of the pool, at least 1
+    public TesseractPool(int size, int bulkEngines, String language, Supplier<? extends ITesseract> factory) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Pool size must be at least 1");
+        }
+        this.language = language;
+        this.bulkEngines = bulkEngines > 0 ? Math.min(bulkEngines, size) : Math.max(1, size / 4);
+        this.bulkPermits = new Semaphore(this.bulkEngines);
+        this.idle = new ArrayBlockingQueue<>(size);
+        this.engines = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            ITesseract engine = factory.get();
+            engines.add(engine);
+            idle.add(engine);
+        }
+        logger.info("Created Tesseract pool with {} engines (language: {})", size, language);
+    }
+
+    static int resolveSize(int configured) {
+        return configured > 0 ? configured : Runtime.getRuntime().availableProcessors();
+    }
+
+    public <T> T execute(OcrTask<T> task) throws TesseractException, InterruptedException {
+        ITesseract engine = idle.take();
+        try {
+            return task.run(engine);
+        } finally {
+            idle.add(engine);
+        }
+    }
+
+    // A bulk page waits for a bulk permit before it competes for an engine
+    public <T> T executeBulk(OcrTask<T> task) throws TesseractException, InterruptedException {
+        bulkPermits.acquire();
+        try {
+            return execute(task);
+        } finally {
+            bulkPermits.release();
+        }
+    }
+
+    // Loads the native library and traineddata into every engine before the first real page arrives
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!warmup) {
+            return;
+        }
+        BufferedImage blank = new BufferedImage(32, 32, BufferedImage.TYPE_BYTE_GRAY);
+        List<ITesseract> borrowed = new ArrayList<>(engines.size());
+        idle.drainTo(borrowed);
+        try {
+            for (ITesseract engine : borrowed) {
+                engine.doOCR(blank);
+            }
+            logger.info("Warmed up {} Tesseract engines", borrowed.size());
+        } catch (Exception | LinkageError e) {
+            logger.warn("Tesseract warm-up failed, engines will initialize on first use: {}", e.getMessage());
+        } finally {
+            idle.addAll(borrowed);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("ocr.pool.engines", this, TesseractPool::getSize)
+                .description("Tesseract engines in the pool")
+                .register(registry);
+        Gauge.builder("ocr.pool.busy", this, pool -> pool.getSize() - pool.getAvailable())
+                .description("Tesseract engines currently recognising a page")
+                .register(registry);
+        Gauge.builder("ocr.pool.bulk.busy", bulkPermits, permits -> bulkEngines - permits.availablePermits())
+                .description("Engines held, or waited for, by bulk documents")
+                .register(registry);
+    }
+
+    @PreDestroy
+    public void close() {
+        for (ITesseract engine : engines) {
+            if (engine instanceof ReusableTesseract reusable) {
+                reusable.close();
+            }
+        }
+    }
+
+    public int getSize() {
+        return engines.size();
+    }
+
+    public int getAvailable() {
+        return idle.size();
+    }
+
+    public int getBulkEngines() {
+        return bulkEngines;
+    }
+
+    public String getLanguage() {
+        return language;
+    }
+
+    @FunctionalInterface
+    public interface OcrTask<T> {
+        T run(ITesseract engine) throws TesseractException;
+    }
+}
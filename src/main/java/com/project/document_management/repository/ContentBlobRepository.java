@@ -0,0 +1,32 @@
+package com.project.document_management.repository;
+
+import com.project.document_management.model.ContentBlob;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import java.util.List;
+
+public interface ContentBlobRepository extends JpaRepository<ContentBlob, String> {
+
+    // Both statements lock the row until commit, which serialises uploads and deletes of the same content.
+    // Creates the row for new content in the same statement, so no second transaction (and connection) is needed
+    @Modifying
+    @Query(value = "INSERT INTO content_blob (hash, ref_count) VALUES (:hash, 1) " +
+            "ON CONFLICT (hash) DO UPDATE SET ref_count = content_blob.ref_count + 1", nativeQuery = true)
+    int addReference(@Param("hash") String hash);
+
+    @Modifying
+    @Query("UPDATE ContentBlob b SET b.refCount = b.refCount - 1 WHERE b.hash = :hash")
+    int decrementRefCount(@Param("hash") String hash);
+
+    // FOR UPDATE SKIP LOCKED: rows an upload or another node's purge has locked are left for the next run
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    List<ContentBlob> findByRefCountLessThanEqual(int refCount, Pageable pageable);
+}
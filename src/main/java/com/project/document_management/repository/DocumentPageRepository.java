@@ -0,0 +1,17 @@
+package com.project.document_management.repository;
+
+import com.project.document_management.model.DocumentPage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.util.List;
+
+public interface DocumentPageRepository extends JpaRepository<DocumentPage, Long> {
+
+    List<DocumentPage> findByDocumentIdOrderByPageNumber(Long documentId);
+
+    @Modifying
+    @Query("DELETE FROM DocumentPage p WHERE p.document.id = :documentId")
+    void deleteByDocumentId(@Param("documentId") Long documentId);
+}
@@ -1,14 +1,28 @@
 package com.project.document_management.repository;
 
 import com.project.document_management.model.Document;
+import com.project.document_management.model.DocumentSummary;
+import com.project.document_management.model.ProcessingStatus;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface DocumentRepository extends JpaRepository<Document, Long> {
 
+    String SUMMARY = "SELECT new com.project.document_management.model.DocumentSummary(" +
+            "d.id, d.title, d.originalFilename, d.fileSize, d.contentType, d.uploadedAt, " +
+            "CASE WHEN d.ocrText IS NOT NULL THEN true ELSE false END) FROM Document d ";
+
     @Query("SELECT d FROM Document d " +
             "WHERE LOWER(d.title) LIKE LOWER(CONCAT('%', :query, '%')) " +
             "OR CAST(d.ocrText AS text) LIKE CONCAT('%', :query, '%')")
@@ -16,4 +30,68 @@ public interface DocumentRepository extends JpaRepository<Document, Long> {
             @Param("query") String query,
             Sort sort);
 
+    @Query(SUMMARY +
+            "WHERE LOWER(d.title) LIKE LOWER(CONCAT('%', :query, '%')) " +
+            "OR CAST(d.ocrText AS text) LIKE CONCAT('%', :query, '%')")
+    Slice<DocumentSummary> searchSummaries(@Param("query") String query, Pageable pageable);
+
+    // List rather than Page: one LIMIT/OFFSET query, no count
+    @Query(SUMMARY)
+    List<DocumentSummary> findAllSummaries(Pageable pageable);
+
+    // Newest first; the next page seeks past the last row instead of counting an OFFSET
+    @Query(SUMMARY + "ORDER BY d.uploadedAt DESC, d.id DESC")
+    List<DocumentSummary> findLatestSummaries(Limit limit);
+
+    @Query(SUMMARY + "WHERE (d.uploadedAt, d.id) < (:uploadedAt, :id) ORDER BY d.uploadedAt DESC, d.id DESC")
+    List<DocumentSummary> findSummariesBefore(@Param("uploadedAt") LocalDateTime uploadedAt, @Param("id") Long id,
+                                              Limit limit);
+
+    // An earlier upload of the same bytes whose OCR has finished
+    Optional<Document> findFirstByContentHashAndOcrTextIsNotNull(String contentHash);
+
+    // Same for a whole batch; a hash may match more than one document
+    List<Document> findByContentHashInAndOcrTextIsNotNull(Collection<String> contentHashes);
+
+    // Id bounds for splitting a reindex into ranges
+    @Query("SELECT MIN(d.id) FROM Document d")
+    Long findMinId();
+
+    @Query("SELECT MAX(d.id) FROM Document d")
+    Long findMaxId();
+
+    // Next reindex batch of one range, by id; only documents with OCR text go into Elasticsearch
+    @Query("SELECT d FROM Document d WHERE d.id > :afterId AND d.id <= :toId AND d.ocrText IS NOT NULL ORDER BY d.id")
+    List<Document> findIndexableInRange(@Param("afterId") long afterId, @Param("toId") long toId, Limit limit);
+
+    // Text saved before :before but never acknowledged by Elasticsearch (failed bulk request or item), oldest first
+    @Query("SELECT d.id FROM Document d WHERE d.processingStatus = " +
+            "com.project.document_management.model.ProcessingStatus.OCR_DONE AND d.lastModifiedAt < :before " +
+            "AND d.ocrText IS NOT NULL ORDER BY d.id")
+    List<Long> findIdsAwaitingIndex(@Param("before") LocalDateTime before, Limit limit);
+
+    @Query("SELECT d.id FROM Document d WHERE d.lastModifiedAt >= :since AND d.ocrText IS NOT NULL ORDER BY d.id")
+    List<Long> findIndexableIdsModifiedSince(@Param("since") LocalDateTime since);
+
+    @Modifying
+    @Query("UPDATE Document d SET d.ocrPagesDone = 0, d.ocrPagesTotal = :total, " +
+            "d.processingStatus = com.project.document_management.model.ProcessingStatus.OCR_RUNNING WHERE d.id = :id")
+    void startOcrProgress(@Param("id") Long id, @Param("total") int total);
+
+    @Query("SELECT d.processingStatus FROM Document d WHERE d.id = :id")
+    Optional<ProcessingStatus> findProcessingStatusById(@Param("id") Long id);
+
+    // Called from the Elasticsearch client's threads once a bulk request is acknowledged; leaves
+    // lastModifiedAt alone, so a reindex does not see this as a change
+    @Transactional
+    @Modifying
+    @Query("UPDATE Document d SET d.processingStatus = com.project.document_management.model.ProcessingStatus.INDEXED " +
+            "WHERE d.id IN :ids AND d.ocrText IS NOT NULL")
+    int markIndexed(@Param("ids") Collection<Long> ids);
+
+    // Atomic in the database, pages of one document finish on different threads
+    @Modifying
+    @Query("UPDATE Document d SET d.ocrPagesDone = d.ocrPagesDone + 1 WHERE d.id = :id")
+    void incrementOcrPagesDone(@Param("id") Long id);
+
 }
\ No newline at end of file
@@ -0,0 +1,120 @@
+package com.project.document_management.repository;
+
+import java.sql.Savepoint;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.project.document_management.config.PostgresSchemaInitializer;
+import com.project.document_management.model.DocumentSummary;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Ranked database search over {@code search_vector} (title weighted above OCR text) plus title substring matches,
+ * which the trigram index serves. Only usable on PostgreSQL, see {@link #isAvailable()}.
+ */
+@Repository
+public class DocumentSearchRepository {
+
+    private static final String MATCHES =
+            "FROM document d, websearch_to_tsquery(CAST(:config AS regconfig), :query) q " +
+            "WHERE d.search_vector @@ q OR lower(d.title) LIKE :pattern ESCAPE '\\' ";
+
+    private static final String RANK =
+            "ORDER BY coalesce(ts_rank_cd(d.search_vector, q), 0) " +
+            "+ CASE WHEN lower(d.title) LIKE :pattern ESCAPE '\\' THEN 1 ELSE 0 END DESC, d.id DESC ";
+
+    private static final String UPDATE_SEARCH_VECTOR = "UPDATE document SET search_vector = " +
+            "setweight(to_tsvector(CAST(:config AS regconfig), coalesce(:title, '')), 'A') || " +
+            "setweight(to_tsvector(CAST(:config AS regconfig), coalesce(:text, '')), 'B') " +
+            "WHERE id = :id";
+
+    private static final RowMapper<DocumentSummary> SUMMARY_MAPPER = (rs, rowNum) -> new DocumentSummary(
+            rs.getLong("id"),
+            rs.getString("title"),
+            rs.getString("original_filename"),
+            rs.getObject("file_size", Long.class),
+            rs.getString("content_type"),
+            rs.getObject("uploaded_at", LocalDateTime.class),
+            rs.getBoolean("ocr_complete"));
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final PostgresSchemaInitializer schema;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    public DocumentSearchRepository(NamedParameterJdbcTemplate jdbcTemplate, PostgresSchemaInitializer schema) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.schema = schema;
+    }
+
+    public boolean isAvailable() {
+        return schema.isFullTextSearchReady();
+    }
+
+    // Runs in the caller's transaction, if any, so the vector commits or rolls back with the document. Inside a
+    // transaction the statement gets its own savepoint: a PostgreSQL error would otherwise abort the whole
+    // transaction, losing the document save or OCR result that indexing is only meant to follow
+    public void updateSearchVector(Long id, String title, String ocrText) {
+        String text = ocrText != null && ocrText.length() > PostgresSchemaInitializer.MAX_INDEXED_CHARS
+                ? ocrText.substring(0, PostgresSchemaInitializer.MAX_INDEXED_CHARS) : ocrText;
+        MapSqlParameterSource parameters = new MapSqlParameterSource("config", schema.getTextSearchConfig())
+                .addValue("title", title)
+                .addValue("text", text)
+                .addValue("id", id);
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            jdbcTemplate.update(UPDATE_SEARCH_VECTOR, parameters);
+            return;
+        }
+        // Sequence ids defer the INSERT to flush; without this the UPDATE finds no row for a new document
+        entityManager.flush();
+        jdbcTemplate.getJdbcTemplate().execute((ConnectionCallback<Void>) connection -> {
+            Savepoint savepoint = connection.setSavepoint();
+            try {
+                jdbcTemplate.update(UPDATE_SEARCH_VECTOR, parameters);
+            } catch (RuntimeException e) {
+                connection.rollback(savepoint);
+                throw e;
+            }
+            connection.releaseSavepoint(savepoint);
+            return null;
+        });
+    }
+
+    // Best matches first; one extra row is fetched to know whether another page exists
+    public Slice<DocumentSummary> search(String query, Pageable pageable) {
+        List<DocumentSummary> rows = jdbcTemplate.query(
+                "SELECT d.id, d.title, d.original_filename, d.file_size, d.content_type, d.uploaded_at, " +
+                        "d.ocr_text IS NOT NULL AS ocr_complete " + MATCHES + RANK + "LIMIT :limit OFFSET :offset",
+                parameters(query)
+                        .addValue("limit", pageable.getPageSize() + 1)
+                        .addValue("offset", pageable.getOffset()),
+                SUMMARY_MAPPER);
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+    }
+
+    private MapSqlParameterSource parameters(String query) {
+        return new MapSqlParameterSource("config", schema.getTextSearchConfig())
+                .addValue("query", query)
+                .addValue("pattern", "%" + escapeLike(query.toLowerCase()) + "%");
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
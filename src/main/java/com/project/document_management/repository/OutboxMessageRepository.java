@@ -0,0 +1,21 @@
+package com.project.document_management.repository;
+
+import com.project.document_management.model.OutboxMessage;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.QueryHints;
+import java.util.List;
+import java.util.Optional;
+
+public interface OutboxMessageRepository extends JpaRepository<OutboxMessage, Long> {
+
+    // FOR UPDATE SKIP LOCKED: relays on several nodes each take a different batch
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    List<OutboxMessage> findAllByOrderByIdAsc(Pageable pageable);
+
+    Optional<OutboxMessage> findFirstByOrderByIdAsc();
+}
@@ -0,0 +1,43 @@
+package com.project.document_management.repository;
+
+import com.project.document_management.model.ReindexJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface ReindexJobRepository extends JpaRepository<ReindexJob, Long> {
+
+    List<ReindexJob> findByStatus(ReindexJob.Status status);
+
+    long countByStatus(ReindexJob.Status status);
+
+    Optional<ReindexJob> findFirstByStatusOrderByIdDesc(ReindexJob.Status status);
+
+    Optional<ReindexJob> findFirstByOrderByIdDesc();
+
+    // Takes over a running job nobody holds, or whose owner stopped renewing its lease; 1 if this node now owns it.
+    // A single conditional UPDATE, so of two nodes claiming at once only one matches
+    @Transactional
+    @Modifying
+    @Query("UPDATE ReindexJob j SET j.owner = :owner, j.heartbeatAt = :now " +
+            "WHERE j.id = :id AND j.status = com.project.document_management.model.ReindexJob$Status.RUNNING " +
+            "AND (j.owner IS NULL OR j.owner = :owner OR j.heartbeatAt < :staleBefore)")
+    int claim(@Param("id") Long id, @Param("owner") String owner, @Param("now") LocalDateTime now,
+              @Param("staleBefore") LocalDateTime staleBefore);
+
+    // 0 once another node has taken the job over
+    @Transactional
+    @Modifying
+    @Query("UPDATE ReindexJob j SET j.heartbeatAt = :now WHERE j.id = :id AND j.owner = :owner")
+    int renewLease(@Param("id") Long id, @Param("owner") String owner, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE ReindexJob j SET j.owner = NULL, j.heartbeatAt = NULL WHERE j.id = :id AND j.owner = :owner")
+    int releaseLease(@Param("id") Long id, @Param("owner") String owner);
+}
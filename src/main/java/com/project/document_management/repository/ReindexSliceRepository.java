@@ -0,0 +1,10 @@
+package com.project.document_management.repository;
+
+import com.project.document_management.model.ReindexSlice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import java.util.List;
+
+public interface ReindexSliceRepository extends JpaRepository<ReindexSlice, Long> {
+
+    List<ReindexSlice> findByJob_IdOrderBySliceNumberAsc(Long jobId);
+}
@@ -0,0 +1,129 @@
+package com.project.document_management.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.project.document_management.model.Document;
+import com.project.document_management.model.ProcessingStatus;
+import com.project.document_management.model.UploadStatus;
+import com.project.document_management.repository.DocumentRepository;
+
+/**
+ * Upload mode that answers as soon as the bytes are on disk. Hashing, the database insert (with the OCR
+ * outbox message) and the document event run on the upload executor; clients follow the token instead.
+ * Tokens live in memory on the node that took the upload, for {@code upload.async.status-ttl}.
+ */
+@Service
+public class AsyncUploadService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncUploadService.class);
+
+    private final DocumentService documentService;
+    private final FileStorageService fileStorageService;
+    private final DocumentRepository documentRepository;
+    private final TaskExecutor uploadExecutor;
+    private final Cache<String, UploadStatus> uploads;
+
+    @Autowired
+    public AsyncUploadService(DocumentService documentService, FileStorageService fileStorageService,
+                              DocumentRepository documentRepository,
+                              @Qualifier("uploadExecutor") TaskExecutor uploadExecutor,
+                              @Value("${upload.async.status-ttl:PT1H}") Duration statusTtl) {
+        this.documentService = documentService;
+        this.fileStorageService = fileStorageService;
+        this.documentRepository = documentRepository;
+        this.uploadExecutor = uploadExecutor;
+        this.uploads = Caffeine.newBuilder()
+                .expireAfterWrite(statusTtl)
+                .maximumSize(100_000)
+                .build();
+    }
+
+    public UploadStatus submit(MultipartFile file, String title) throws IOException {
+        if (file.isEmpty()) {
+            throw new IllegalArgumentException("File is empty");
+        }
+        Path staged = fileStorageService.stage(file);
+        return handOff(staged, () -> fileStorageService.describe(staged), title, file.getOriginalFilename(),
+                file.getContentType());
+    }
+
+    // The body has to be read on the request thread anyway, so it is hashed on the way to disk
+    public UploadStatus submit(InputStream content, String filename, String contentType, String title)
+            throws IOException {
+        StoredFile stored = fileStorageService.store(content, filename);
+        if (stored.getSize() == 0) {
+            fileStorageService.discard(stored);
+            throw new IllegalArgumentException("File is empty");
+        }
+        return handOff(Paths.get(stored.getPath()), () -> stored, title, filename, contentType);
+    }
+
+    // Current state: the document's own status once it is saved, the tracker's before that
+    public Optional<UploadStatus> getStatus(String token) {
+        UploadStatus status = uploads.getIfPresent(token);
+        if (status == null || status.getDocumentId() == null) {
+            return Optional.ofNullable(status);
+        }
+        return Optional.of(documentRepository.findProcessingStatusById(status.getDocumentId())
+                .map(status::withState)
+                .orElse(status));
+    }
+
+    private UploadStatus handOff(Path staged, StagedUpload describe, String title, String filename,
+                                 String contentType) throws IOException {
+        String token = UUID.randomUUID().toString();
+        UploadStatus received = new UploadStatus(token, ProcessingStatus.RECEIVED, null, null);
+        uploads.put(token, received);
+        try {
+            uploadExecutor.execute(() -> process(token, staged, describe, title, filename, contentType));
+        } catch (TaskRejectedException e) {
+            uploads.invalidate(token);
+            Files.deleteIfExists(staged);
+            throw e;
+        }
+        return received;
+    }
+
+    private void process(String token, Path staged, StagedUpload describe, String title, String filename,
+                         String contentType) {
+        try {
+            StoredFile stored = describe.get();
+            uploads.put(token, new UploadStatus(token, ProcessingStatus.STORED, null, null));
+            Document document = documentService.saveStagedUpload(stored, title, filename, contentType);
+            uploads.put(token, new UploadStatus(token, document.getProcessingStatus(), document.getId(), null));
+        } catch (Exception e) {
+            logger.error("Async upload {} ({}) failed: {}", token, filename, e.getMessage(), e);
+            uploads.put(token, new UploadStatus(token, ProcessingStatus.FAILED, null, e.getMessage()));
+            try {
+                // Already gone if it reached the blob store
+                Files.deleteIfExists(staged);
+            } catch (IOException cleanup) {
+                logger.warn("Could not delete staged upload {}: {}", staged, cleanup.getMessage());
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface StagedUpload {
+        StoredFile get() throws IOException;
+    }
+}
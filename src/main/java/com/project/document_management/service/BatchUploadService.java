@@ -0,0 +1,142 @@
+package com.project.document_management.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.project.document_management.model.Document;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Ingests scanner batches: many multipart parts or the entries of a zip stream. Every file is written to
+ * storage (and hashed) as it is read, outside any transaction; the documents are then saved together by
+ * {@link DocumentService#saveStagedUploads}. Each file is still capped by {@code file.upload.max-size}.
+ */
+@Service
+public class BatchUploadService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchUploadService.class);
+
+    private final DocumentService documentService;
+    private final FileStorageService fileStorageService;
+    private final int maxFiles;
+    private final Timer batchTimer;
+    private final Counter documentsIngested;
+
+    @Autowired
+    public BatchUploadService(DocumentService documentService, FileStorageService fileStorageService,
+                              MeterRegistry meterRegistry,
+                              @Value("${upload.batch.max-files:500}") int maxFiles) {
+        this.documentService = documentService;
+        this.fileStorageService = fileStorageService;
+        this.maxFiles = maxFiles;
+        this.batchTimer = Timer.builder("upload.batch.duration")
+                .description("Time to store and save one upload batch")
+                .register(meterRegistry);
+        this.documentsIngested = Counter.builder("upload.batch.documents")
+                .description("Documents created by batch uploads")
+                .register(meterRegistry);
+    }
+
+    // Titles default to the file name
+    public List<Document> upload(List<MultipartFile> files) throws IOException {
+        checkBatchSize(files.size());
+        Timer.Sample sample = Timer.start();
+        List<PendingUpload> pending = new ArrayList<>(files.size());
+        try {
+            for (MultipartFile file : files) {
+                if (file.isEmpty()) {
+                    continue;
+                }
+                String filename = file.getOriginalFilename();
+                pending.add(new PendingUpload(fileStorageService.store(file), titleOf(filename), filename,
+                        file.getContentType()));
+            }
+        } catch (IOException | RuntimeException e) {
+            discard(pending);
+            throw e;
+        }
+        return save(pending, sample);
+    }
+
+    // Zip stream as the request body; entries are read and stored one at a time, directories and empty files skipped
+    public List<Document> uploadZip(InputStream content) throws IOException {
+        Timer.Sample sample = Timer.start();
+        List<PendingUpload> pending = new ArrayList<>();
+        try (ZipInputStream zip = new ZipInputStream(content)) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                if (entry.isDirectory()) {
+                    continue;
+                }
+                checkBatchSize(pending.size() + 1);
+                String filename = Paths.get(entry.getName()).getFileName().toString();
+                // store() closes the stream it reads; the zip has to stay open for the next entry
+                StoredFile stored = fileStorageService.store(StreamUtils.nonClosing(zip), filename);
+                if (stored.getSize() == 0) {
+                    fileStorageService.discard(stored);
+                    continue;
+                }
+                String contentType = MediaTypeFactory.getMediaType(filename)
+                        .orElse(MediaType.APPLICATION_OCTET_STREAM).toString();
+                pending.add(new PendingUpload(stored, titleOf(filename), filename, contentType));
+            }
+        } catch (IOException | RuntimeException e) {
+            discard(pending);
+            throw e;
+        }
+        return save(pending, sample);
+    }
+
+    private List<Document> save(List<PendingUpload> pending, Timer.Sample sample) throws IOException {
+        if (pending.isEmpty()) {
+            throw new IllegalArgumentException("Batch contains no files");
+        }
+        List<Document> documents = documentService.saveStagedUploads(pending);
+        sample.stop(batchTimer);
+        documentsIngested.increment(documents.size());
+        logger.info("Batch upload of {} files done", documents.size());
+        return documents;
+    }
+
+    private void checkBatchSize(int files) {
+        if (files > maxFiles) {
+            throw new IllegalArgumentException("Batch has more than " + maxFiles + " files");
+        }
+    }
+
+    private void discard(List<PendingUpload> pending) {
+        for (PendingUpload upload : pending) {
+            try {
+                fileStorageService.discard(upload.getStored());
+            } catch (IOException e) {
+                logger.warn("Could not delete staged upload {}: {}", upload.getStored().getPath(), e.getMessage());
+            }
+        }
+    }
+
+    private static String titleOf(String filename) {
+        if (filename == null || filename.isBlank()) {
+            return "Untitled";
+        }
+        int dot = filename.lastIndexOf('.');
+        return dot > 0 ? filename.substring(0, dot) : filename;
+    }
+}
@@ -0,0 +1,203 @@
+package com.project.document_management.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.convert.ElasticsearchConverter;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._helpers.bulk.BulkIngester;
+import co.elastic.clients.elasticsearch._helpers.bulk.BulkListener;
+import co.elastic.clients.elasticsearch.core.BulkRequest;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
+import co.elastic.clients.elasticsearch.core.bulk.OperationType;
+import jakarta.annotation.PreDestroy;
+
+import com.project.document_management.elastic.ElasticDocument;
+import com.project.document_management.repository.DocumentRepository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Batches index/delete operations into _bulk requests. A batch is sent when it reaches
+ * max-operations or max-size, or when flush-interval has passed. One request is in flight at a time, and
+ * callers block in {@link #index} until it completes: deletes share the ingester, and with two requests in flight
+ * an index operation in the first could be applied after a delete of the same document in the second.
+ * Documents are marked INDEXED only once Elasticsearch accepted them; those left at OCR_DONE by a failed
+ * request or item are sent again by a periodic sweep.
+ */
+@Service
+public class BulkIndexingService implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkIndexingService.class);
+
+    private final BulkIngester<String> ingester;
+    private final ElasticsearchConverter converter;
+    private final String indexName;
+    private final SearchIndexVersion searchIndexVersion;
+
+    @Autowired(required = false)
+    private DocumentRepository documentRepository;
+
+    @Autowired(required = false)
+    private IndexingQueue indexingQueue;
+
+    // Longer than any normal trip through the indexing queue and the ingester
+    @Value("${elasticsearch.bulk.retry.after-ms:300000}")
+    long retryAfterMs = 300_000;
+
+    @Value("${elasticsearch.bulk.retry.batch-size:500}")
+    int retryBatchSize = 500;
+
+    public BulkIndexingService(ElasticsearchClient elasticsearchClient,
+                               ElasticsearchOperations elasticsearchOperations,
+                               SearchIndexVersion searchIndexVersion,
+                               @Value("${elasticsearch.bulk.max-operations:500}") int maxOperations,
+                               @Value("${elasticsearch.bulk.max-size-bytes:5242880}") long maxSizeBytes,
+                               @Value("${elasticsearch.bulk.flush-interval-ms:1000}") long flushIntervalMs) {
+        this.searchIndexVersion = searchIndexVersion;
+        this.converter = elasticsearchOperations.getElasticsearchConverter();
+        this.indexName = elasticsearchOperations.getIndexCoordinatesFor(ElasticDocument.class).getIndexName();
+        this.ingester = BulkIngester.of(builder -> builder
+                .client(elasticsearchClient)
+                .maxOperations(maxOperations)
+                .maxSize(maxSizeBytes)
+                .maxConcurrentRequests(1)
+                .flushInterval(flushIntervalMs, TimeUnit.MILLISECONDS)
+                .listener(new LoggingListener()));
+    }
+
+    public void index(ElasticDocument document) {
+        // Same source Spring Data writes, so repository reads stay compatible
+        Map<String, Object> source = new LinkedHashMap<>(converter.mapObject(document));
+        ingester.add(op -> op.index(idx -> idx.index(indexName).id(document.getId()).document(source)),
+                document.getId());
+    }
+
+    public void delete(String id) {
+        ingester.add(op -> op.delete(del -> del.index(indexName).id(id)), id);
+    }
+
+    @Scheduled(fixedDelayString = "${elasticsearch.bulk.retry.interval-ms:60000}")
+    public void resubmitUnindexed() {
+        if (documentRepository == null) {
+            return;
+        }
+        try {
+            List<Long> ids = documentRepository.findIdsAwaitingIndex(
+                    LocalDateTime.now().minus(Duration.ofMillis(retryAfterMs)), Limit.of(retryBatchSize));
+            if (ids.isEmpty()) {
+                return;
+            }
+            logger.warn("Re-indexing {} documents whose earlier bulk operation failed", ids.size());
+            for (Long id : ids) {
+                // Through the indexing queue, so a delete of the same document is still applied last
+                if (indexingQueue != null) {
+                    indexingQueue.submit(id, () -> indexFromDatabase(id));
+                } else {
+                    indexFromDatabase(id);
+                }
+            }
+        } catch (Exception e) {
+            logger.error("Re-indexing documents left at OCR_DONE failed, will retry: {}", e.getMessage());
+        }
+    }
+
+    // Reads the row only when the task runs: a document deleted in the meantime is not indexed again
+    private void indexFromDatabase(Long id) {
+        documentRepository.findById(id)
+                .filter(document -> document.getOcrText() != null)
+                .ifPresent(document -> index(ElasticDocument.fromDocument(document)));
+    }
+
+    public void flush() {
+        ingester.flush();
+    }
+
+    public int getPendingOperations() {
+        return ingester.pendingOperations();
+    }
+
+    public int getPendingRequests() {
+        return ingester.pendingRequests();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("elasticsearch.bulk.pending.operations", this, BulkIndexingService::getPendingOperations)
+                .description("Operations buffered for the next bulk request")
+                .register(registry);
+        Gauge.builder("elasticsearch.bulk.pending.requests", this, BulkIndexingService::getPendingRequests)
+                .description("Bulk requests in flight")
+                .register(registry);
+    }
+
+    @PreDestroy
+    public void close() {
+        // Sends whatever is still buffered
+        ingester.close();
+    }
+
+    private class LoggingListener implements BulkListener<String> {
+
+        @Override
+        public void beforeBulk(long executionId, BulkRequest request, List<String> ids) {
+            logger.debug("Sending bulk request {} with {} operations", executionId, ids.size());
+        }
+
+        @Override
+        public void afterBulk(long executionId, BulkRequest request, List<String> ids, BulkResponse response) {
+            // The batch is in the index now (searchable after the next refresh), so cached results are stale
+            searchIndexVersion.increment();
+            int failed = 0;
+            List<Long> indexed = new ArrayList<>();
+            for (BulkResponseItem item : response.items()) {
+                if (item.error() != null) {
+                    failed++;
+                    // Not marked INDEXED, so the next resubmitUnindexed() sends an index operation again
+                    logger.error("Failed to {} document ID {} in Elasticsearch: {}",
+                            item.operationType().jsonValue(), item.id(), item.error().reason());
+                } else if (item.operationType() == OperationType.Index) {
+                    indexed.add(Long.valueOf(item.id()));
+                }
+            }
+            markIndexed(indexed);
+            logger.info("Bulk request {} to index {} completed: {} operations, {} failed, took {} ms",
+                    executionId, indexName, ids.size(), failed, response.took());
+        }
+
+        private void markIndexed(List<Long> ids) {
+            if (documentRepository == null || ids.isEmpty()) {
+                return;
+            }
+            try {
+                documentRepository.markIndexed(ids);
+            } catch (Exception e) {
+                logger.warn("Could not mark {} documents as indexed: {}", ids.size(), e.getMessage());
+            }
+        }
+
+        @Override
+        public void afterBulk(long executionId, BulkRequest request, List<String> ids, Throwable failure) {
+            // None of the documents were marked INDEXED; resubmitUnindexed() picks them up
+            logger.error("Bulk request {} with {} operations failed, will be retried: {}",
+                    executionId, ids.size(), failure.getMessage(), failure);
+        }
+    }
+}
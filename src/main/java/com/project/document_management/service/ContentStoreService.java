@@ -0,0 +1,85 @@
+package com.project.document_management.service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.project.document_management.model.ContentBlob;
+import com.project.document_management.repository.ContentBlobRepository;
+
+/**
+ * Reference-counted, content-addressed file storage. Identical uploads share one blob;
+ * the blob is removed by a periodic purge once the last document referencing it has been deleted.
+ * Acquire and release join the caller's transaction and hold the blob's row lock until it commits;
+ * neither touches a file that a rollback would need.
+ */
+@Service
+public class ContentStoreService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContentStoreService.class);
+    private static final int PURGE_BATCH_SIZE = 100;
+
+    private final FileStorageService fileStorageService;
+    private final ContentBlobRepository contentBlobRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public ContentStoreService(FileStorageService fileStorageService, ContentBlobRepository contentBlobRepository,
+                               TransactionTemplate transactionTemplate) {
+        this.fileStorageService = fileStorageService;
+        this.contentBlobRepository = contentBlobRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    // Takes a reference on the staged upload's content and returns the blob path to store on the document
+    @Transactional(propagation = Propagation.MANDATORY)
+    public String acquire(StoredFile staged) throws IOException {
+        contentBlobRepository.addReference(staged.getSha256());
+        return fileStorageService.promote(staged);
+    }
+
+    // The file stays until the purge, so a rolled-back delete still finds it
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void release(String hash) {
+        contentBlobRepository.decrementRefCount(hash);
+    }
+
+    @Scheduled(fixedDelayString = "${storage.blob.purge-interval-ms:60000}")
+    public void purgeUnreferenced() {
+        try {
+            Integer purged;
+            do {
+                purged = transactionTemplate.execute(status -> purgeBatch());
+            } while (purged != null && purged == PURGE_BATCH_SIZE);
+        } catch (Exception e) {
+            logger.error("Blob purge failed, will retry: {}", e.getMessage());
+        }
+    }
+
+    // Files are deleted while their rows are locked: an upload of the same content waits on the row, finds it gone
+    // and stores its own copy. If this transaction rolls back the rows stay, and the next run deletes them
+    private int purgeBatch() {
+        List<ContentBlob> purged = new ArrayList<>();
+        for (ContentBlob blob : contentBlobRepository.findByRefCountLessThanEqual(0, PageRequest.of(0, PURGE_BATCH_SIZE))) {
+            try {
+                fileStorageService.deleteBlob(blob.getHash());
+                purged.add(blob);
+                logger.info("Deleted unreferenced blob {}", blob.getHash());
+            } catch (IOException e) {
+                logger.warn("Could not delete blob {}, keeping it for the next purge: {}", blob.getHash(), e.getMessage());
+            }
+        }
+        contentBlobRepository.deleteAllInBatch(purged);
+        return purged.size();
+    }
+}
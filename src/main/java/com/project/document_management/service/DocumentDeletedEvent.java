@@ -0,0 +1,22 @@
+package com.project.document_management.service;
+
+// Published when a document row is deleted; everything outside the database is cleaned up once that commits
+public class DocumentDeletedEvent {
+
+    private final Long documentId;
+    // Per-upload file to remove, or null when the file is a shared blob (ContentStoreService purges those)
+    private final String storagePath;
+
+    public DocumentDeletedEvent(Long documentId, String storagePath) {
+        this.documentId = documentId;
+        this.storagePath = storagePath;
+    }
+
+    public Long getDocumentId() {
+        return documentId;
+    }
+
+    public String getStoragePath() {
+        return storagePath;
+    }
+}
@@ -1,14 +1,22 @@
 package com.project.document_management.service;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 import com.project.document_management.elastic.ElasticDocument;
 import com.project.document_management.elastic.ElasticDocumentRepository;
 import com.project.document_management.model.Document;
+import com.project.document_management.repository.DocumentSearchRepository;
+
+import io.micrometer.observation.ObservationRegistry;
 
 @Component
 public class DocumentEventListener {
@@ -21,25 +29,50 @@ public class DocumentEventListener {
     @Autowired(required = false)
     private ElasticSearchService elasticSearchService;
 
-    @EventListener
+    @Autowired(required = false)
+    private BulkIndexingService bulkIndexingService;
+
+    @Autowired(required = false)
+    private DocumentSearchRepository documentSearchRepository;
+
+    @Autowired(required = false)
+    private IndexingQueue indexingQueue;
+
+    @Autowired(required = false)
+    private ReindexService reindexService;
+
+    @Autowired(required = false)
+    private ObservationRegistry observationRegistry = ObservationRegistry.NOOP;
+
+    // After commit, so a rolled-back save is never indexed; events published outside a transaction run at once.
+    // The Elasticsearch call itself goes to the indexing queue, off the request or OCR thread
+    @TransactionalEventListener(fallbackExecution = true)
     public void handleDocumentUpdate(Document document) {
+        // Skip if document has no OCR text yet
+        if (document.getOcrText() == null || document.getOcrText().isEmpty()) {
+            logger.info("Document ID {} has no OCR text yet, skipping Elasticsearch update", document.getId());
+            return;
+        }
+        if (indexingQueue != null) {
+            indexingQueue.submit(document.getId(), () -> index(document));
+        } else {
+            index(document);
+        }
+    }
+
+    private void index(Document document) {
+        PipelineObservations.stage(PipelineObservations.ES_INDEX, observationRegistry).observe(() -> write(document));
+    }
+
+    private void write(Document document) {
         try {
-            // Skip if document has no OCR text yet
-            if (document.getOcrText() == null || document.getOcrText().isEmpty()) {
-                logger.info("Document ID {} has no OCR text yet, skipping Elasticsearch update", document.getId());
-                return;
-            }
-            
-            ElasticDocument elasticDocument = new ElasticDocument();
-            elasticDocument.setId(document.getId().toString());
-            elasticDocument.setTitle(document.getTitle());
-            elasticDocument.setOcrText(document.getOcrText());
-            elasticDocument.setUploadedAt(document.getUploadedAt());
-            elasticDocument.setFileSize(document.getFileSize());
-            elasticDocument.setContentType(document.getContentType());
-            
-            // Use the service if available (for retries), otherwise use direct repository
-            if (elasticSearchService != null) {
+            ElasticDocument elasticDocument = ElasticDocument.fromDocument(document);
+
+            // Prefer the bulk indexer, then the service (for retries), otherwise use direct repository
+            if (bulkIndexingService != null) {
+                bulkIndexingService.index(elasticDocument);
+                logger.debug("Document ID {} queued for bulk indexing", document.getId());
+            } else if (elasticSearchService != null) {
                 elasticSearchService.indexDocument(elasticDocument);
             } else {
                 elasticDocumentRepository.save(elasticDocument);
@@ -50,4 +83,60 @@ public class DocumentEventListener {
                          document.getId(), e.getMessage(), e);
         }
     }
-}
\ No newline at end of file
+
+    // After commit: a delete that rolls back keeps its file and stays searchable
+    @TransactionalEventListener(fallbackExecution = true)
+    public void handleDocumentDeleted(DocumentDeletedEvent event) {
+        Long id = event.getDocumentId();
+        // Through the indexing queue like updates: it replaces an update still waiting there and runs after one
+        // already running, so a late update cannot bring the deleted document back
+        if (indexingQueue != null) {
+            indexingQueue.submit(id, () -> removeFromIndex(id));
+        } else {
+            removeFromIndex(id);
+        }
+        if (event.getStoragePath() != null) {
+            try {
+                Files.deleteIfExists(Paths.get(event.getStoragePath()));
+            } catch (IOException e) {
+                logger.error("Failed to delete file {} of document ID {}: {}", event.getStoragePath(), id, e.getMessage());
+            }
+        }
+    }
+
+    private void removeFromIndex(Long documentId) {
+        String id = documentId.toString();
+        try {
+            // The bulk indexer sends operations in the order they were added, so an index operation for this
+            // document still in its buffer goes out before the delete
+            if (bulkIndexingService != null) {
+                bulkIndexingService.delete(id);
+            } else if (elasticSearchService != null) {
+                elasticSearchService.deleteDocument(id);
+            } else {
+                elasticDocumentRepository.deleteById(id);
+            }
+        } catch (Exception e) {
+            logger.error("Failed to delete document ID {} from Elasticsearch: {}", id, e.getMessage(), e);
+        }
+        if (reindexService != null) {
+            reindexService.documentDeleted(id);
+        }
+    }
+
+    // Keeps the PostgreSQL search vector current: title on upload (with the text, when it was reused from identical
+    // content), title and text once OCR is done. Synchronous, inside the saving transaction and on its connection;
+    // the update runs in a savepoint, so a failure here leaves that transaction usable
+    @EventListener
+    public void updateFullTextIndex(Document document) {
+        if (documentSearchRepository == null || !documentSearchRepository.isAvailable()) {
+            return;
+        }
+        try {
+            documentSearchRepository.updateSearchVector(document.getId(), document.getTitle(), document.getOcrText());
+        } catch (Exception e) {
+            logger.error("Failed to update search vector for document ID {}: {}",
+                         document.getId(), e.getMessage(), e);
+        }
+    }
+}
@@ -1,82 +1,290 @@
 package com.project.document_management.service;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationEventPublisher;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.project.document_management.config.RabbitMQConfig;
 import com.project.document_management.elastic.ElasticDocument;
 import com.project.document_management.elastic.ElasticDocumentRepository;
+import com.project.document_management.model.CursorPage;
 import com.project.document_management.model.Document;
+import com.project.document_management.model.DocumentPage;
+import com.project.document_management.model.DocumentSummary;
+import com.project.document_management.model.OcrProgress;
+import com.project.document_management.model.OutboxMessage;
+import com.project.document_management.model.ProcessingStatus;
+import com.project.document_management.repository.DocumentPageRepository;
 import com.project.document_management.repository.DocumentRepository;
+import com.project.document_management.repository.DocumentSearchRepository;
+import com.project.document_management.repository.OutboxMessageRepository;
+
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.TraceContext;
+import io.micrometer.tracing.Tracer;
 
 
 @Service
 public class DocumentService {
     private static final Logger logger = LoggerFactory.getLogger(DocumentService.class);
+    private static final int MAX_PAGE_SIZE = 200;
 
     @Autowired(required = false)
     private ElasticSearchService elasticSearchService;
 
     private final FileStorageService fileStorageService;
     private final DocumentRepository documentRepository;
-    private final RabbitTemplate rabbitTemplate;
+    private final OutboxMessageRepository outboxMessageRepository;
+    private final ContentStoreService contentStoreService;
     private final ApplicationEventPublisher eventPublisher;
     @Autowired
     private ElasticDocumentRepository elasticDocumentRepository;
     @Autowired
+    private DocumentPageRepository documentPageRepository;
+    @Autowired(required = false)
+    private BulkIndexingService bulkIndexingService;
+    @Autowired(required = false)
+    private DocumentSearchRepository documentSearchRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired(required = false)
+    private ReindexService reindexService;
+    @Autowired(required = false)
+    private OcrQueueRouter ocrQueueRouter;
+    @Autowired(required = false)
+    private ObservationRegistry observationRegistry = ObservationRegistry.NOOP;
+    @Autowired(required = false)
+    private Tracer tracer;
+    @Autowired
     public DocumentService(FileStorageService fileStorageService, DocumentRepository documentRepository,
-                           RabbitTemplate rabbitTemplate, ApplicationEventPublisher eventPublisher) {
+                           OutboxMessageRepository outboxMessageRepository, ContentStoreService contentStoreService,
+                           ApplicationEventPublisher eventPublisher) {
         this.fileStorageService = fileStorageService;
         this.documentRepository = documentRepository;
-        this.rabbitTemplate = rabbitTemplate;
+        this.outboxMessageRepository = outboxMessageRepository;
+        this.contentStoreService = contentStoreService;
         this.eventPublisher = eventPublisher;
     }
 
+    // Both uploads stage and hash the file before the transaction starts, so no connection is held while it streams
     public Document uploadDocument(MultipartFile file, String title) throws IOException {
         if (file.isEmpty()) {
             throw new IllegalArgumentException("File is empty");
         }
 
-        String filename = fileStorageService.storeFile(file);
+        StoredFile stored = fileStorageService.store(file);
+        return saveInTransaction(stored, title, file.getOriginalFilename(), file.getContentType());
+    }
 
-        Document document = new Document();
-        document.setTitle(title);
-        document.setStoragePath(filename);
-        document.setFileSize(file.getSize());
-        document.setContentType(file.getContentType());
-        document.setUploadedAt(LocalDateTime.now());
-        Document savedDocument = documentRepository.save(document);
-        eventPublisher.publishEvent(savedDocument); // Trigger sync to Elasticsearch
+    // Raw request body upload: the bytes go straight to disk, never buffered in memory or a multipart temp file
+    public Document uploadDocument(InputStream content, String filename, String contentType, String title)
+            throws IOException {
+        StoredFile stored = fileStorageService.store(content, filename);
+        if (stored.getSize() == 0) {
+            fileStorageService.discard(stored);
+            throw new IllegalArgumentException("File is empty");
+        }
+        return saveInTransaction(stored, title, filename, contentType);
+    }
 
+    // saveStagedUpload's transaction, which a call from inside this class would bypass
+    private Document saveInTransaction(StoredFile stored, String title, String originalFilename, String contentType)
+            throws IOException {
+        try {
+            return transactionTemplate.execute(status -> {
+                try {
+                    return saveUploadedDocument(stored, title, originalFilename, contentType);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
 
+    // Second half of an async upload (AsyncUploadService): the bytes are already staged and hashed
+    @Transactional
+    public Document saveStagedUpload(StoredFile stored, String title, String originalFilename, String contentType)
+            throws IOException {
+        return saveUploadedDocument(stored, title, originalFilename, contentType);
+    }
+
+    // Batch uploads (BatchUploadService): one transaction, and the document rows and outbox messages
+    // go to the database as JDBC batches instead of one round trip each
+    @Transactional
+    public List<Document> saveStagedUploads(List<PendingUpload> uploads) throws IOException {
+        return PipelineObservations.stage(PipelineObservations.DB_SAVE, observationRegistry)
+                .observeChecked(() -> persistStagedUploads(uploads));
+    }
+
+    private List<Document> persistStagedUploads(List<PendingUpload> uploads) throws IOException {
+        String[] storagePaths = new String[uploads.size()];
+        // Blob rows are locked in hash order, so two batches sharing content cannot deadlock
+        List<Integer> byHash = new ArrayList<>(uploads.size());
+        for (int i = 0; i < uploads.size(); i++) {
+            byHash.add(i);
+        }
+        byHash.sort(Comparator.comparing(i -> uploads.get(i).getStored().getSha256()));
+        int acquired = 0;
         try {
-            rabbitTemplate.convertAndSend(RabbitMQConfig.DOCUMENT_QUEUE, savedDocument.getId().toString());
-        } catch (Exception e) {
-            throw new RuntimeException("Message queuing failed", e);
+            for (Integer i : byHash) {
+                storagePaths[i] = contentStoreService.acquire(uploads.get(i).getStored());
+                acquired++;
+            }
+        } catch (IOException | RuntimeException e) {
+            for (Integer i : byHash.subList(acquired, byHash.size())) {
+                fileStorageService.discard(uploads.get(i).getStored());
+            }
+            throw e;
+        }
+
+        Set<String> hashes = uploads.stream().map(upload -> upload.getStored().getSha256()).collect(Collectors.toSet());
+        Map<String, Document> recognised = new HashMap<>();
+        for (Document original : documentRepository.findByContentHashInAndOcrTextIsNotNull(hashes)) {
+            recognised.putIfAbsent(original.getContentHash(), original);
+        }
+
+        List<Document> documents = new ArrayList<>(uploads.size());
+        for (int i = 0; i < uploads.size(); i++) {
+            PendingUpload upload = uploads.get(i);
+            StoredFile stored = upload.getStored();
+            documents.add(newDocument(stored, storagePaths[i], upload.getTitle(), upload.getOriginalFilename(),
+                    upload.getContentType(), recognised.get(stored.getSha256())));
         }
 
+        List<Document> saved = documentRepository.saveAll(documents);
+        List<OutboxMessage> messages = new ArrayList<>();
+        for (Document document : saved) {
+            if (document.getOcrText() == null) {
+                messages.add(ocrRequest(document, messages.size()));
+            }
+        }
+        outboxMessageRepository.saveAll(messages);
+        saved.forEach(eventPublisher::publishEvent);
+        logger.info("Saved batch of {} documents, {} queued for OCR", saved.size(), messages.size());
+        return saved;
+    }
+
+    private Document saveUploadedDocument(StoredFile stored, String title, String originalFilename,
+                                          String contentType) throws IOException {
+        return PipelineObservations.stage(PipelineObservations.DB_SAVE, observationRegistry)
+                .observeChecked(() -> persistUploadedDocument(stored, title, originalFilename, contentType));
+    }
+
+    private Document persistUploadedDocument(StoredFile stored, String title, String originalFilename,
+                                             String contentType) throws IOException {
+        String storagePath;
+        try {
+            // If this transaction rolls back after the move, the blob stays unreferenced until the same bytes come again
+            storagePath = contentStoreService.acquire(stored);
+        } catch (IOException | RuntimeException e) {
+            fileStorageService.discard(stored);
+            throw e;
+        }
+        Optional<Document> recognised = documentRepository.findFirstByContentHashAndOcrTextIsNotNull(stored.getSha256());
+        Document document = newDocument(stored, storagePath, title, originalFilename, contentType, recognised.orElse(null));
+
+        Document savedDocument = documentRepository.save(document);
+        if (recognised.isPresent()) {
+            logger.info("Document ID {} has the same content as document ID {}, reusing its OCR text",
+                    savedDocument.getId(), recognised.get().getId());
+        } else {
+            // Queued for OCR in the same transaction; OutboxRelay delivers it to RabbitMQ
+            outboxMessageRepository.save(ocrRequest(savedDocument, -1));
+        }
+        eventPublisher.publishEvent(savedDocument); // Trigger sync to Elasticsearch
+
         return savedDocument;
     }
 
+    // positionInBatch is -1 for single uploads; without a router everything goes to the interactive queue
+    private OutboxMessage ocrRequest(Document document, int positionInBatch) {
+        OutboxMessage message;
+        if (ocrQueueRouter == null) {
+            message = new OutboxMessage(RabbitMQConfig.DOCUMENT_QUEUE, document.getId().toString());
+        } else {
+            message = positionInBatch < 0 ? ocrQueueRouter.route(document)
+                    : ocrQueueRouter.routeBatch(document, positionInBatch);
+        }
+        // The relay publishes long after this request's span ended; the header lets OCR join the upload's trace
+        message.setTraceParent(currentTraceParent());
+        return message;
+    }
+
+    private String currentTraceParent() {
+        Span span = tracer != null ? tracer.currentSpan() : null;
+        if (span == null) {
+            return null;
+        }
+        TraceContext context = span.context();
+        return "00-" + context.traceId() + "-" + context.spanId() + (Boolean.TRUE.equals(context.sampled()) ? "-01" : "-00");
+    }
+
+    private static Document newDocument(StoredFile stored, String storagePath, String title, String originalFilename,
+                                        String contentType, Document recognised) {
+        Document document = new Document();
+        document.setStoragePath(storagePath);
+        document.setTitle(title);
+        document.setOriginalFilename(originalFilename);
+        document.setFileSize(stored.getSize());
+        document.setContentHash(stored.getSha256());
+        document.setContentType(contentType);
+        document.setUploadedAt(LocalDateTime.now());
+        // Same bytes were recognised before: reuse that text instead of running OCR again
+        if (recognised != null) {
+            document.setOcrText(recognised.getOcrText());
+            document.setOcrPagesTotal(recognised.getOcrPagesTotal());
+            document.setOcrPagesDone(recognised.getOcrPagesTotal());
+        }
+        document.setProcessingStatus(recognised != null ? ProcessingStatus.OCR_DONE : ProcessingStatus.QUEUED);
+        return document;
+    }
+
     public String getOCRText(Long id) {
         Document document = documentRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Document not found"));
-        return document.getOcrText();
+        if (document.getOcrText() != null) {
+            return document.getOcrText();
+        }
+        // OCR still running: serve the pages recognised so far, in page order
+        List<DocumentPage> pages = documentPageRepository.findByDocumentIdOrderByPageNumber(id);
+        if (pages.isEmpty()) {
+            return null;
+        }
+        return pages.stream().map(DocumentPage::getText).collect(Collectors.joining());
+    }
+
+    public OcrProgress getOCRProgress(Long id) {
+        return OcrProgress.of(getDocumentById(id));
     }
 
     
@@ -87,16 +295,12 @@ public class DocumentService {
                 return;
             }
             
-            ElasticDocument elasticDocument = new ElasticDocument();
-            elasticDocument.setId(document.getId().toString());
-            elasticDocument.setTitle(document.getTitle());
-            elasticDocument.setOcrText(document.getOcrText());
-            elasticDocument.setUploadedAt(document.getUploadedAt());
-            elasticDocument.setFileSize(document.getFileSize());
-            elasticDocument.setContentType(document.getContentType());
-            
-            // Use the elasticSearchService if available, otherwise use direct repository
-            if (elasticSearchService != null) {
+            ElasticDocument elasticDocument = ElasticDocument.fromDocument(document);
+
+            // Prefer the bulk indexer, then the elasticSearchService, otherwise use direct repository
+            if (bulkIndexingService != null) {
+                bulkIndexingService.index(elasticDocument);
+            } else if (elasticSearchService != null) {
                 elasticSearchService.indexDocument(elasticDocument);
             } else {
                 elasticDocumentRepository.save(elasticDocument);
@@ -113,31 +317,89 @@ public class DocumentService {
                 .orElseThrow(() -> new RuntimeException("Document not found"));
     }
 
-    public Resource getDocumentFile(Long id) throws IOException {
-        Document document = getDocumentById(id);
-        Path filePath = Paths.get(document.getStoragePath());
-        return new UrlResource(filePath.toUri());
-    }
-
+    // Only the database is changed here. Files and the search index follow once the delete commits
+    // (DocumentDeletedEvent), so a rollback never leaves a row pointing at a deleted file
+    @Transactional
     public void deleteDocument(Long id) {
         Document document = documentRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Document not found"));
 
-        try {
-            Files.deleteIfExists(Paths.get(document.getStoragePath()));
-            documentRepository.delete(document);
-            elasticDocumentRepository.deleteById(document.getId().toString());
-        } catch (IOException e) {
-            throw new RuntimeException("Error deleting file", e);
+        documentRepository.delete(document);
+        boolean sharedBlob = document.getContentHash() != null && fileStorageService.isBlob(document.getStoragePath());
+        if (sharedBlob) {
+            // Shared blob: only removed with its last document
+            contentStoreService.release(document.getContentHash());
         }
+        eventPublisher.publishEvent(new DocumentDeletedEvent(document.getId(),
+                sharedBlob ? null : document.getStoragePath()));
     }
 
-    public List<Document> getDocuments(String search, String sortField, String sortDirection) {
+    // One page of at most MAX_PAGE_SIZE rows; the whole table is never loaded
+    public List<DocumentSummary> getDocuments(String search, String sortField, String sortDirection, int page, int size) {
         Sort sort = Sort.by(Sort.Direction.fromString(sortDirection), sortField);
+        Pageable pageable = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE), sort);
         if (!search.isEmpty()) {
-            return documentRepository.findByTitleContainingIgnoreCaseOrOcrTextContaining(search, sort);
+            if (isFullTextSearchAvailable()) {
+                // Best matches first whatever the sort, paged in the ranked query itself
+                return documentSearchRepository.search(search, pageable).getContent();
+            }
+            return documentRepository.searchSummaries(search, pageable).getContent();
+        }
+        return documentRepository.findAllSummaries(pageable);
+    }
+
+    // Database search for when Elasticsearch is unavailable: ranked full-text on PostgreSQL, LIKE elsewhere
+    public Slice<DocumentSummary> searchDocuments(String query, int page, int size) {
+        Pageable pageable = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE));
+        if (query.isBlank()) {
+            return new SliceImpl<>(List.of(), pageable, false);
+        }
+        if (isFullTextSearchAvailable()) {
+            return documentSearchRepository.search(query, pageable);
+        }
+        return documentRepository.searchSummaries(query, pageable);
+    }
+
+    private boolean isFullTextSearchAvailable() {
+        return documentSearchRepository != null && documentSearchRepository.isAvailable();
+    }
+
+    // Newest first, keyset-paginated on (uploadedAt, id); an invalid cursor throws IllegalArgumentException
+    public CursorPage<DocumentSummary> listDocuments(String cursor, int size) {
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        // One extra row tells us whether there is a next page without counting
+        Limit limit = Limit.of(pageSize + 1);
+        List<DocumentSummary> rows;
+        if (cursor == null || cursor.isEmpty()) {
+            rows = documentRepository.findLatestSummaries(limit);
+        } else {
+            String[] position = decodeCursor(cursor);
+            rows = documentRepository.findSummariesBefore(LocalDateTime.parse(position[0]), Long.valueOf(position[1]), limit);
+        }
+        if (rows.size() <= pageSize) {
+            return new CursorPage<>(rows, null);
+        }
+        List<DocumentSummary> items = rows.subList(0, pageSize);
+        return new CursorPage<>(items, encodeCursor(items.get(pageSize - 1)));
+    }
+
+    static String encodeCursor(DocumentSummary last) {
+        String position = last.getUploadedAt() + "," + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeCursor(String cursor) {
+        try {
+            String[] position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(",");
+            if (position.length != 2) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            LocalDateTime.parse(position[0]);
+            Long.parseLong(position[1]);
+            return position;
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
         }
-        return documentRepository.findAll(sort);
     }
 
-}
\ No newline at end of file
+}
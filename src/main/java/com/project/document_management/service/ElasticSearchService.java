@@ -1,25 +1,91 @@
 package com.project.document_management.service;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.query.FetchSourceFilter;
+import org.springframework.data.elasticsearch.core.query.HighlightQuery;
+import org.springframework.data.elasticsearch.core.query.Query;
+import org.springframework.data.elasticsearch.core.query.highlight.Highlight;
+import org.springframework.data.elasticsearch.core.query.highlight.HighlightField;
+import org.springframework.data.elasticsearch.core.query.highlight.HighlightParameters;
 import org.springframework.retry.annotation.Backoff;
 import org.springframework.retry.annotation.Recover;
 import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
 
+import co.elastic.clients.elasticsearch._types.query_dsl.Operator;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.project.document_management.elastic.ElasticDocument;
 import com.project.document_management.elastic.ElasticDocumentRepository;
+import com.project.document_management.elastic.SearchResult;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 
 @Service
 public class ElasticSearchService {
     
     private static final Logger logger = LoggerFactory.getLogger(ElasticSearchService.class);
     
+    private static final int MAX_SUGGESTIONS = 20;
+
+    // Fragments of up to 150 characters around matches, HTML-escaped apart from the <em> tags
+    private static final HighlightQuery HIGHLIGHT = new HighlightQuery(new Highlight(
+            HighlightParameters.builder()
+                    .withPreTags("<em>")
+                    .withPostTags("</em>")
+                    .withEncoder("html")
+                    .withFragmentSize(150)
+                    .withNumberOfFragments(3)
+                    .build(),
+            List.of(new HighlightField("title"), new HighlightField("ocrText"))), ElasticDocument.class);
+    
     @Autowired
     private ElasticDocumentRepository elasticDocumentRepository;
+
+    @Autowired
+    private ElasticsearchOperations elasticsearchOperations;
+
+    private final SearchIndexVersion searchIndexVersion;
+    // Results per (index version, normalized query, fuzzy, full, page, size); a write bumps the version so old entries miss
+    private final Cache<SearchKey, Page<SearchResult>> searchCache;
+    private final Timer cachedSearches;
+    private final Timer uncachedSearches;
+
+    @Autowired
+    public ElasticSearchService(SearchIndexVersion searchIndexVersion, MeterRegistry meterRegistry,
+                                @Value("${search.cache.max-weight-chars:20000000}") long maxWeightChars,
+                                @Value("${search.cache.ttl-ms:30000}") long ttlMs) {
+        this.searchIndexVersion = searchIndexVersion;
+        // Weighed by the text the hits carry; the TTL bounds staleness between a bulk write and the next refresh
+        this.searchCache = Caffeine.newBuilder()
+                .maximumWeight(maxWeightChars)
+                .weigher((SearchKey key, Page<SearchResult> page) -> weigh(page))
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, searchCache, "searchResults");
+        this.cachedSearches = Timer.builder("search.requests").tag("cache", "hit").register(meterRegistry);
+        this.uncachedSearches = Timer.builder("search.requests").tag("cache", "miss").register(meterRegistry);
+    }
     
     @Retryable(value = {Exception.class}, 
               maxAttempts = 3, 
@@ -27,6 +93,7 @@ public class ElasticSearchService {
     public void indexDocument(ElasticDocument document) {
         try {
             elasticDocumentRepository.save(document);
+            searchIndexVersion.increment();
             logger.info("Document ID {} indexed successfully in Elasticsearch", document.getId());
         } catch (Exception e) {
             logger.error("Error indexing document in Elasticsearch: {}", e.getMessage());
@@ -39,17 +106,56 @@ public class ElasticSearchService {
         logger.error("Failed to index document after retries: {}", e.getMessage(), e);
         // Could add to a "failed index" queue for later processing
     }
+
+    @Retryable(value = {Exception.class},
+              maxAttempts = 3,
+              backoff = @Backoff(delay = 1000, multiplier = 2))
+    public void deleteDocument(String id) {
+        try {
+            elasticDocumentRepository.deleteById(id);
+            searchIndexVersion.increment();
+            logger.info("Document ID {} deleted from Elasticsearch", id);
+        } catch (Exception e) {
+            logger.error("Error deleting document from Elasticsearch: {}", e.getMessage());
+            throw e; // Rethrow for retry
+        }
+    }
+
+    @Recover
+    public void recoverDeleteDocument(Exception e, String id) {
+        logger.error("Failed to delete document ID {} from Elasticsearch after retries: {}", id, e.getMessage(), e);
+    }
     
     @Retryable(value = {Exception.class}, 
               maxAttempts = 3, 
               backoff = @Backoff(delay = 1000, multiplier = 2))
-    public Page<ElasticDocument> search(String query, Pageable pageable, boolean fuzzy) {
+    public Page<SearchResult> search(String query, Pageable pageable, boolean fuzzy, boolean full) {
+        long start = System.nanoTime();
+        String normalized = normalize(query);
+        SearchKey key = new SearchKey(searchIndexVersion.current(), normalized, fuzzy, full,
+                pageable.getPageNumber(), pageable.getPageSize());
+        Page<SearchResult> cached = searchCache.getIfPresent(key);
+        if (cached != null) {
+            cachedSearches.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return cached;
+        }
         try {
-            if (fuzzy) {
-                return elasticDocumentRepository.searchByOcrTextOrTitleFuzzy(query, pageable);
-            } else {
-                return elasticDocumentRepository.findByOcrTextContaining(query, pageable);
+            Query searchQuery = fuzzy ? fuzzyQuery(normalized) : matchQuery(normalized);
+            searchQuery.setPageable(pageable);
+            searchQuery.setHighlightQuery(HIGHLIGHT);
+            if (!full) {
+                // Highlighting still reads the stored text; it just isn't sent back with every hit
+                searchQuery.addSourceFilter(new FetchSourceFilter(null, new String[] {"ocrText"}));
             }
+            SearchHits<ElasticDocument> hits = elasticsearchOperations.search(searchQuery, ElasticDocument.class);
+            List<SearchResult> results = hits.getSearchHits().stream()
+                    .map(hit -> SearchResult.of(hit.getContent(), hit.getScore(), highlights(hit), full))
+                    .toList();
+            Page<SearchResult> page = new PageImpl<>(results, pageable, hits.getTotalHits());
+            // Keyed by the version read before the query, so a write that raced with it is never masked
+            searchCache.put(key, page);
+            uncachedSearches.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return page;
         } catch (Exception e) {
             logger.error("Error searching in Elasticsearch: {}", e.getMessage());
             throw e; // Rethrow for retry
@@ -57,9 +163,110 @@ public class ElasticSearchService {
     }
     
     @Recover
-    public Page<ElasticDocument> recoverSearch(Exception e, String query, Pageable pageable, boolean fuzzy) {
+    public Page<SearchResult> recoverSearch(Exception e, String query, Pageable pageable, boolean fuzzy, boolean full) {
         logger.error("Failed to search Elasticsearch after retries: {}", e.getMessage(), e);
         // Return empty result
         return Page.empty(pageable);
     }
-}
\ No newline at end of file
+
+    // As-you-type title suggestions from the title.autocomplete edge n-grams. Not retried or cached:
+    // the next keystroke asks again anyway
+    public List<SearchResult> suggestTitles(String prefix, int size) {
+        String normalized = normalize(prefix);
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+        Query query = NativeQuery.builder()
+                .withQuery(q -> q.match(m -> m.field("title.autocomplete").query(normalized).operator(Operator.And)))
+                .withPageable(PageRequest.of(0, Math.min(Math.max(size, 1), MAX_SUGGESTIONS)))
+                .withSourceFilter(new FetchSourceFilter(new String[] {"id", "title"}, null))
+                .build();
+        try {
+            return elasticsearchOperations.search(query, ElasticDocument.class).getSearchHits().stream()
+                    .map(hit -> new SearchResult(hit.getContent().getId(), hit.getContent().getTitle(),
+                            null, null, null, hit.getScore(), null, null))
+                    .toList();
+        } catch (Exception e) {
+            logger.warn("Title suggestions unavailable: {}", e.getMessage());
+            return List.of();
+        }
+    }
+
+    // Every term must occur in the text. Replaces the *query* wildcard of findByOcrTextContaining, which
+    // scans the whole term dictionary and rejects queries containing whitespace
+    private static Query matchQuery(String text) {
+        return NativeQuery.builder()
+                .withQuery(q -> q.match(m -> m.field("ocrText").query(text).operator(Operator.And)))
+                .build();
+    }
+
+    // Same bool/should as ElasticDocumentRepository.searchByOcrTextOrTitleFuzzy, built without string templating
+    private static Query fuzzyQuery(String text) {
+        return NativeQuery.builder()
+                .withQuery(q -> q.bool(b -> b
+                        .should(s -> s.match(m -> m.field("ocrText").query(text).fuzziness("AUTO")))
+                        .should(s -> s.match(m -> m.field("title").query(text).fuzziness("AUTO")))))
+                .build();
+    }
+
+    private static List<String> highlights(SearchHit<ElasticDocument> hit) {
+        List<String> fragments = new ArrayList<>(hit.getHighlightField("title"));
+        fragments.addAll(hit.getHighlightField("ocrText"));
+        return fragments;
+    }
+
+    // Whitespace is insignificant to both query types; case is left alone, query_string operators depend on it
+    static String normalize(String query) {
+        return query.trim().replaceAll("\\s+", " ");
+    }
+
+    private static int weigh(Page<SearchResult> page) {
+        long chars = 1;
+        for (SearchResult result : page.getContent()) {
+            chars += length(result.getTitle()) + length(result.getOcrText());
+            for (String fragment : result.getHighlights()) {
+                chars += fragment.length();
+            }
+        }
+        return (int) Math.min(Integer.MAX_VALUE, chars);
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+
+    private static final class SearchKey {
+        private final long indexVersion;
+        private final String query;
+        private final boolean fuzzy;
+        private final boolean full;
+        private final int page;
+        private final int size;
+
+        SearchKey(long indexVersion, String query, boolean fuzzy, boolean full, int page, int size) {
+            this.indexVersion = indexVersion;
+            this.query = query;
+            this.fuzzy = fuzzy;
+            this.full = full;
+            this.page = page;
+            this.size = size;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof SearchKey other)) {
+                return false;
+            }
+            return indexVersion == other.indexVersion && fuzzy == other.fuzzy && full == other.full && page == other.page
+                    && size == other.size && query.equals(other.query);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(indexVersion, query, fuzzy, full, page, size);
+        }
+    }
+}
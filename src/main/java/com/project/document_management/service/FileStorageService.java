@@ -1,21 +1,50 @@
 package com.project.document_management.service;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
 import org.springframework.web.multipart.MultipartFile;
 
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 import java.util.UUID;
 import java.util.logging.Logger;
 
 @Service
 public class FileStorageService {
 
+    private static final int BUFFER_SIZE = 256 * 1024;
+
     private final Path rootLocation = Paths.get("uploads").toAbsolutePath().normalize();
+    // Multipart staging area on the same filesystem, so moving a part into place is a rename
+    private final Path incomingLocation = rootLocation.resolve(".incoming");
+    // Content-addressed store, one file per distinct SHA-256
+    private final Path blobLocation = rootLocation.resolve("blobs");
     private static final Logger logger = Logger.getLogger(FileStorageService.class.getName());
 
+    @Value("${file.upload.max-size:10MB}")
+    private DataSize maxUploadSize = DataSize.ofMegabytes(10);
+
+    @Autowired(required = false)
+    private ObservationRegistry observationRegistry = ObservationRegistry.NOOP;
+
     public FileStorageService() {
         try {
             if (!Files.exists(rootLocation)) {
@@ -24,6 +53,8 @@ public class FileStorageService {
             } else {
                 logger.info("Uploads directory already exists.");
             }
+            Files.createDirectories(incomingLocation);
+            Files.createDirectories(blobLocation);
         } catch (IOException e) {
             logger.severe("Could not initialize storage directory: " + e.getMessage());
             throw new RuntimeException("Could not initialize storage directory", e);
@@ -34,22 +65,171 @@ public class FileStorageService {
         return filename.replaceAll("[^a-zA-Z0-9.-]", "_");
     }
 
+    public Path getIncomingLocation() {
+        return incomingLocation;
+    }
+
+    // Per-upload file named after the original; uploads go through store() + promote() instead
     public String storeFile(MultipartFile file) throws IOException {
-        String sanitizedName = sanitizeFilename(file.getOriginalFilename());
-        String filename = UUID.randomUUID() + "_" + sanitizedName;
-        Path targetLocation = this.rootLocation.resolve(filename);
+        Path targetLocation = newTarget(file.getOriginalFilename());
 
-        logger.info("Storing file: " + filename);
+        logger.info("Storing file: " + targetLocation.getFileName());
 
         try {
-            Files.copy(file.getInputStream(), targetLocation);
+            file.transferTo(targetLocation);
             logger.info("File stored successfully at: " + targetLocation.toString());
+            return targetLocation.toString();
+        } catch (IOException e) {
+            logger.severe("Failed to store file: " + e.getMessage());
+            throw new IOException("Could not store file " + targetLocation.getFileName(), e);
+        }
+    }
+
+    // Stages a multipart upload and hashes it; promote() moves it into the blob store
+    public StoredFile store(MultipartFile file) throws IOException {
+        return observeStore(() -> {
+            Path stagingLocation = stageFile(file);
+            try {
+                return describeFile(stagingLocation);
+            } catch (IOException e) {
+                Files.deleteIfExists(stagingLocation);
+                logger.severe("Failed to store file: " + e.getMessage());
+                throw new IOException("Could not store file " + file.getOriginalFilename(), e);
+            }
+        });
+    }
+
+    // Takes the part over from the servlet container, which deletes its copy when the request ends
+    public Path stage(MultipartFile file) throws IOException {
+        return observeStore(() -> stageFile(file));
+    }
+
+    private Path stageFile(MultipartFile file) throws IOException {
+        Path stagingLocation = newStagingFile();
+        try {
+            // The container already spooled the part to .incoming; this is a rename, not a copy
+            file.transferTo(stagingLocation);
+            return stagingLocation;
         } catch (IOException e) {
+            Files.deleteIfExists(stagingLocation);
+            logger.severe("Failed to store file: " + e.getMessage());
+            throw new IOException("Could not store file " + file.getOriginalFilename(), e);
+        }
+    }
+
+    // Size and SHA-256 of a staged file
+    public StoredFile describe(Path staged) throws IOException {
+        return observeStore(() -> describeFile(staged));
+    }
+
+    private StoredFile describeFile(Path staged) throws IOException {
+        return new StoredFile(staged.toString(), Files.size(staged), hash(staged));
+    }
+
+    // Single pass over the request body: written to its final location while size and SHA-256 are computed
+    public StoredFile store(InputStream content, String originalFilename) throws IOException {
+        return observeStore(() -> streamToStaging(content, originalFilename));
+    }
+
+    private StoredFile streamToStaging(InputStream content, String originalFilename) throws IOException {
+        Path targetLocation = newStagingFile();
+        long maxBytes = maxUploadSize.toBytes();
+
+        logger.info("Streaming file: " + originalFilename);
+
+        MessageDigest digest = sha256();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        long size = 0;
+        try (ReadableByteChannel in = Channels.newChannel(content);
+             FileChannel out = FileChannel.open(targetLocation, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            while (in.read(buffer) != -1) {
+                buffer.flip();
+                size += buffer.remaining();
+                if (size > maxBytes) {
+                    throw new MaxUploadSizeExceededException(maxBytes);
+                }
+                digest.update(buffer.duplicate());
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+                buffer.clear();
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(targetLocation);
             logger.severe("Failed to store file: " + e.getMessage());
-            throw new IOException("Could not store file " + filename, e);
+            if (e instanceof IOException) {
+                throw new IOException("Could not store file " + originalFilename, e);
+            }
+            throw e;
+        }
+
+        return new StoredFile(targetLocation.toString(), size, HexFormat.of().formatHex(digest.digest()));
+    }
+
+    // Moves a staged upload to blobs/ab/cd/<sha256>; if those bytes are already stored the staged copy is dropped.
+    // Callers must hold the blob's reference count row (ContentStoreService) so a concurrent delete cannot interleave.
+    public String promote(StoredFile staged) throws IOException {
+        Path stagingLocation = Paths.get(staged.getPath());
+        Path blob = blobPath(staged.getSha256());
+        if (Files.exists(blob)) {
+            Files.deleteIfExists(stagingLocation);
+            logger.info("Content " + staged.getSha256() + " already stored, reusing blob");
+            return blob.toString();
+        }
+        Files.createDirectories(blob.getParent());
+        Files.move(stagingLocation, blob, StandardCopyOption.ATOMIC_MOVE);
+        logger.info("File stored successfully at: " + blob);
+        return blob.toString();
+    }
+
+    public void discard(StoredFile staged) throws IOException {
+        Files.deleteIfExists(Paths.get(staged.getPath()));
+    }
+
+    public void deleteBlob(String sha256) throws IOException {
+        Files.deleteIfExists(blobPath(sha256));
+    }
+
+    public boolean isBlob(String storagePath) {
+        return storagePath != null && Paths.get(storagePath).toAbsolutePath().normalize().startsWith(blobLocation);
+    }
+
+    Path blobPath(String sha256) {
+        // Two levels of 256 directories keep any one directory small
+        return blobLocation.resolve(sha256.substring(0, 2)).resolve(sha256.substring(2, 4)).resolve(sha256);
+    }
+
+    private <T> T observeStore(Observation.CheckedCallable<T, IOException> work) throws IOException {
+        return PipelineObservations.stage(PipelineObservations.STORE, observationRegistry).observeChecked(work);
+    }
+
+    private Path newStagingFile() {
+        return incomingLocation.resolve(UUID.randomUUID() + ".part");
+    }
+
+    private Path newTarget(String originalFilename) {
+        String sanitizedName = sanitizeFilename(originalFilename == null ? "upload" : originalFilename);
+        return this.rootLocation.resolve(UUID.randomUUID() + "_" + sanitizedName);
+    }
+
+    private static String hash(Path file) throws IOException {
+        MessageDigest digest = sha256();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (in.read(buffer) != -1) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
         }
+        return HexFormat.of().formatHex(digest.digest());
+    }
 
-        // Return the absolute path of the stored file
-        return targetLocation.toString();
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,102 @@
+package com.project.document_management.service;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Runs Elasticsearch indexing on the bounded indexing executor, away from the threads that saved the document.
+ * An update for a document that is still waiting replaces the waiting one, and updates for one document never
+ * run concurrently, so they reach the index in order. When the executor's queue is full the update is dropped
+ * and counted; the document's next change, or a reindex, brings the index back in line.
+ */
+@Component
+public class IndexingQueue {
+
+    private static final Logger logger = LoggerFactory.getLogger(IndexingQueue.class);
+
+    private final TaskExecutor executor;
+    // Newest waiting task per document
+    private final ConcurrentHashMap<Long, Runnable> pending = new ConcurrentHashMap<>();
+    // Documents with a drain queued or running
+    private final Set<Long> scheduled = ConcurrentHashMap.newKeySet();
+    private final Counter coalesced;
+    private final Counter dropped;
+
+    @Autowired
+    public IndexingQueue(@Qualifier("indexingExecutor") TaskExecutor executor, MeterRegistry meterRegistry) {
+        this.executor = executor;
+        this.coalesced = Counter.builder("indexing.queue.coalesced")
+                .description("Document updates replaced by a newer one before they were indexed")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("indexing.queue.dropped")
+                .description("Document updates not indexed because the indexing queue was full")
+                .register(meterRegistry);
+        Gauge.builder("indexing.queue.pending", pending, ConcurrentHashMap::size)
+                .description("Documents waiting to be indexed")
+                .register(meterRegistry);
+        if (executor instanceof ThreadPoolTaskExecutor pool) {
+            Gauge.builder("indexing.queue.depth", pool, ThreadPoolTaskExecutor::getQueueSize)
+                    .description("Tasks waiting in the indexing executor")
+                    .register(meterRegistry);
+        }
+    }
+
+    public void submit(Long documentId, Runnable task) {
+        if (pending.put(documentId, task) != null) {
+            coalesced.increment();
+        }
+        schedule(documentId);
+    }
+
+    private void schedule(Long documentId) {
+        if (!scheduled.add(documentId)) {
+            // The queued or running drain for this document picks the task up
+            return;
+        }
+        try {
+            executor.execute(() -> drain(documentId));
+        } catch (TaskRejectedException e) {
+            scheduled.remove(documentId);
+            if (pending.remove(documentId) != null) {
+                dropped.increment();
+                logger.warn("Indexing queue full, dropped update of document ID {}", documentId);
+            }
+        }
+    }
+
+    private void drain(Long documentId) {
+        try {
+            Runnable task;
+            while ((task = pending.remove(documentId)) != null) {
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    logger.error("Indexing document ID {} failed: {}", documentId, e.getMessage(), e);
+                }
+            }
+        } finally {
+            scheduled.remove(documentId);
+            // An update that came in after the last remove but before the line above found this drain still scheduled
+            if (pending.containsKey(documentId)) {
+                schedule(documentId);
+            }
+        }
+    }
+
+    public int getPending() {
+        return pending.size();
+    }
+}
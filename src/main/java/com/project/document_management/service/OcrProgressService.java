@@ -0,0 +1,44 @@
+package com.project.document_management.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.project.document_management.model.DocumentPage;
+import com.project.document_management.repository.DocumentPageRepository;
+import com.project.document_management.repository.DocumentRepository;
+
+// Persists OCR output page by page so it is readable before the whole document is done
+@Service
+public class OcrProgressService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OcrProgressService.class);
+
+    private final DocumentRepository documentRepository;
+    private final DocumentPageRepository documentPageRepository;
+
+    public OcrProgressService(DocumentRepository documentRepository, DocumentPageRepository documentPageRepository) {
+        this.documentRepository = documentRepository;
+        this.documentPageRepository = documentPageRepository;
+    }
+
+    @Transactional
+    public void start(Long documentId, int pageCount) {
+        // A re-run replaces whatever an earlier attempt left behind
+        documentPageRepository.deleteByDocumentId(documentId);
+        documentRepository.startOcrProgress(documentId, pageCount);
+        logger.info("Started OCR of document ID {} ({} pages)", documentId, pageCount);
+    }
+
+    @Transactional
+    public void recordPage(Long documentId, int pageNumber, String text) {
+        DocumentPage page = new DocumentPage();
+        page.setDocument(documentRepository.getReferenceById(documentId));
+        page.setPageNumber(pageNumber);
+        page.setText(text);
+        documentPageRepository.save(page);
+        documentRepository.incrementOcrPagesDone(documentId);
+        logger.debug("Stored page {} of document ID {}", pageNumber, documentId);
+    }
+}
@@ -0,0 +1,68 @@
+package com.project.document_management.service;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.project.document_management.config.RabbitMQConfig;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Backlog of the OCR queues as gauges ({@code ocr.queue.depth} and {@code ocr.queue.consumers}, tagged by queue).
+ * Read from the broker on a schedule, like the outbox backlog, so a metrics scrape never waits on RabbitMQ.
+ */
+@Component
+public class OcrQueueMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(OcrQueueMonitor.class);
+
+    private final AmqpAdmin amqpAdmin;
+    private final Map<String, QueueGauges> queues;
+
+    public OcrQueueMonitor(AmqpAdmin amqpAdmin, MeterRegistry meterRegistry) {
+        this.amqpAdmin = amqpAdmin;
+        this.queues = Map.of(
+                RabbitMQConfig.DOCUMENT_QUEUE, new QueueGauges(meterRegistry, "interactive"),
+                RabbitMQConfig.BULK_DOCUMENT_QUEUE, new QueueGauges(meterRegistry, "bulk"));
+    }
+
+    @Scheduled(fixedDelayString = "${ocr.queue.metrics.interval-ms:10000}")
+    public void refresh() {
+        queues.forEach((name, gauges) -> {
+            try {
+                QueueInformation info = amqpAdmin.getQueueInfo(name);
+                if (info != null) {
+                    gauges.depth.set(info.getMessageCount());
+                    gauges.consumers.set(info.getConsumerCount());
+                }
+            } catch (Exception e) {
+                logger.warn("Could not read depth of queue {}: {}", name, e.getMessage());
+            }
+        });
+    }
+
+    private static final class QueueGauges {
+
+        private final AtomicLong depth = new AtomicLong();
+        private final AtomicLong consumers = new AtomicLong();
+
+        QueueGauges(MeterRegistry meterRegistry, String queue) {
+            Gauge.builder("ocr.queue.depth", depth, AtomicLong::get)
+                    .description("OCR requests waiting in RabbitMQ")
+                    .tag("queue", queue)
+                    .register(meterRegistry);
+            Gauge.builder("ocr.queue.consumers", consumers, AtomicLong::get)
+                    .description("Consumers attached to the OCR queue, across all nodes")
+                    .tag("queue", queue)
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.project.document_management.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import com.project.document_management.config.RabbitMQConfig;
+import com.project.document_management.model.Document;
+import com.project.document_management.model.OutboxMessage;
+
+/**
+ * Picks the OCR queue for a new document from its expected cost. Single uploads below
+ * {@code ocr.routing.bulk-min-size} go to the interactive queue; batch uploads and large files to the bulk queue.
+ * In the bulk queue a document's priority falls with its position in its batch (one step each time the position
+ * doubles: 1st, 2nd-3rd, 4th-7th, ...), so the head of a small batch overtakes the tail of a large import instead of
+ * waiting behind all of it.
+ * <p>
+ * Fairness is per batch, not per submitter: uploads carry no user or tenant identity, so a batch stands in for
+ * whoever sent it. Two imports running side by side interleave by position, while one client sending many
+ * small batches gets each of them treated as a fresh head. Per-submitter round-robin needs that identity on the
+ * document first.
+ */
+@Component
+public class OcrQueueRouter {
+
+    private final long bulkMinSize;
+
+    public OcrQueueRouter(@Value("${ocr.routing.bulk-min-size:5MB}") DataSize bulkMinSize) {
+        this.bulkMinSize = bulkMinSize.toBytes();
+    }
+
+    public OutboxMessage route(Document document) {
+        if (document.getFileSize() != null && document.getFileSize() >= bulkMinSize) {
+            return bulk(document, 0);
+        }
+        return new OutboxMessage(RabbitMQConfig.DOCUMENT_QUEUE, document.getId().toString());
+    }
+
+    // positionInBatch counts from 0
+    public OutboxMessage routeBatch(Document document, int positionInBatch) {
+        return bulk(document, positionInBatch);
+    }
+
+    private static OutboxMessage bulk(Document document, int position) {
+        return new OutboxMessage(RabbitMQConfig.BULK_DOCUMENT_QUEUE, document.getId().toString(), priority(position));
+    }
+
+    static int priority(int position) {
+        // floor(log2(position + 1))
+        int step = 31 - Integer.numberOfLeadingZeros(position + 1);
+        return Math.max(0, RabbitMQConfig.BULK_MAX_PRIORITY - step);
+    }
+}
@@ -0,0 +1,139 @@
+package com.project.document_management.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.project.document_management.model.OutboxMessage;
+import com.project.document_management.repository.OutboxMessageRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Drains the outbox to RabbitMQ in batches. A batch is deleted only after the broker has
+ * confirmed every message in it, so delivery is at-least-once; OCR of a document is idempotent.
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+    static final String TRACEPARENT_HEADER = "traceparent";
+
+    private final OutboxMessageRepository outboxRepository;
+    private final RabbitTemplate rabbitTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long confirmTimeoutMs;
+
+    private final Timer deliveryDelay;
+    private final Counter published;
+    private final Counter failures;
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong oldestAgeMs = new AtomicLong();
+
+    public OutboxRelay(OutboxMessageRepository outboxRepository,
+                       RabbitTemplate rabbitTemplate,
+                       TransactionTemplate transactionTemplate,
+                       MeterRegistry meterRegistry,
+                       @Value("${outbox.relay.batch-size:100}") int batchSize,
+                       @Value("${outbox.relay.confirm-timeout-ms:5000}") long confirmTimeoutMs) {
+        this.outboxRepository = outboxRepository;
+        this.rabbitTemplate = rabbitTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.confirmTimeoutMs = confirmTimeoutMs;
+
+        this.deliveryDelay = Timer.builder("outbox.relay.delivery.delay")
+                .description("Time from outbox write to broker confirm")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.published = Counter.builder("outbox.relay.published").register(meterRegistry);
+        this.failures = Counter.builder("outbox.relay.failures").register(meterRegistry);
+        Gauge.builder("outbox.pending", pending, AtomicLong::get)
+                .description("Messages waiting in the outbox after the last relay run")
+                .register(meterRegistry);
+        TimeGauge.builder("outbox.lag", oldestAgeMs, TimeUnit.MILLISECONDS, AtomicLong::get)
+                .description("Age of the oldest message still in the outbox")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.interval-ms:200}")
+    public void relay() {
+        try {
+            Integer relayed;
+            do {
+                relayed = transactionTemplate.execute(status -> relayBatch());
+            } while (relayed != null && relayed == batchSize);
+        } catch (Exception e) {
+            failures.increment();
+            logger.error("Outbox relay failed, will retry: {}", e.getMessage());
+        }
+        updateBacklog();
+    }
+
+    private int relayBatch() {
+        List<OutboxMessage> batch = outboxRepository.findAllByOrderByIdAsc(PageRequest.of(0, batchSize));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        rabbitTemplate.invoke(operations -> {
+            for (OutboxMessage message : batch) {
+                operations.convertAndSend(message.getQueue(), (Object) message.getPayload(), amqpMessage -> {
+                    MessageProperties properties = amqpMessage.getMessageProperties();
+                    // Publish time, for the consumer's queue-wait timer
+                    properties.setTimestamp(new Date());
+                    if (message.getPriority() != null) {
+                        properties.setPriority(message.getPriority());
+                    }
+                    // The uploading request's trace context; the listener containers continue the trace from it.
+                    // Template observation stays off, it would replace the header with this scheduler's context
+                    if (message.getTraceParent() != null) {
+                        properties.setHeader(TRACEPARENT_HEADER, message.getTraceParent());
+                    }
+                    return amqpMessage;
+                });
+            }
+            operations.waitForConfirmsOrDie(confirmTimeoutMs);
+            return null;
+        });
+        outboxRepository.deleteAllInBatch(batch);
+
+        LocalDateTime now = LocalDateTime.now();
+        for (OutboxMessage message : batch) {
+            deliveryDelay.record(Duration.between(message.getCreatedAt(), now));
+        }
+        published.increment(batch.size());
+        logger.debug("Relayed {} outbox messages", batch.size());
+        return batch.size();
+    }
+
+    private void updateBacklog() {
+        try {
+            pending.set(outboxRepository.count());
+            oldestAgeMs.set(outboxRepository.findFirstByOrderByIdAsc()
+                    .map(message -> Duration.between(message.getCreatedAt(), LocalDateTime.now()).toMillis())
+                    .orElse(0L));
+        } catch (Exception e) {
+            logger.warn("Could not read outbox backlog: {}", e.getMessage());
+        }
+    }
+}
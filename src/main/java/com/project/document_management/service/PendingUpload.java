@@ -0,0 +1,33 @@
+package com.project.document_management.service;
+
+// A stored upload together with what its document is created from
+public class PendingUpload {
+
+    private final StoredFile stored;
+    private final String title;
+    private final String originalFilename;
+    private final String contentType;
+
+    public PendingUpload(StoredFile stored, String title, String originalFilename, String contentType) {
+        this.stored = stored;
+        this.title = title;
+        this.originalFilename = originalFilename;
+        this.contentType = contentType;
+    }
+
+    public StoredFile getStored() {
+        return stored;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getOriginalFilename() {
+        return originalFilename;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+}
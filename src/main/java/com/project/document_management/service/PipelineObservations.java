@@ -0,0 +1,34 @@
+package com.project.document_management.service;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+
+/**
+ * Stages a document goes through between upload and the search index. Every stage is the same observation,
+ * {@code document.pipeline}, tagged with the stage: one timer (and histogram) per stage in Prometheus, and one span
+ * per stage, named after it, in the document's trace.
+ */
+public final class PipelineObservations {
+
+    public static final String NAME = "document.pipeline";
+
+    // Upload written to disk and hashed
+    public static final String STORE = "store";
+    // Document row and its OCR request written, inside the upload transaction
+    public static final String DB_SAVE = "db.save";
+    // One page through Tesseract
+    public static final String OCR_PAGE = "ocr.page";
+    // OCR text written back to the document row
+    public static final String DB_UPDATE = "db.update";
+    // Document written to Elasticsearch, or handed to the bulk indexer (which blocks while its requests are in flight)
+    public static final String ES_INDEX = "es.index";
+
+    private PipelineObservations() {
+    }
+
+    public static Observation stage(String stage, ObservationRegistry registry) {
+        return Observation.createNotStarted(NAME, registry)
+                .contextualName(stage)
+                .lowCardinalityKeyValue("stage", stage);
+    }
+}
@@ -0,0 +1,494 @@
+package com.project.document_management.service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.convert.ElasticsearchConverter;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import co.elastic.clients.elasticsearch.core.BulkRequest;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.DeleteRequest;
+import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
+import co.elastic.clients.elasticsearch.indices.DeleteIndexRequest;
+import co.elastic.clients.elasticsearch.indices.ExistsRequest;
+import co.elastic.clients.elasticsearch.indices.GetAliasRequest;
+import co.elastic.clients.elasticsearch.indices.PutIndicesSettingsRequest;
+import co.elastic.clients.elasticsearch.indices.RefreshRequest;
+import co.elastic.clients.elasticsearch.indices.UpdateAliasesRequest;
+
+import com.project.document_management.elastic.ElasticDocument;
+import com.project.document_management.model.Document;
+import com.project.document_management.model.ReindexJob;
+import com.project.document_management.model.ReindexSlice;
+import com.project.document_management.repository.DocumentRepository;
+import com.project.document_management.repository.ReindexJobRepository;
+import com.project.document_management.repository.ReindexSliceRepository;
+
+/**
+ * Rebuilds the Elasticsearch index from the database while searches keep being served from the old one.
+ * A versioned index is backfilled in parallel id-range slices, documents changed in the meantime are
+ * indexed again, and the {@code documents} alias is moved to the new index in a single atomic update.
+ * Each slice checkpoints the last id it wrote, so a job interrupted by a restart resumes where it stopped.
+ * Only one job runs at a time. The node driving it holds a lease on the job row ({@code owner}, renewed every
+ * {@code reindex.heartbeat-interval-ms}); another node only takes a running job over once that lease has expired.
+ */
+@Service
+public class ReindexService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReindexService.class);
+    private static final DateTimeFormatter VERSION_FORMAT = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+    // lastModifiedAt comes from whichever app node saved the document; allow for clocks being slightly apart
+    private static final Duration CLOCK_MARGIN = Duration.ofMinutes(1);
+    private static final long PROGRESS_INTERVAL_SECONDS = 10;
+
+    private final ReindexJobRepository jobRepository;
+    private final ReindexSliceRepository sliceRepository;
+    private final DocumentRepository documentRepository;
+    private final ElasticsearchClient elasticsearchClient;
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final ElasticsearchConverter converter;
+    private final SearchIndexVersion searchIndexVersion;
+    private final TransactionTemplate readTransaction;
+    private final AsyncTaskExecutor sliceExecutor;
+    private final String alias;
+    private final int slices;
+    private final int batchSize;
+    private final String replicas;
+    // Jobs being driven by this instance
+    private final Set<Long> activeJobs = ConcurrentHashMap.newKeySet();
+    // Jobs whose lease another node took over; their coordinator stops at its next check
+    private final Set<Long> lostLeases = ConcurrentHashMap.newKeySet();
+    private final String instanceId = UUID.randomUUID().toString();
+
+    @Value("${reindex.resume-on-startup:true}")
+    private boolean resumeOnStartup = true;
+
+    // A job whose owner has not renewed its lease for this long is taken over by another node
+    @Value("${reindex.lease-ms:60000}")
+    private long leaseMillis = 60_000;
+
+    // Each job is coordinated on its own thread; replaced in tests
+    private Executor jobLauncher = job -> {
+        Thread thread = new Thread(job, "reindex-coordinator");
+        thread.setDaemon(true);
+        thread.start();
+    };
+
+    @Autowired
+    public ReindexService(ReindexJobRepository jobRepository, ReindexSliceRepository sliceRepository,
+                          DocumentRepository documentRepository, ElasticsearchClient elasticsearchClient,
+                          ElasticsearchOperations elasticsearchOperations, SearchIndexVersion searchIndexVersion,
+                          PlatformTransactionManager transactionManager,
+                          @Qualifier("reindexExecutor") AsyncTaskExecutor sliceExecutor,
+                          @Value("${reindex.slices:4}") int slices,
+                          @Value("${reindex.batch-size:200}") int batchSize,
+                          @Value("${reindex.replicas:1}") int replicas) {
+        this.jobRepository = jobRepository;
+        this.sliceRepository = sliceRepository;
+        this.documentRepository = documentRepository;
+        this.elasticsearchClient = elasticsearchClient;
+        this.elasticsearchOperations = elasticsearchOperations;
+        this.converter = elasticsearchOperations.getElasticsearchConverter();
+        this.searchIndexVersion = searchIndexVersion;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.sliceExecutor = sliceExecutor;
+        this.alias = elasticsearchOperations.getIndexCoordinatesFor(ElasticDocument.class).getIndexName();
+        this.slices = Math.max(1, slices);
+        this.batchSize = Math.max(1, batchSize);
+        this.replicas = String.valueOf(replicas);
+    }
+
+    public synchronized ReindexJob start() throws IOException {
+        if (jobRepository.findFirstByStatusOrderByIdDesc(ReindexJob.Status.RUNNING).isPresent()) {
+            throw new IllegalStateException("A reindex job is already running");
+        }
+        String target = alias + "_v" + LocalDateTime.now().format(VERSION_FORMAT);
+        createTargetIndex(target);
+        // Anything saved from here on may be missed by the backfill and is picked up by the catch-up
+        ReindexJob job = new ReindexJob(target, LocalDateTime.now().minus(CLOCK_MARGIN));
+        job.setOwner(instanceId);
+        job.setHeartbeatAt(LocalDateTime.now());
+        job = jobRepository.save(job);
+        if (jobRepository.countByStatus(ReindexJob.Status.RUNNING) > 1) {
+            // Another node started one at the same moment; leave it to a retry rather than run two
+            job.setStatus(ReindexJob.Status.FAILED);
+            job.setError("Another reindex job was started at the same time");
+            jobRepository.save(job);
+            jobRepository.releaseLease(job.getId(), instanceId);
+            throw new IllegalStateException("A reindex job is already running");
+        }
+        createSlices(job);
+        launch(job);
+        return job;
+    }
+
+    // Continues a failed job, or a running one whose coordinator died with its node
+    public synchronized ReindexJob resume(Long jobId) {
+        ReindexJob job = jobRepository.findById(jobId)
+                .orElseThrow(() -> new IllegalArgumentException("Reindex job not found: " + jobId));
+        if (job.getStatus() == ReindexJob.Status.COMPLETED || activeJobs.contains(jobId)) {
+            throw new IllegalStateException("Reindex job " + jobId + " is " + job.getStatus().name().toLowerCase());
+        }
+        job.setStatus(ReindexJob.Status.RUNNING);
+        job.setError(null);
+        job = jobRepository.save(job);
+        if (!claim(job)) {
+            throw new IllegalStateException("Reindex job " + jobId + " is being run by another node");
+        }
+        launch(job);
+        return job;
+    }
+
+    public Optional<ReindexJob> getJob(Long jobId) {
+        return jobRepository.findById(jobId);
+    }
+
+    public Optional<ReindexJob> getLatestJob() {
+        return jobRepository.findFirstByOrderByIdDesc();
+    }
+
+    // Only jobs this node can claim: unowned, or left behind by a node that stopped renewing its lease
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedJobs() {
+        if (!resumeOnStartup) {
+            return;
+        }
+        try {
+            for (ReindexJob job : jobRepository.findByStatus(ReindexJob.Status.RUNNING)) {
+                if (activeJobs.contains(job.getId()) || !claim(job)) {
+                    continue;
+                }
+                logger.info("Resuming interrupted reindex job {} into {}", job.getId(), job.getTargetIndex());
+                launch(job);
+            }
+        } catch (Exception e) {
+            logger.warn("Could not look for interrupted reindex jobs: {}", e.getMessage());
+        }
+    }
+
+    // Renews the leases of the jobs this node drives, then takes over any whose owner has gone away
+    @Scheduled(fixedDelayString = "${reindex.heartbeat-interval-ms:10000}")
+    public void heartbeat() {
+        try {
+            for (Long jobId : activeJobs) {
+                if (jobRepository.renewLease(jobId, instanceId, LocalDateTime.now()) == 0) {
+                    lostLeases.add(jobId);
+                }
+            }
+        } catch (Exception e) {
+            logger.warn("Could not renew reindex job leases: {}", e.getMessage());
+        }
+        resumeInterruptedJobs();
+    }
+
+    // Called for every document delete: a copy may already be in the index being built, where the
+    // delete through the alias would not reach it
+    public void documentDeleted(String id) {
+        try {
+            jobRepository.findFirstByStatusOrderByIdDesc(ReindexJob.Status.RUNNING).ifPresent(job -> {
+                try {
+                    elasticsearchClient.delete(DeleteRequest.of(d -> d.index(job.getTargetIndex()).id(id)));
+                } catch (IOException | ElasticsearchException e) {
+                    logger.warn("Could not delete document ID {} from reindex target {}: {}",
+                            id, job.getTargetIndex(), e.getMessage());
+                }
+            });
+        } catch (Exception e) {
+            logger.warn("Could not check for a running reindex job: {}", e.getMessage());
+        }
+    }
+
+    private boolean claim(ReindexJob job) {
+        LocalDateTime now = LocalDateTime.now();
+        return jobRepository.claim(job.getId(), instanceId, now, now.minusNanos(leaseMillis * 1_000_000)) == 1;
+    }
+
+    // Called between batches and before the alias swap, so a node that lost its lease does no further writes
+    private void checkLease(ReindexJob job) {
+        if (lostLeases.contains(job.getId())) {
+            throw new LeaseLostException(job.getId());
+        }
+    }
+
+    private void launch(ReindexJob job) {
+        activeJobs.add(job.getId());
+        jobLauncher.execute(() -> {
+            try {
+                run(job);
+            } finally {
+                activeJobs.remove(job.getId());
+                if (!lostLeases.remove(job.getId())) {
+                    jobRepository.releaseLease(job.getId(), instanceId);
+                }
+            }
+        });
+    }
+
+    private void run(ReindexJob job) {
+        long start = System.nanoTime();
+        long docsAtStart = job.getDocsIndexed();
+        try {
+            if (!job.isBackfillDone()) {
+                backfill(job);
+                job.setBackfillDone(true);
+                jobRepository.save(job);
+            }
+            restoreIndexSettings(job.getTargetIndex());
+            // Shrinks what the new index is missing at the moment it goes live
+            catchUp(job);
+            checkLease(job);
+            swapAlias(job.getTargetIndex());
+            // Changes saved between the last pass and the swap went to the old index
+            catchUp(job);
+
+            job.setStatus(ReindexJob.Status.COMPLETED);
+            job.setFinishedAt(LocalDateTime.now());
+            jobRepository.save(job);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            logger.info("Reindex job {} completed: {} is now {}, {} documents in {} s ({} docs/sec)",
+                    job.getId(), alias, job.getTargetIndex(), job.getDocsIndexed() - docsAtStart,
+                    String.format("%.1f", seconds), String.format("%.0f", (job.getDocsIndexed() - docsAtStart) / seconds));
+        } catch (LeaseLostException e) {
+            logger.warn(e.getMessage());
+        } catch (Exception e) {
+            logger.error("Reindex job {} failed, resume it with POST /api/admin/reindex/{}/resume: {}",
+                    job.getId(), job.getId(), e.getMessage(), e);
+            job.setStatus(ReindexJob.Status.FAILED);
+            job.setError(abbreviate(String.valueOf(e.getMessage())));
+            jobRepository.save(job);
+        }
+    }
+
+    private void createTargetIndex(String target) throws IOException {
+        IndexOperations indexOps = elasticsearchOperations.indexOps(IndexCoordinates.of(target));
+        indexOps.create(indexOps.createSettings(ElasticDocument.class), indexOps.createMapping(ElasticDocument.class));
+        // Nothing searches the new index until the swap: skip refreshes and replica copies while filling it
+        elasticsearchClient.indices().putSettings(PutIndicesSettingsRequest.of(p -> p
+                .index(target)
+                .settings(s -> s.refreshInterval(t -> t.time("-1")).numberOfReplicas("0"))));
+    }
+
+    private void restoreIndexSettings(String target) throws IOException {
+        elasticsearchClient.indices().putSettings(PutIndicesSettingsRequest.of(p -> p
+                .index(target)
+                .settings(s -> s.refreshInterval(t -> t.time("1s")).numberOfReplicas(replicas))));
+        elasticsearchClient.indices().refresh(RefreshRequest.of(r -> r.index(target)));
+    }
+
+    // Equal id ranges; ids are dense enough for this to spread the work evenly
+    private void createSlices(ReindexJob job) {
+        Long minId = documentRepository.findMinId();
+        Long maxId = documentRepository.findMaxId();
+        if (minId == null) {
+            return;
+        }
+        long width = (maxId - minId) / slices + 1;
+        List<ReindexSlice> ranges = new ArrayList<>();
+        for (int i = 0; i < slices; i++) {
+            long from = minId + i * width;
+            if (from > maxId) {
+                break;
+            }
+            ranges.add(new ReindexSlice(job, i, from - 1, Math.min(maxId, from + width - 1)));
+        }
+        sliceRepository.saveAll(ranges);
+    }
+
+    private void backfill(ReindexJob job) throws Exception {
+        List<ReindexSlice> pending = sliceRepository.findByJob_IdOrderBySliceNumberAsc(job.getId()).stream()
+                .filter(slice -> !slice.isDone())
+                .toList();
+        if (pending.isEmpty()) {
+            return;
+        }
+        long docsBefore = job.getDocsIndexed();
+        long start = System.nanoTime();
+        List<Future<?>> results = new ArrayList<>();
+        try {
+            for (ReindexSlice slice : pending) {
+                results.add(sliceExecutor.submit(() -> {
+                    backfillSlice(slice, job);
+                    return null;
+                }));
+            }
+            for (Future<?> result : results) {
+                while (true) {
+                    try {
+                        result.get(PROGRESS_INTERVAL_SECONDS, TimeUnit.SECONDS);
+                        break;
+                    } catch (TimeoutException e) {
+                        reportProgress(job, docsBefore, start);
+                    }
+                }
+            }
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        } finally {
+            // No-op for finished slices; stops the others after a failure
+            results.forEach(result -> result.cancel(true));
+            reportProgress(job, docsBefore, start);
+        }
+    }
+
+    private void backfillSlice(ReindexSlice slice, ReindexJob job) throws IOException {
+        String target = job.getTargetIndex();
+        while (true) {
+            checkLease(job);
+            long afterId = slice.getLastId();
+            List<Document> batch = readTransaction.execute(status ->
+                    documentRepository.findIndexableInRange(afterId, slice.getToId(), Limit.of(batchSize)));
+            if (batch.isEmpty()) {
+                break;
+            }
+            int indexed = bulkIndex(target, batch);
+            // Checkpoint only once the batch is acknowledged, so a resume never skips documents
+            slice.setLastId(batch.get(batch.size() - 1).getId());
+            slice.setDocsIndexed(slice.getDocsIndexed() + indexed);
+            sliceRepository.save(slice);
+        }
+        slice.setDone(true);
+        sliceRepository.save(slice);
+    }
+
+    private void catchUp(ReindexJob job) throws IOException {
+        LocalDateTime nextSince = LocalDateTime.now().minus(CLOCK_MARGIN);
+        List<Long> ids = documentRepository.findIndexableIdsModifiedSince(job.getChangesSince());
+        long indexed = 0;
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            checkLease(job);
+            List<Long> chunk = ids.subList(from, Math.min(from + batchSize, ids.size()));
+            List<Document> batch = readTransaction.execute(status -> documentRepository.findAllById(chunk));
+            indexed += bulkIndex(job.getTargetIndex(), batch);
+        }
+        logger.info("Reindex job {}: caught up on {} documents changed since {}", job.getId(), indexed,
+                job.getChangesSince());
+        job.setChangesSince(nextSince);
+        job.setDocsIndexed(job.getDocsIndexed() + indexed);
+        jobRepository.save(job);
+    }
+
+    private int bulkIndex(String target, List<Document> documents) throws IOException {
+        BulkRequest.Builder request = new BulkRequest.Builder();
+        int count = 0;
+        for (Document document : documents) {
+            // Same rule as the live path: documents without text are not searchable yet
+            if (document.getOcrText() == null || document.getOcrText().isEmpty()) {
+                continue;
+            }
+            ElasticDocument elasticDocument = ElasticDocument.fromDocument(document);
+            Map<String, Object> source = new LinkedHashMap<>(converter.mapObject(elasticDocument));
+            request.operations(op -> op.index(idx -> idx.index(target).id(elasticDocument.getId()).document(source)));
+            count++;
+        }
+        if (count == 0) {
+            return 0;
+        }
+        BulkResponse response = elasticsearchClient.bulk(request.build());
+        if (response.errors()) {
+            for (BulkResponseItem item : response.items()) {
+                if (item.error() != null) {
+                    throw new IllegalStateException("Failed to index document ID " + item.id() + " into " + target
+                            + ": " + item.error().reason());
+                }
+            }
+        }
+        return count;
+    }
+
+    // One atomic alias update: readers and writers see either the old index or the new one, never neither
+    private void swapAlias(String target) throws IOException {
+        Set<String> current = aliasTargets();
+        if (current.equals(Set.of(target))) {
+            return;
+        }
+        // Before the first rebuild "documents" is a plain index, which has to go in the same update
+        boolean legacyIndex = current.isEmpty()
+                && elasticsearchClient.indices().exists(ExistsRequest.of(e -> e.index(alias))).value();
+        elasticsearchClient.indices().updateAliases(UpdateAliasesRequest.of(u -> {
+            for (String index : current) {
+                if (!index.equals(target)) {
+                    u.actions(a -> a.remove(r -> r.index(index).alias(alias)));
+                }
+            }
+            if (legacyIndex) {
+                u.actions(a -> a.removeIndex(r -> r.index(alias)));
+            }
+            return u.actions(a -> a.add(add -> add.index(target).alias(alias)));
+        }));
+        searchIndexVersion.increment();
+        logger.info("Alias {} now points to {}", alias, target);
+        for (String index : current) {
+            if (!index.equals(target)) {
+                elasticsearchClient.indices().delete(DeleteIndexRequest.of(d -> d.index(index)));
+                logger.info("Deleted previous index {}", index);
+            }
+        }
+    }
+
+    private Set<String> aliasTargets() throws IOException {
+        try {
+            return elasticsearchClient.indices().getAlias(GetAliasRequest.of(g -> g.name(alias))).result().keySet();
+        } catch (ElasticsearchException e) {
+            if (e.status() == 404) {
+                return Set.of();
+            }
+            throw e;
+        }
+    }
+
+    private void reportProgress(ReindexJob job, long docsBefore, long start) {
+        long backfilled = sliceRepository.findByJob_IdOrderBySliceNumberAsc(job.getId()).stream()
+                .mapToLong(ReindexSlice::getDocsIndexed)
+                .sum();
+        job.setDocsIndexed(backfilled);
+        jobRepository.save(job);
+        double seconds = Math.max(1e-3, (System.nanoTime() - start) / 1e9);
+        logger.info("Reindex job {}: {} documents backfilled ({} docs/sec)", job.getId(), backfilled,
+                String.format("%.0f", (backfilled - docsBefore) / seconds));
+    }
+
+    private static String abbreviate(String message) {
+        return message.length() <= 1000 ? message : message.substring(0, 1000);
+    }
+
+    private static final class LeaseLostException extends RuntimeException {
+
+        LeaseLostException(Long jobId) {
+            super("Reindex job " + jobId + " is now run by another node, stopped here");
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.project.document_management.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Component;
+
+// Bumped on every write to the search index; cached search results from an older version are not served
+@Component
+public class SearchIndexVersion {
+
+    private final AtomicLong version = new AtomicLong();
+
+    public long current() {
+        return version.get();
+    }
+
+    public void increment() {
+        version.incrementAndGet();
+    }
+}
@@ -0,0 +1,27 @@
+package com.project.document_management.service;
+
+// An upload written to disk: where it is, how big it is and its SHA-256 (hex)
+public class StoredFile {
+
+    private final String path;
+    private final long size;
+    private final String sha256;
+
+    public StoredFile(String path, long size, String sha256) {
+        this.path = path;
+        this.size = size;
+        this.sha256 = sha256;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public String getSha256() {
+        return sha256;
+    }
+}
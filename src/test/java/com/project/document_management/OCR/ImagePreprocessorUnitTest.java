@@ -0,0 +1,146 @@
+package com.project.document_management.OCR;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.Collection;
+
+import com.project.document_management.ocr.ImagePreprocessor;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class ImagePreprocessorUnitTest {
+
+    @Test
+    void process_Disabled_ReturnsPageUnchanged() {
+        BufferedImage page = page(200, 100);
+
+        assertSame(page, ImagePreprocessor.DISABLED.process(page));
+    }
+
+    @Test
+    void process_LargePhoto_DownscalesLongSideToMaxDimension() {
+        ImagePreprocessor preprocessor = new ImagePreprocessor(true, 1000, 0, false, false);
+
+        BufferedImage result = preprocessor.process(page(4000, 3000));
+
+        assertEquals(1000, result.getWidth());
+        assertEquals(750, result.getHeight());
+        assertEquals(BufferedImage.TYPE_BYTE_GRAY, result.getType());
+    }
+
+    @Test
+    void process_PageDone_ReturnsBuffersToPool() {
+        ImagePreprocessor preprocessor = new ImagePreprocessor(true, 1000, 5, true, true);
+
+        preprocessor.process(page(1200, 800));
+        preprocessor.process(page(1200, 800));
+
+        assertEquals(1, pooledBuffers(preprocessor).size());
+    }
+
+    @Test
+    void process_OutsizedPage_BuffersNotRetained() {
+        ImagePreprocessor preprocessor = new ImagePreprocessor(true, 1000, 0, false, false);
+
+        // 56 MB of gray pixels, above what the pool keeps
+        preprocessor.process(new BufferedImage(7500, 7500, BufferedImage.TYPE_BYTE_GRAY));
+
+        assertTrue(pooledBuffers(preprocessor).isEmpty());
+    }
+
+    @Test
+    void process_Binarize_LeavesOnlyBlackAndWhite() {
+        BufferedImage page = page(300, 200);
+        Graphics2D g = page.createGraphics();
+        g.setColor(new Color(90, 90, 90));
+        g.fillRect(50, 50, 100, 40);
+        g.setColor(new Color(200, 200, 200));
+        g.fillRect(50, 120, 100, 40);
+        g.dispose();
+
+        BufferedImage result = new ImagePreprocessor(true, 0, 0, false, true).process(page);
+
+        for (int y = 0; y < result.getHeight(); y++) {
+            for (int x = 0; x < result.getWidth(); x++) {
+                int value = result.getRaster().getSample(x, y, 0);
+                assertTrue(value == 0 || value == 255, "gray value " + value);
+            }
+        }
+        assertEquals(0, result.getRaster().getSample(100, 70, 0));
+        assertEquals(255, result.getRaster().getSample(10, 10, 0));
+    }
+
+    @Test
+    void process_DarkScannerBorder_IsCropped() {
+        BufferedImage page = page(400, 300);
+        Graphics2D g = page.createGraphics();
+        g.setColor(Color.BLACK);
+        g.fillRect(0, 0, 400, 20);
+        g.fillRect(0, 280, 400, 20);
+        g.fillRect(0, 0, 25, 300);
+        g.fillRect(375, 0, 25, 300);
+        g.fillRect(150, 120, 100, 10); // "text"
+        g.dispose();
+
+        BufferedImage result = new ImagePreprocessor(true, 0, 0, true, true).process(page);
+
+        // Text block plus the margin kept around it
+        assertEquals(100 + 2 * 16, result.getWidth());
+        assertEquals(10 + 2 * 16, result.getHeight());
+        assertEquals(255, result.getRaster().getSample(0, 0, 0));
+    }
+
+    @Test
+    void process_SkewedLines_AreStraightened() {
+        BufferedImage page = page(800, 600);
+        Graphics2D g = page.createGraphics();
+        g.rotate(Math.toRadians(3), 400, 300);
+        g.setColor(Color.BLACK);
+        for (int y = 150; y < 450; y += 40) {
+            g.fillRect(150, y, 500, 8);
+        }
+        g.dispose();
+        ImagePreprocessor deskewOnly = new ImagePreprocessor(true, 0, 5, false, true);
+        ImagePreprocessor binarizeOnly = new ImagePreprocessor(true, 0, 0, false, true);
+
+        double before = rowProfileSharpness(binarizeOnly.process(page));
+        double after = rowProfileSharpness(deskewOnly.process(page));
+
+        assertNotEquals(before, after);
+        assertTrue(after > before * 2, "before " + before + ", after " + after);
+    }
+
+    // Sum of squared dark-pixel counts per row: high when lines are horizontal
+    private static double rowProfileSharpness(BufferedImage image) {
+        double score = 0;
+        for (int y = 0; y < image.getHeight(); y++) {
+            int dark = 0;
+            for (int x = 0; x < image.getWidth(); x++) {
+                if (image.getRaster().getSample(x, y, 0) == 0) {
+                    dark++;
+                }
+            }
+            score += (double) dark * dark;
+        }
+        return score;
+    }
+
+    private static BufferedImage page(int width, int height) {
+        BufferedImage page = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = page.createGraphics();
+        g.setColor(Color.WHITE);
+        g.fillRect(0, 0, width, height);
+        g.dispose();
+        return page;
+    }
+
+    private static Collection<?> pooledBuffers(ImagePreprocessor preprocessor) {
+        return (Collection<?>) ReflectionTestUtils.getField(preprocessor, "pooledBuffers");
+    }
+}
@@ -2,28 +2,37 @@ package com.project.document_management.OCR;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 import java.awt.Color;
 import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
-import java.io.File;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import javax.imageio.ImageIO;
 
 import com.project.document_management.model.Document;
 import com.project.document_management.ocr.OCRWorker;
+import com.project.document_management.ocr.OcrResultCache;
+import com.project.document_management.ocr.PageOcrService;
+import com.project.document_management.ocr.TesseractPool;
 import com.project.document_management.repository.DocumentRepository;
+import com.project.document_management.service.OcrProgressService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import net.sourceforge.tess4j.Tesseract;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 
 @ExtendWith(MockitoExtension.class)
 public class OCRWorkerUnitTest {
@@ -31,18 +40,33 @@ public class OCRWorkerUnitTest {
     @Mock
     private DocumentRepository documentRepository;
 
+    @Mock
+    private OcrProgressService ocrProgressService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     // We'll mock the Tesseract instance used by OCRWorker.
     @Mock
     private Tesseract tesseract;
 
+    @TempDir
+    Path cacheDir;
+
+    private OcrResultCache ocrResultCache;
+
     private OCRWorker ocrWorker;
 
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @BeforeEach
     void setUp() {
-        // Create an instance of OCRWorker using a dummy tessdata path.
-        ocrWorker = new OCRWorker(documentRepository, "dummyPath");
-        // Replace the internal Tesseract instance with our mock.
-        ReflectionTestUtils.setField(ocrWorker, "tesseract", tesseract);
+        // Back the worker with a single-engine pool holding our mock.
+        PageOcrService pageOcrService = new PageOcrService(
+                new TesseractPool(1, "eng", () -> tesseract), new SimpleAsyncTaskExecutor(), 4, 300);
+        ocrResultCache = new OcrResultCache("lang=eng", 1_000_000, cacheDir, 1_000_000, new SimpleMeterRegistry());
+        ocrWorker = new OCRWorker(documentRepository, pageOcrService, ocrProgressService, ocrResultCache,
+                eventPublisher, meterRegistry);
     }
 
     @Test
@@ -68,8 +92,8 @@ public class OCRWorkerUnitTest {
         // When the repository is asked for the document, return our document.
         when(documentRepository.findById(1L)).thenReturn(Optional.of(doc));
 
-        // Stub the Tesseract.doOCR(File) call to return a dummy OCR result.
-        when(tesseract.doOCR(any(File.class))).thenReturn("dummy OCR text");
+        // Stub the Tesseract.doOCR(BufferedImage) call to return a dummy OCR result.
+        when(tesseract.doOCR(any(BufferedImage.class))).thenReturn("dummy OCR text");
 
         // Process the document. This should use our mocked Tesseract.
         ocrWorker.processDocument(1L);
@@ -79,6 +103,48 @@ public class OCRWorkerUnitTest {
 
         // Assert that the document's OCR text was updated as expected.
         assertEquals("dummy OCR text", doc.getOcrText());
+        // The counters OcrProgressService wrote are not overwritten by the stale entity.
+        assertEquals(1, doc.getOcrPagesTotal());
+        assertEquals(1, doc.getOcrPagesDone());
+
+        // The single page was persisted as soon as it was recognised.
+        verify(ocrProgressService).start(1L, 1);
+        verify(ocrProgressService).recordPage(1L, 1, "dummy OCR text");
+
+        // Completion is announced so the document gets indexed.
+        verify(eventPublisher).publishEvent(doc);
     }
-}
 
+    @Test
+    void processDocument_CachedContent_SkipsOCR() throws Exception {
+        Document doc = new Document();
+        doc.setId(2L);
+        doc.setContentHash("abc123");
+        doc.setStoragePath("does/not/matter");
+        when(documentRepository.findById(2L)).thenReturn(Optional.of(doc));
+        ocrResultCache.put("abc123", List.of("page one ", "page two"));
+
+        ocrWorker.processDocument(2L);
+
+        assertEquals("page one page two", doc.getOcrText());
+        assertEquals(2, doc.getOcrPagesDone());
+        verifyNoInteractions(tesseract, ocrProgressService);
+        verify(eventPublisher).publishEvent(doc);
+    }
+
+    @Test
+    void processBulkDocument_RecordsTimeToTextForBulkQueue() {
+        Document doc = new Document();
+        doc.setId(3L);
+        doc.setContentHash("def456");
+        doc.setUploadedAt(LocalDateTime.now().minusSeconds(5));
+        when(documentRepository.findById(3L)).thenReturn(Optional.of(doc));
+        ocrResultCache.put("def456", List.of("archived page"));
+
+        ocrWorker.processBulkDocument(3L);
+
+        assertEquals("archived page", doc.getOcrText());
+        assertEquals(1, meterRegistry.get("ocr.time.to.text").tag("queue", "bulk").timer().count());
+        assertEquals(0, meterRegistry.get("ocr.time.to.text").tag("queue", "interactive").timer().count());
+    }
+}
@@ -0,0 +1,55 @@
+package com.project.document_management.OCR;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import com.project.document_management.ocr.OcrResultCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class OcrResultCacheUnitTest {
+
+    @TempDir
+    Path cacheDir;
+
+    @Test
+    void get_AfterRestart_ServedFromDisk() {
+        new OcrResultCache("lang=eng", 1_000, cacheDir, 1_000_000, new SimpleMeterRegistry())
+                .put("abc123", List.of("one", "two"));
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        OcrResultCache restarted = new OcrResultCache("lang=eng", 1_000, cacheDir, 1_000_000, registry);
+
+        assertEquals(List.of("one", "two"), restarted.get("abc123"));
+        assertEquals(List.of("one", "two"), restarted.get("abc123"));
+        assertEquals(1.0, registry.get("cache.gets").tags("cache", "ocrResultsDisk", "result", "hit").counter().count());
+        assertEquals(1.0, registry.get("cache.gets").tags("cache", "ocrResults", "result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void get_DifferentConfiguration_Misses() {
+        new OcrResultCache("lang=eng", 1_000, cacheDir, 1_000_000, new SimpleMeterRegistry())
+                .put("abc123", List.of("one"));
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        OcrResultCache german = new OcrResultCache("lang=deu", 1_000, cacheDir, 1_000_000, registry);
+
+        assertNull(german.get("abc123"));
+        assertEquals(1.0, registry.get("cache.gets").tags("cache", "ocrResultsDisk", "result", "miss").counter().count());
+    }
+
+    @Test
+    void pruneDisk_OverLimit_EvictsEntries() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        OcrResultCache cache = new OcrResultCache("lang=eng", 1_000, cacheDir, 1, registry);
+        cache.put("aaa111", List.of("one"));
+        cache.put("bbb222", List.of("two"));
+
+        cache.pruneDisk();
+
+        assertEquals(2.0, registry.get("cache.evictions").tags("cache", "ocrResultsDisk").counter().count());
+    }
+}
@@ -0,0 +1,171 @@
+package com.project.document_management.OCR;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.awt.image.BufferedImage;
+import java.nio.file.Path;
+import java.util.List;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+
+import com.project.document_management.ocr.ImagePreprocessor;
+import com.project.document_management.ocr.PageOcrService;
+import com.project.document_management.ocr.TesseractPool;
+import net.sourceforge.tess4j.ITesseract;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+class PageOcrServiceUnitTest {
+
+    @Mock
+    private ITesseract tesseract;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void recognizePages_MultiPageTiff_ReturnsTextInPageOrder() throws Exception {
+        // Page i is (100 + i) pixels wide so the stub can tell pages apart
+        Path tiff = writeTiff(5);
+        when(tesseract.doOCR(any(BufferedImage.class))).thenAnswer(invocation -> {
+            BufferedImage page = invocation.getArgument(0);
+            int index = page.getWidth() - 100;
+            // Earlier pages finish last, so ordering can't come from completion order
+            Thread.sleep((5 - index) * 20L);
+            return "page" + index;
+        });
+        PageOcrService service = new PageOcrService(
+                new TesseractPool(3, "eng", () -> tesseract), new SimpleAsyncTaskExecutor(), 2, 300);
+
+        List<String> pages = service.recognizePages(tiff.toFile());
+
+        assertEquals(List.of("page0", "page1", "page2", "page3", "page4"), pages);
+    }
+
+    @Test
+    void recognizePages_SinglePageOnPageExecutor_RunsOffCallingThread() throws Exception {
+        Path tiff = writeTiff(1);
+        when(tesseract.doOCR(any(BufferedImage.class))).thenAnswer(invocation -> Thread.currentThread().getName());
+        PageOcrService service = new PageOcrService(
+                new TesseractPool(1, "eng", () -> tesseract), new SimpleAsyncTaskExecutor("page-"), 2, 300);
+        ReflectionTestUtils.setField(service, "singlePageOnPageExecutor", true);
+
+        List<String> pages = service.recognizePages(tiff.toFile());
+
+        assertEquals(1, pages.size());
+        assertTrue(pages.get(0).startsWith("page-"));
+    }
+
+    @Test
+    @EnabledForJreRange(max = JRE.JAVA_20)
+    void recognizePages_VirtualThreadsPropertyBeforeJava21_StaysOnCallingThread() throws Exception {
+        Path tiff = writeTiff(1);
+        when(tesseract.doOCR(any(BufferedImage.class))).thenAnswer(invocation -> Thread.currentThread().getName());
+        // Spring Boot ignores the property on this JRE, so the listener is a platform thread
+        PageOcrService service = new PageOcrService(new TesseractPool(1, "eng", () -> tesseract),
+                new SimpleAsyncTaskExecutor("page-"), ImagePreprocessor.DISABLED, 2, 300,
+                new MockEnvironment().withProperty("spring.threads.virtual.enabled", "true"));
+
+        List<String> pages = service.recognizePages(tiff.toFile());
+
+        assertEquals(List.of(Thread.currentThread().getName()), pages);
+    }
+
+    @Test
+    void recognizePages_PdfWithTextLayer_OcrsOnlyImageOnlyPages() throws Exception {
+        // Page 2 only carries a stamped page number, as scanned pages often do
+        Path pdf = writePdf("Quarterly report for the third quarter", "2", "Appendix with the detailed figures");
+        when(tesseract.doOCR(any(BufferedImage.class))).thenReturn("scanned page");
+        PageOcrService service = new PageOcrService(
+                new TesseractPool(2, "eng", () -> tesseract), new SimpleAsyncTaskExecutor(), 2, 300);
+
+        List<String> pages = service.recognizePages(pdf.toFile());
+
+        assertEquals(3, pages.size());
+        assertTrue(pages.get(0).contains("Quarterly report for the third quarter"));
+        assertEquals("scanned page", pages.get(1));
+        assertTrue(pages.get(2).contains("Appendix with the detailed figures"));
+        verify(tesseract, times(1)).doOCR(any(BufferedImage.class));
+    }
+
+    @Test
+    void recognizePages_SinglePageBornDigitalPdf_NeverCallsTesseract() throws Exception {
+        Path pdf = writePdf("Invoice 2024-117 payable within thirty days");
+        PageOcrService service = new PageOcrService(
+                new TesseractPool(1, "eng", () -> tesseract), new SimpleAsyncTaskExecutor(), 2, 300);
+
+        List<String> pages = service.recognizePages(pdf.toFile());
+
+        assertTrue(pages.get(0).contains("Invoice 2024-117 payable within thirty days"));
+        verifyNoInteractions(tesseract);
+    }
+
+    @Test
+    void recognizePages_TextLayerDisabled_OcrsEveryPage() throws Exception {
+        Path pdf = writePdf("Invoice 2024-117 payable within thirty days");
+        when(tesseract.doOCR(any(BufferedImage.class))).thenReturn("scanned page");
+        PageOcrService service = new PageOcrService(
+                new TesseractPool(1, "eng", () -> tesseract), new SimpleAsyncTaskExecutor(), 2, 300);
+        ReflectionTestUtils.setField(service, "textLayerEnabled", false);
+
+        assertEquals(List.of("scanned page"), service.recognizePages(pdf.toFile()));
+    }
+
+    private Path writePdf(String... pageTexts) throws Exception {
+        Path file = tempDir.resolve("generated.pdf");
+        try (PDDocument document = new PDDocument()) {
+            for (String text : pageTexts) {
+                PDPage page = new PDPage();
+                document.addPage(page);
+                try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                    content.beginText();
+                    content.setFont(PDType1Font.HELVETICA, 12);
+                    content.newLineAtOffset(72, 700);
+                    content.showText(text);
+                    content.endText();
+                }
+            }
+            document.save(file.toFile());
+        }
+        return file;
+    }
+
+    private Path writeTiff(int pageCount) throws Exception {
+        Path file = tempDir.resolve("scan.tif");
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("tiff").next();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(file.toFile())) {
+            writer.setOutput(out);
+            writer.prepareWriteSequence(null);
+            for (int i = 0; i < pageCount; i++) {
+                writer.writeToSequence(new IIOImage(new BufferedImage(100 + i, 50, BufferedImage.TYPE_BYTE_GRAY), null, null), null);
+            }
+            writer.endWriteSequence();
+        } finally {
+            writer.dispose();
+        }
+        return file;
+    }
+}
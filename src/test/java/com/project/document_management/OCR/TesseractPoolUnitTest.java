@@ -0,0 +1,121 @@
+package com.project.document_management.OCR;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import com.project.document_management.ocr.TesseractPool;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.sourceforge.tess4j.ITesseract;
+import org.junit.jupiter.api.Test;
+
+class TesseractPoolUnitTest {
+
+    @Test
+    void execute_ReturnsEngineToPool() throws Exception {
+        TesseractPool pool = new TesseractPool(2, "eng", () -> mock(ITesseract.class));
+
+        String result = pool.execute(engine -> {
+            assertEquals(1, pool.getAvailable());
+            return "text";
+        });
+
+        assertEquals("text", result);
+        assertEquals(2, pool.getAvailable());
+    }
+
+    @Test
+    void bindTo_GaugesFollowEnginesInUse() throws Exception {
+        TesseractPool pool = new TesseractPool(3, "eng", () -> mock(ITesseract.class));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        pool.bindTo(registry);
+
+        double busyDuringTask = pool.execute(engine -> registry.get("ocr.pool.busy").gauge().value());
+
+        assertEquals(3.0, registry.get("ocr.pool.engines").gauge().value());
+        assertEquals(1.0, busyDuringTask);
+        assertEquals(0.0, registry.get("ocr.pool.busy").gauge().value());
+    }
+
+    @Test
+    void execute_PoolExhausted_BlocksUntilEngineReleased() throws Exception {
+        TesseractPool pool = new TesseractPool(1, "eng", () -> mock(ITesseract.class));
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            executor.submit(() -> pool.execute(engine -> {
+                holding.countDown();
+                awaitQuietly(release);
+                return "first";
+            }));
+            holding.await();
+
+            Future<String> second = executor.submit(() -> pool.execute(engine -> "second"));
+            assertThrows(TimeoutException.class, () -> second.get(200, TimeUnit.MILLISECONDS));
+
+            release.countDown();
+            assertEquals("second", second.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void executeBulk_BulkSaturated_InteractivePageStillGetsEngine() throws Exception {
+        TesseractPool pool = new TesseractPool(2, 1, "eng", () -> mock(ITesseract.class));
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            executor.submit(() -> pool.executeBulk(engine -> {
+                holding.countDown();
+                awaitQuietly(release);
+                return "bulk";
+            }));
+            holding.await();
+            // More bulk pages than bulk engines: they wait although an engine is idle
+            Future<String> secondBulk = executor.submit(() -> pool.executeBulk(engine -> "second bulk"));
+            Future<String> thirdBulk = executor.submit(() -> pool.executeBulk(engine -> "third bulk"));
+            assertThrows(TimeoutException.class, () -> secondBulk.get(200, TimeUnit.MILLISECONDS));
+            assertEquals(1, pool.getAvailable());
+
+            Future<String> interactive = executor.submit(() -> pool.execute(engine -> "interactive"));
+            assertEquals("interactive", interactive.get(5, TimeUnit.SECONDS));
+            assertFalse(thirdBulk.isDone());
+
+            release.countDown();
+            assertEquals("second bulk", secondBulk.get(5, TimeUnit.SECONDS));
+            assertEquals("third bulk", thirdBulk.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void bulkEngines_DefaultQuarterOfPoolCappedAtSize() {
+        assertEquals(1, new TesseractPool(3, "eng", () -> mock(ITesseract.class)).getBulkEngines());
+        assertEquals(2, new TesseractPool(8, "eng", () -> mock(ITesseract.class)).getBulkEngines());
+        assertEquals(2, new TesseractPool(2, 5, "eng", () -> mock(ITesseract.class)).getBulkEngines());
+    }
+
+    @Test
+    void constructor_InvalidSize_Throws() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new TesseractPool(0, "eng", () -> mock(ITesseract.class)));
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
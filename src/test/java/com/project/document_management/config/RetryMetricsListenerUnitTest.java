@@ -0,0 +1,64 @@
+package com.project.document_management.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.retry.support.RetryTemplate;
+
+class RetryMetricsListenerUnitTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private RetryTemplate retryTemplate;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        retryTemplate = RetryTemplate.builder()
+                .maxAttempts(3)
+                .noBackoff()
+                .withListener(new RetryMetricsListener(meterRegistry))
+                .build();
+    }
+
+    @Test
+    void failingCall_WithRecovery_CountsAttemptsAndRecovery() {
+        String result = retryTemplate.execute(context -> {
+            context.setAttribute("context.name", "search");
+            throw new IllegalStateException("down");
+        }, context -> "fallback");
+
+        assertEquals("fallback", result);
+        assertEquals(3, meterRegistry.get("retry.attempts.failed").tag("method", "search")
+                .tag("exception", "IllegalStateException").counter().count());
+        assertEquals(1, meterRegistry.get("retry.recovered").tag("method", "search").counter().count());
+        assertEquals(0, meterRegistry.find("retry.exhausted").counters().size());
+    }
+
+    @Test
+    void failingCall_WithoutRecovery_CountsExhaustion() {
+        assertThrows(IllegalStateException.class, () -> retryTemplate.execute(context -> {
+            throw new IllegalStateException("down");
+        }));
+
+        assertEquals(1, meterRegistry.get("retry.exhausted").counter().count());
+        assertEquals(0, meterRegistry.find("retry.recovered").counters().size());
+    }
+
+    @Test
+    void callSucceedingOnRetry_CountsOnlyTheFailedAttempt() {
+        String result = retryTemplate.execute(context -> {
+            if (context.getRetryCount() == 0) {
+                throw new IllegalStateException("blip");
+            }
+            return "ok";
+        });
+
+        assertEquals("ok", result);
+        assertEquals(1, meterRegistry.get("retry.attempts.failed").counter().count());
+        assertEquals(0, meterRegistry.find("retry.recovered").counters().size());
+        assertEquals(0, meterRegistry.find("retry.exhausted").counters().size());
+    }
+}
@@ -1,23 +1,41 @@
 package com.project.document_management.controller;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
 
+import com.project.document_management.elastic.SearchResult;
 import com.project.document_management.model.Document;
+import com.project.document_management.model.DocumentSummary;
+import com.project.document_management.model.ProcessingStatus;
+import com.project.document_management.model.UploadStatus;
+import com.project.document_management.service.AsyncUploadService;
 import com.project.document_management.service.DocumentService;
+import com.project.document_management.service.ElasticSearchService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
 
 @ExtendWith(MockitoExtension.class)
 class DocumentControllerUnitTest {
@@ -25,11 +43,17 @@ class DocumentControllerUnitTest {
     @Mock
     private DocumentService documentService;
 
+    @Mock
+    private AsyncUploadService asyncUploadService;
+
     @InjectMocks
     private DocumentController documentController;
 
     private MockMvc mockMvc;
 
+    @TempDir
+    Path tempDir;
+
     @BeforeEach
     void setUp() {
         mockMvc = MockMvcBuilders.standaloneSetup(documentController).build();
@@ -50,11 +74,133 @@ class DocumentControllerUnitTest {
     }
 
     @Test
-    void getDocuments_EmptySearch_ReturnsAll() throws Exception {
-        when(documentService.getDocuments(any(), any(), any()))
-                .thenReturn(Collections.singletonList(new Document()));
+    void uploadDocument_Async_ReturnsAcceptedWithStatusLocation() throws Exception {
+        MockMultipartFile file = new MockMultipartFile(
+                "file", "test.txt", "text/plain", "content".getBytes());
+        when(asyncUploadService.submit(any(MultipartFile.class), eq("test")))
+                .thenReturn(new UploadStatus("t1", ProcessingStatus.RECEIVED, null, null));
+
+        mockMvc.perform(multipart("/api/documents/upload")
+                        .file(file)
+                        .param("title", "test")
+                        .param("async", "true"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/documents/uploads/t1"))
+                .andExpect(jsonPath("$.state").value("RECEIVED"));
+    }
+
+    @Test
+    void getUploadStatus_UnknownToken_ReturnsNotFound() throws Exception {
+        when(asyncUploadService.getStatus("nope")).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/documents/uploads/nope"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getDocuments_EmptySearch_ReturnsFirstPage() throws Exception {
+        when(documentService.getDocuments("", "uploadedAt", "desc", 0, 50))
+                .thenReturn(Collections.singletonList(
+                        new DocumentSummary(1L, "test", "test.txt", 7L, "text/plain", LocalDateTime.now(), false)));
 
         mockMvc.perform(get("/api/documents"))
                 .andExpect(status().isOk());
     }
-}
\ No newline at end of file
+
+    @Test
+    void suggestTitles_ReturnsIdAndTitleOnly() throws Exception {
+        ElasticSearchService elasticSearchService = mock(ElasticSearchService.class);
+        ReflectionTestUtils.setField(documentController, "elasticSearchService", elasticSearchService);
+        when(elasticSearchService.suggestTitles("inv", 5)).thenReturn(List.of(
+                new SearchResult("1", "Invoice March", null, null, null, 1.5f, null, null)));
+
+        mockMvc.perform(get("/api/documents/search/suggest").param("prefix", "inv").param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].title").value("Invoice March"))
+                .andExpect(jsonPath("$[0].ocrText").doesNotExist());
+    }
+
+    @Test
+    void listDocuments_InvalidCursor_ReturnsBadRequest() throws Exception {
+        when(documentService.listDocuments("garbage", 50)).thenThrow(new IllegalArgumentException("Invalid cursor"));
+
+        mockMvc.perform(get("/api/documents/page").param("cursor", "garbage"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void downloadDocument_NoRange_SendsWholeFileWithETag() throws Exception {
+        when(documentService.getDocumentById(1L)).thenReturn(storedDocument("0123456789"));
+
+        mockMvc.perform(get("/api/documents/1/download"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"abc123\""))
+                .andExpect(header().string("Accept-Ranges", "bytes"))
+                .andExpect(header().string("Content-Disposition", containsString("scan.pdf")))
+                .andExpect(content().string("0123456789"));
+    }
+
+    @Test
+    void downloadDocument_Range_ReturnsPartialContent() throws Exception {
+        when(documentService.getDocumentById(1L)).thenReturn(storedDocument("0123456789"));
+
+        mockMvc.perform(get("/api/documents/1/download").header("Range", "bytes=2-5"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string("Content-Range", "bytes 2-5/10"))
+                .andExpect(content().string("2345"));
+    }
+
+    @Test
+    void downloadDocument_StaleIfRange_SendsWholeFile() throws Exception {
+        when(documentService.getDocumentById(1L)).thenReturn(storedDocument("0123456789"));
+
+        mockMvc.perform(get("/api/documents/1/download")
+                        .header("Range", "bytes=2-5")
+                        .header("If-Range", "\"other\""))
+                .andExpect(status().isOk())
+                .andExpect(content().string("0123456789"));
+    }
+
+    @Test
+    void downloadDocument_UnsatisfiableRange_Returns416() throws Exception {
+        when(documentService.getDocumentById(1L)).thenReturn(storedDocument("0123456789"));
+
+        mockMvc.perform(get("/api/documents/1/download").header("Range", "bytes=20-30"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string("Content-Range", "bytes */10"));
+    }
+
+    @Test
+    void downloadDocument_MatchingETag_ReturnsNotModified() throws Exception {
+        when(documentService.getDocumentById(1L)).thenReturn(storedDocument("0123456789"));
+
+        mockMvc.perform(get("/api/documents/1/download").header("If-None-Match", "\"abc123\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void downloadDocument_SendfileSupported_HandsFileToContainer() throws Exception {
+        when(documentService.getDocumentById(1L)).thenReturn(storedDocument("0123456789"));
+
+        mockMvc.perform(get("/api/documents/1/download")
+                        .header("Range", "bytes=4-")
+                        .requestAttr("org.apache.tomcat.sendfile.support", Boolean.TRUE))
+                .andExpect(status().isPartialContent())
+                .andExpect(request().attribute("org.apache.tomcat.sendfile.start", 4L))
+                .andExpect(request().attribute("org.apache.tomcat.sendfile.end", 10L))
+                .andExpect(content().string(""));
+    }
+
+    private Document storedDocument(String content) throws IOException {
+        Path file = tempDir.resolve("abc123");
+        Files.writeString(file, content);
+        Document document = new Document();
+        document.setId(1L);
+        document.setStoragePath(file.toString());
+        document.setContentHash("abc123");
+        document.setContentType("application/pdf");
+        document.setOriginalFilename("scan.pdf");
+        return document;
+    }
+}
@@ -0,0 +1,31 @@
+package com.project.document_management.elastic;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+
+import com.project.document_management.model.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.elasticsearch.core.convert.MappingElasticsearchConverter;
+import org.springframework.data.elasticsearch.core.mapping.SimpleElasticsearchMappingContext;
+
+class ElasticDocumentUnitTest {
+
+    @Test
+    void mappedSource_ReadsBackWithUploadTime() {
+        MappingElasticsearchConverter converter = new MappingElasticsearchConverter(new SimpleElasticsearchMappingContext());
+        converter.afterPropertiesSet();
+        Document document = new Document();
+        document.setId(7L);
+        document.setTitle("Invoice");
+        document.setUploadedAt(LocalDateTime.of(2024, 10, 1, 9, 30, 5, 123_000_000));
+
+        org.springframework.data.elasticsearch.core.document.Document source =
+                converter.mapObject(ElasticDocument.fromDocument(document));
+        ElasticDocument hit = converter.read(ElasticDocument.class, source);
+
+        assertEquals("2024-10-01T09:30:05.123", source.get("uploadedAt"));
+        assertEquals(document.getUploadedAt(), hit.getUploadedAt());
+        assertEquals("Invoice", hit.getTitle());
+    }
+}
@@ -13,15 +13,22 @@ import java.util.concurrent.TimeUnit;
 import com.project.document_management.elastic.ElasticDocument;
 import com.project.document_management.elastic.ElasticDocumentRepository;
 import com.project.document_management.model.Document;
+import com.project.document_management.model.DocumentSummary;
 import com.project.document_management.repository.DocumentRepository;
 import com.project.document_management.ocr.OCRWorker;
+import com.project.document_management.ocr.OcrResultCache;
+import com.project.document_management.ocr.PageOcrService;
+import com.project.document_management.service.ContentStoreService;
 import com.project.document_management.service.DocumentService;
 import com.project.document_management.service.FileStorageService;
+import com.project.document_management.service.OcrProgressService;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Primary;
 import org.springframework.mock.web.MockMultipartFile;
@@ -68,13 +75,22 @@ public class DocumentIntegrationTest {
     static class TestConfig {
         @Bean
         @Primary
-        OCRWorker mockOCRWorker(DocumentRepository documentRepository) {
-            return new OCRWorker(documentRepository, "dummy/tessdata/path") {
+        OCRWorker mockOCRWorker(DocumentRepository documentRepository, PageOcrService pageOcrService,
+                                OcrProgressService ocrProgressService, OcrResultCache ocrResultCache,
+                                ApplicationEventPublisher eventPublisher, MeterRegistry meterRegistry) {
+            return new OCRWorker(documentRepository, pageOcrService, ocrProgressService, ocrResultCache,
+                    eventPublisher, meterRegistry) {
                 @Override
                 public void processDocument(Long documentId) {
                     Document doc = documentRepository.findById(documentId).orElseThrow();
                     doc.setOcrText("MOCKED OCR TEXT");
                     documentRepository.save(doc);
+                    eventPublisher.publishEvent(doc);
+                }
+
+                @Override
+                public void processBulkDocument(Long documentId) {
+                    processDocument(documentId);
                 }
             };
         }
@@ -92,6 +108,9 @@ public class DocumentIntegrationTest {
     @Autowired
     private DocumentRepository documentRepository;
 
+    @Autowired
+    private ContentStoreService contentStoreService;
+
     // 3. Cleanup After Each Test
     @AfterEach
     void cleanup() throws IOException {
@@ -122,8 +141,32 @@ public class DocumentIntegrationTest {
 
         // Delete Document
         documentService.deleteDocument(doc.getId());
+        // The blob is removed by the purge, not by the delete itself
+        assertTrue(Files.exists(Path.of(doc.getStoragePath())));
+        contentStoreService.purgeUnreferenced();
         assertFalse(Files.exists(Path.of(doc.getStoragePath())));
-        assertFalse(elasticRepository.existsById(doc.getId().toString()));
+        // Removed from the index through the indexing queue and the bulk indexer
+        await().atMost(10, TimeUnit.SECONDS)
+                .until(() -> !elasticRepository.existsById(doc.getId().toString()));
+    }
+
+    @Test
+    void duplicateUpload_FoundThroughDatabaseSearch() throws Exception {
+        byte[] content = "Invoice 2024-117".getBytes();
+        Document original = documentService.uploadDocument(
+                new MockMultipartFile("file", "original.txt", "text/plain", content), "Original");
+        await().atMost(10, TimeUnit.SECONDS)
+                .until(() -> documentService.getOCRText(original.getId()) != null);
+
+        // Same bytes: the text is copied from the original and no OCR pass will set the search vector later
+        Document duplicate = documentService.uploadDocument(
+                new MockMultipartFile("file", "copy.txt", "text/plain", content), "Copy");
+        assertEquals("MOCKED OCR TEXT", duplicate.getOcrText());
+
+        List<Long> found = documentService.searchDocuments("mocked", 0, 10).getContent().stream()
+                .map(DocumentSummary::getId)
+                .toList();
+        assertTrue(found.contains(duplicate.getId()));
     }
 
     @Test
@@ -0,0 +1,409 @@
+package com.project.document_management.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.env.Environment;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.RabbitMQContainer;
+import org.testcontainers.elasticsearch.ElasticsearchContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Load test of the whole stack: PostgreSQL, RabbitMQ and Elasticsearch from Testcontainers (as in
+ * DocumentIntegrationTest) and the application on a random port. Uploads, searches, downloads and listings are sent
+ * over HTTP at fixed rates; requests start on schedule whether or not earlier ones have finished, so a slow server
+ * shows up as latency instead of as a lower request rate. Reports throughput and p50/p95/p99 latency per operation
+ * and time-to-searchable per upload, on the console and as JSON. Needs Docker, so it only runs on request:
+ * mvn test -Dtest=DocumentLoadTest -Dload.test=true [-Dload.duration=PT1M] [-Dload.warmup=PT10S]
+ * [-Dload.rate.upload=5] [-Dload.rate.search=20] [-Dload.rate.download=10] [-Dload.rate.list=5] (per second, 0 = off)
+ * [-Dload.report=target/load-test-report.json] [-Dspring.profiles.active=virtual]
+ * Each upload is a generated PDF with a text layer and a word no other document has, so OCR takes the text-layer
+ * path without a Tesseract install. Time-to-searchable runs from the upload response to the first /search hit for
+ * that word; those polls are not counted as search traffic.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Testcontainers
+@EnabledIfSystemProperty(named = "load.test", matches = "true")
+class DocumentLoadTest {
+
+    private static final String[] VOCABULARY = {
+            "invoice", "delivery", "brackets", "quantity", "payment", "harbour", "traders", "contract", "report",
+            "warranty"
+    };
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @Container
+    static ElasticsearchContainer elasticsearch =
+            new ElasticsearchContainer("docker.elastic.co/elasticsearch/elasticsearch:8.11.1")
+                    .withEnv("discovery.type", "single-node")
+                    .withEnv("xpack.security.enabled", "false");
+
+    @Container
+    static RabbitMQContainer rabbitMQ = new RabbitMQContainer("rabbitmq:3-management");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.elasticsearch.uris",
+                () -> "http://" + elasticsearch.getHost() + ":" + elasticsearch.getFirstMappedPort());
+        registry.add("spring.rabbitmq.host", rabbitMQ::getHost);
+        registry.add("spring.rabbitmq.port", rabbitMQ::getAmqpPort);
+        // Statement logging to stdout would be the bottleneck at these rates
+        registry.add("spring.jpa.show-sql", () -> "false");
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Environment environment;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicInteger uploadCounter = new AtomicInteger();
+    private final List<Long> uploadedIds = new CopyOnWriteArrayList<>();
+    private final Map<Long, PendingUpload> notYetSearchable = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<CompletableFuture<?>> inFlight = new ConcurrentLinkedQueue<>();
+    private volatile long measureFromNanos;
+
+    @Test
+    void driveLoad() throws Exception {
+        Duration duration = Duration.parse(System.getProperty("load.duration", "PT1M"));
+        Duration warmup = Duration.parse(System.getProperty("load.warmup", "PT10S"));
+        Duration searchableTimeout = Duration.parse(System.getProperty("load.searchable-timeout", "PT1M"));
+        double maxErrorRate = Double.parseDouble(System.getProperty("load.max-error-rate", "0.01"));
+
+        Map<String, Operation> operations = new LinkedHashMap<>();
+        operations.put("upload", new Operation(rate("upload", 5), upload));
+        operations.put("search", new Operation(rate("search", 20), search));
+        operations.put("download", new Operation(rate("download", 10), download));
+        operations.put("list", new Operation(rate("list", 5), list));
+        Stats timeToSearchable = new Stats();
+
+        ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(operations.size() + 1);
+        measureFromNanos = System.nanoTime() + warmup.toNanos();
+        try {
+            operations.values().stream().filter(operation -> operation.rate > 0).forEach(operation ->
+                    scheduler.scheduleAtFixedRate(() -> fire(operation), 0,
+                            Math.max(1, (long) (1e9 / operation.rate)), TimeUnit.NANOSECONDS));
+            scheduler.scheduleWithFixedDelay(() -> pollSearchable(timeToSearchable), 200, 200, TimeUnit.MILLISECONDS);
+
+            Thread.sleep(warmup.plus(duration).toMillis());
+            scheduler.shutdownNow();
+            scheduler.awaitTermination(10, TimeUnit.SECONDS);
+            CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new))
+                    .completeOnTimeout(null, 60, TimeUnit.SECONDS).join();
+
+            // Uploads from the end of the run are still on their way through OCR and indexing
+            long deadline = System.nanoTime() + searchableTimeout.toNanos();
+            while (!notYetSearchable.isEmpty() && System.nanoTime() < deadline) {
+                pollSearchable(timeToSearchable);
+                Thread.sleep(200);
+            }
+        } finally {
+            scheduler.shutdownNow();
+        }
+
+        long neverSearchable = notYetSearchable.values().stream().filter(pending -> pending.measured).count();
+        report(operations, timeToSearchable, neverSearchable, duration, warmup);
+
+        operations.forEach((name, operation) -> assertTrue(operation.stats.errorRate() <= maxErrorRate,
+                name + " error rate " + operation.stats.errorRate()));
+        assertEquals(0, neverSearchable, "uploads not searchable within " + searchableTimeout);
+    }
+
+    private void fire(Operation operation) {
+        try {
+            HttpRequest request = operation.requests.next();
+            if (request == null) {
+                return;
+            }
+            long start = System.nanoTime();
+            boolean measured = start >= measureFromNanos;
+            CompletableFuture<?> response = client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                    .whenComplete((result, failure) -> {
+                        long elapsed = System.nanoTime() - start;
+                        boolean ok = failure == null && result.statusCode() < 400;
+                        if (measured) {
+                            operation.stats.record(elapsed, ok);
+                        }
+                        if (ok && operation.requests instanceof UploadRequests) {
+                            uploaded(result, measured);
+                        }
+                    });
+            inFlight.add(response);
+            response.whenComplete((result, failure) -> inFlight.remove(response));
+        } catch (Exception e) {
+            // A throwing task would cancel its schedule
+            operation.stats.record(0, false);
+        }
+    }
+
+    private double rate(String operation, double defaultRate) {
+        return Double.parseDouble(System.getProperty("load.rate." + operation, String.valueOf(defaultRate)));
+    }
+
+    // Operations
+
+    private final RequestSource upload = (UploadRequests) () -> {
+        int n = uploadCounter.incrementAndGet();
+        String word = "lt" + runId + "x" + Integer.toString(n, 36);
+        String boundary = UUID.randomUUID().toString();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        writePart(body, boundary, "Content-Disposition: form-data; name=\"title\"",
+                ("Load test " + word).getBytes(StandardCharsets.UTF_8));
+        writePart(body, boundary, "Content-Disposition: form-data; name=\"file\"; filename=\"" + word + ".pdf\"\r\n"
+                + "Content-Type: application/pdf", pdf(word));
+        body.write(("--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII));
+        return HttpRequest.newBuilder(uri("/api/documents/upload"))
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .header("X-Load-Word", word)
+                .timeout(Duration.ofSeconds(60))
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray()))
+                .build();
+    };
+
+    private final RequestSource search = () -> get("/api/documents/search?size=10&query="
+            + VOCABULARY[ThreadLocalRandom.current().nextInt(VOCABULARY.length)]);
+
+    private final RequestSource download = () -> {
+        Long id = randomUploadedId();
+        return id == null ? null : get("/api/documents/" + id + "/download");
+    };
+
+    private final RequestSource list = () -> get("/api/documents/page?size=50");
+
+    private void uploaded(HttpResponse<byte[]> response, boolean measured) {
+        try {
+            long id = objectMapper.readTree(response.body()).get("id").asLong();
+            uploadedIds.add(id);
+            String word = response.request().headers().firstValue("X-Load-Word").orElseThrow();
+            notYetSearchable.put(id, new PendingUpload(word, System.nanoTime(), measured));
+        } catch (IOException e) {
+            throw new IllegalStateException("Unexpected upload response", e);
+        }
+    }
+
+    private void pollSearchable(Stats timeToSearchable) {
+        for (Map.Entry<Long, PendingUpload> entry : notYetSearchable.entrySet()) {
+            PendingUpload pending = entry.getValue();
+            try {
+                HttpResponse<String> response = client.send(get("/api/documents/search?size=1&query=" + pending.word),
+                        HttpResponse.BodyHandlers.ofString());
+                if (response.body().contains("\"id\":\"" + entry.getKey() + "\"")) {
+                    notYetSearchable.remove(entry.getKey());
+                    if (pending.measured) {
+                        timeToSearchable.record(System.nanoTime() - pending.uploadedAtNanos, true);
+                    }
+                }
+            } catch (IOException e) {
+                // Try again on the next poll
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private Long randomUploadedId() {
+        int size = uploadedIds.size();
+        return size == 0 ? null : uploadedIds.get(ThreadLocalRandom.current().nextInt(size));
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(uri(path)).timeout(Duration.ofSeconds(30)).GET().build();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static void writePart(ByteArrayOutputStream body, String boundary, String headers, byte[] content)
+            throws IOException {
+        body.write(("--" + boundary + "\r\n" + headers + "\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        body.write(content);
+        body.write("\r\n".getBytes(StandardCharsets.US_ASCII));
+    }
+
+    // One page of ordinary text plus the document's own word
+    private static byte[] pdf(String word) throws IOException {
+        try (PDDocument document = new PDDocument(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            PDPage page = new PDPage();
+            document.addPage(page);
+            try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                content.beginText();
+                content.setFont(PDType1Font.HELVETICA, 11);
+                content.setLeading(16);
+                content.newLineAtOffset(72, 720);
+                content.showText("Reference " + word);
+                for (int i = 0; i < 30; i++) {
+                    content.newLine();
+                    content.showText("The " + VOCABULARY[i % VOCABULARY.length] + " for line " + i
+                            + " is due within thirty days of the " + VOCABULARY[(i * 7) % VOCABULARY.length] + ".");
+                }
+                content.endText();
+            }
+            document.save(out);
+            return out.toByteArray();
+        }
+    }
+
+    // Report
+
+    private void report(Map<String, Operation> operations, Stats timeToSearchable, long neverSearchable,
+                        Duration duration, Duration warmup) throws IOException {
+        double seconds = duration.toMillis() / 1000.0;
+        Map<String, Object> results = new LinkedHashMap<>();
+        System.out.printf("%n%-18s %9s %7s %10s %9s %9s %9s %9s%n",
+                "operation", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        operations.forEach((name, operation) -> {
+            Stats stats = operation.stats;
+            System.out.printf("%-18s %9d %7d %10.1f %9.1f %9.1f %9.1f %9.1f%n", name, stats.count(), stats.errors.get(),
+                    stats.count() / seconds, stats.percentileMs(0.50), stats.percentileMs(0.95),
+                    stats.percentileMs(0.99), stats.percentileMs(1.0));
+            results.put(name, stats.summary(operation.rate, seconds));
+        });
+        System.out.printf("%-18s %9d %7d %10s %9.1f %9.1f %9.1f %9.1f%n", "time-to-searchable",
+                timeToSearchable.count(), neverSearchable, "", timeToSearchable.percentileMs(0.50),
+                timeToSearchable.percentileMs(0.95), timeToSearchable.percentileMs(0.99),
+                timeToSearchable.percentileMs(1.0));
+        Map<String, Object> searchable = timeToSearchable.summary(0, seconds);
+        searchable.put("neverSearchable", neverSearchable);
+        results.put("timeToSearchable", searchable);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("profiles", Arrays.asList(environment.getActiveProfiles()));
+        report.put("duration", duration.toString());
+        report.put("warmup", warmup.toString());
+        report.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        report.put("javaVersion", System.getProperty("java.version"));
+        report.put("results", results);
+        Path file = Path.of(System.getProperty("load.report", "target/load-test-report.json"));
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(file.toFile(), report);
+        System.out.println("Report written to " + file.toAbsolutePath());
+    }
+
+    @FunctionalInterface
+    private interface RequestSource {
+        // Null skips this tick (nothing to download yet)
+        HttpRequest next() throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface UploadRequests extends RequestSource {
+    }
+
+    private record PendingUpload(String word, long uploadedAtNanos, boolean measured) {
+    }
+
+    private static final class Operation {
+
+        private final double rate;
+        private final RequestSource requests;
+        private final Stats stats = new Stats();
+
+        Operation(double rate, RequestSource requests) {
+            this.rate = rate;
+            this.requests = requests;
+        }
+    }
+
+    private static final class Stats {
+
+        private final ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        private final AtomicLong errors = new AtomicLong();
+
+        void record(long nanos, boolean ok) {
+            if (ok) {
+                latencies.add(nanos);
+            } else {
+                errors.incrementAndGet();
+            }
+        }
+
+        long count() {
+            return latencies.size();
+        }
+
+        double errorRate() {
+            long total = count() + errors.get();
+            return total == 0 ? 0 : (double) errors.get() / total;
+        }
+
+        double percentileMs(double quantile) {
+            long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(quantile * sorted.length) - 1;
+            return sorted[Math.max(0, index)] / 1e6;
+        }
+
+        Map<String, Object> summary(double targetRate, double seconds) {
+            Map<String, Object> summary = new LinkedHashMap<>();
+            if (targetRate > 0) {
+                summary.put("targetRatePerSecond", targetRate);
+                summary.put("throughputPerSecond", count() / seconds);
+            }
+            summary.put("count", count());
+            summary.put("errors", errors.get());
+            summary.put("p50Ms", percentileMs(0.50));
+            summary.put("p95Ms", percentileMs(0.95));
+            summary.put("p99Ms", percentileMs(0.99));
+            summary.put("maxMs", percentileMs(1.0));
+            return summary;
+        }
+    }
+}
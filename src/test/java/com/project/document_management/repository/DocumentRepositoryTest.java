@@ -0,0 +1,206 @@
+package com.project.document_management.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import com.project.document_management.model.ContentBlob;
+import com.project.document_management.model.Document;
+import com.project.document_management.model.DocumentPage;
+import com.project.document_management.model.DocumentSummary;
+import com.project.document_management.model.ProcessingStatus;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+@DataJpaTest
+@ActiveProfiles("test") // H2 dialect instead of the PostgreSQL one from application.properties
+class DocumentRepositoryTest {
+
+    @Autowired
+    private DocumentRepository documentRepository;
+
+    @Autowired
+    private DocumentPageRepository documentPageRepository;
+
+    @Autowired
+    private ContentBlobRepository contentBlobRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void ocrProgress_CountsRecordedPages() {
+        Document doc = documentRepository.save(newDocument("scan"));
+
+        documentRepository.startOcrProgress(doc.getId(), 3);
+        documentRepository.incrementOcrPagesDone(doc.getId());
+        documentRepository.incrementOcrPagesDone(doc.getId());
+        entityManager.clear();
+
+        Document reloaded = documentRepository.findById(doc.getId()).orElseThrow();
+        assertEquals(2, reloaded.getOcrPagesDone());
+        assertEquals(3, reloaded.getOcrPagesTotal());
+        assertEquals(ProcessingStatus.OCR_RUNNING, reloaded.getProcessingStatus());
+    }
+
+    @Test
+    void markIndexed_OnlyDocumentsWithText() {
+        Document recognised = newDocument("recognised");
+        recognised.setOcrText("text");
+        recognised = documentRepository.save(recognised);
+        Document pending = documentRepository.save(newDocument("pending"));
+
+        assertEquals(1, documentRepository.markIndexed(List.of(recognised.getId(), pending.getId())));
+        entityManager.clear();
+
+        assertEquals(Optional.of(ProcessingStatus.INDEXED), documentRepository.findProcessingStatusById(recognised.getId()));
+        assertNull(documentRepository.findById(pending.getId()).orElseThrow().getProcessingStatus());
+    }
+
+    @Test
+    void findIdsAwaitingIndex_OnlyOcrDoneBeforeCutoff() {
+        Document stuck = newDocument("stuck");
+        stuck.setOcrText("text");
+        stuck.setProcessingStatus(ProcessingStatus.OCR_DONE);
+        Document indexed = newDocument("indexed");
+        indexed.setOcrText("text");
+        indexed.setProcessingStatus(ProcessingStatus.INDEXED);
+        documentRepository.saveAll(List.of(stuck, indexed));
+
+        assertEquals(List.of(stuck.getId()),
+                documentRepository.findIdsAwaitingIndex(LocalDateTime.now().plusMinutes(1), Limit.of(10)));
+        // Saved just now: still on its normal way to the index
+        assertTrue(documentRepository.findIdsAwaitingIndex(LocalDateTime.now().minusMinutes(5), Limit.of(10)).isEmpty());
+    }
+
+    @Test
+    void findByDocumentId_ReturnsPagesInPageOrder() {
+        Document doc = documentRepository.save(newDocument("scan"));
+        documentPageRepository.save(newPage(doc, 2, "two"));
+        documentPageRepository.save(newPage(doc, 1, "one"));
+
+        List<DocumentPage> pages = documentPageRepository.findByDocumentIdOrderByPageNumber(doc.getId());
+
+        assertEquals(List.of("one", "two"), pages.stream().map(DocumentPage::getText).toList());
+    }
+
+    @Test
+    void contentBlob_OfferedForPurgeAfterLastReference() {
+        // addReference is PostgreSQL-only (ON CONFLICT), so start from a row already holding two references
+        ContentBlob blob = new ContentBlob("abc123");
+        blob.setRefCount(2);
+        contentBlobRepository.saveAndFlush(blob);
+
+        contentBlobRepository.decrementRefCount("abc123");
+        assertTrue(contentBlobRepository.findByRefCountLessThanEqual(0, PageRequest.of(0, 10)).isEmpty());
+        contentBlobRepository.decrementRefCount("abc123");
+        assertEquals(List.of("abc123"), contentBlobRepository.findByRefCountLessThanEqual(0, PageRequest.of(0, 10))
+                .stream().map(ContentBlob::getHash).toList());
+    }
+
+    @Test
+    void findFirstByContentHash_OnlyRecognisedDocuments() {
+        Document pending = newDocument("pending");
+        pending.setContentHash("abc123");
+        documentRepository.save(pending);
+        assertTrue(documentRepository.findFirstByContentHashAndOcrTextIsNotNull("abc123").isEmpty());
+
+        Document done = newDocument("done");
+        done.setContentHash("abc123");
+        done.setOcrText("text");
+        documentRepository.save(done);
+        assertEquals("done", documentRepository.findFirstByContentHashAndOcrTextIsNotNull("abc123").orElseThrow().getTitle());
+    }
+
+    @Test
+    void findByContentHashIn_OnlyRecognisedDocuments() {
+        Document recognised = newDocument("recognised");
+        recognised.setContentHash("abc123");
+        recognised.setOcrText("text");
+        Document pending = newDocument("pending");
+        pending.setContentHash("def456");
+        Document other = newDocument("other");
+        other.setContentHash("fff000");
+        other.setOcrText("text");
+        documentRepository.saveAll(List.of(recognised, pending, other));
+
+        List<Document> found = documentRepository.findByContentHashInAndOcrTextIsNotNull(List.of("abc123", "def456"));
+
+        assertEquals(List.of("recognised"), found.stream().map(Document::getTitle).toList());
+    }
+
+    @Test
+    void summaries_KeysetPagesNewestFirst() {
+        LocalDateTime now = LocalDateTime.of(2024, 5, 1, 12, 0);
+        Document oldest = saveUploadedAt("oldest", now.minusDays(1));
+        Document tieLow = saveUploadedAt("tie-low", now);
+        Document tieHigh = saveUploadedAt("tie-high", now);
+        tieHigh.setOcrText("recognised");
+        documentRepository.save(tieHigh);
+
+        List<DocumentSummary> first = documentRepository.findLatestSummaries(Limit.of(2));
+        assertEquals(List.of(tieHigh.getId(), tieLow.getId()), first.stream().map(DocumentSummary::getId).toList());
+        assertTrue(first.get(0).isOcrComplete());
+        assertFalse(first.get(1).isOcrComplete());
+
+        DocumentSummary last = first.get(1);
+        List<DocumentSummary> next = documentRepository.findSummariesBefore(last.getUploadedAt(), last.getId(), Limit.of(2));
+        assertEquals(List.of(oldest.getId()), next.stream().map(DocumentSummary::getId).toList());
+    }
+
+    @Test
+    void searchSummaries_Pageable_ReturnsSlice() {
+        saveUploadedAt("invoice one", LocalDateTime.now());
+        saveUploadedAt("invoice two", LocalDateTime.now());
+        saveUploadedAt("receipt", LocalDateTime.now());
+
+        Slice<DocumentSummary> page = documentRepository.searchSummaries("invoice", PageRequest.of(0, 1));
+
+        assertEquals(1, page.getContent().size());
+        assertTrue(page.hasNext());
+    }
+
+    @Test
+    void findAllSummaries_ReturnsRequestedPageOnly() {
+        LocalDateTime now = LocalDateTime.of(2024, 5, 1, 12, 0);
+        saveUploadedAt("oldest", now.minusDays(2));
+        Document middle = saveUploadedAt("middle", now.minusDays(1));
+        saveUploadedAt("newest", now);
+
+        List<DocumentSummary> page = documentRepository.findAllSummaries(
+                PageRequest.of(1, 1, Sort.by(Sort.Direction.DESC, "uploadedAt")));
+
+        assertEquals(List.of(middle.getId()), page.stream().map(DocumentSummary::getId).toList());
+    }
+
+    private Document saveUploadedAt(String title, LocalDateTime uploadedAt) {
+        Document doc = newDocument(title);
+        doc.setUploadedAt(uploadedAt);
+        return documentRepository.save(doc);
+    }
+
+    private static Document newDocument(String title) {
+        Document doc = new Document();
+        doc.setTitle(title);
+        doc.setStoragePath("path/" + title);
+        doc.setUploadedAt(LocalDateTime.now());
+        return doc;
+    }
+
+    private static DocumentPage newPage(Document doc, int pageNumber, String text) {
+        DocumentPage page = new DocumentPage();
+        page.setDocument(doc);
+        page.setPageNumber(pageNumber);
+        page.setText(text);
+        return page;
+    }
+}
@@ -0,0 +1,70 @@
+package com.project.document_management.repository;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.Savepoint;
+
+import com.project.document_management.config.PostgresSchemaInitializer;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+class DocumentSearchRepositoryUnitTest {
+
+    private final NamedParameterJdbcTemplate namedJdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+    private final Connection connection = mock(Connection.class);
+    private final Savepoint savepoint = mock(Savepoint.class);
+    private DocumentSearchRepository repository;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(namedJdbcTemplate.getJdbcTemplate()).thenReturn(jdbcTemplate);
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenAnswer(invocation ->
+                invocation.getArgument(0, ConnectionCallback.class).doInConnection(connection));
+        when(connection.setSavepoint()).thenReturn(savepoint);
+        repository = new DocumentSearchRepository(namedJdbcTemplate, mock(PostgresSchemaInitializer.class));
+        ReflectionTestUtils.setField(repository, "entityManager", mock(EntityManager.class));
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    @Test
+    void updateSearchVector_InTransaction_ReleasesSavepoint() throws Exception {
+        repository.updateSearchVector(1L, "scan", "text");
+
+        verify(connection).releaseSavepoint(savepoint);
+        verify(connection, never()).rollback(any(Savepoint.class));
+    }
+
+    @Test
+    void updateSearchVector_StatementFails_RollsBackToSavepointOnly() throws Exception {
+        when(namedJdbcTemplate.update(anyString(), any(SqlParameterSource.class)))
+                .thenThrow(new DataIntegrityViolationException("string is too long for tsvector"));
+
+        assertThrows(DataIntegrityViolationException.class, () -> repository.updateSearchVector(1L, "scan", "text"));
+
+        // The surrounding transaction can still commit the document
+        verify(connection).rollback(savepoint);
+        verify(connection, never()).rollback();
+    }
+}
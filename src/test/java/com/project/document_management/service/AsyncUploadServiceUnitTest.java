@@ -0,0 +1,120 @@
+package com.project.document_management.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import com.project.document_management.model.Document;
+import com.project.document_management.model.ProcessingStatus;
+import com.project.document_management.model.UploadStatus;
+import com.project.document_management.repository.DocumentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.mock.web.MockMultipartFile;
+
+class AsyncUploadServiceUnitTest {
+
+    @TempDir
+    Path tempDir;
+
+    private DocumentService documentService;
+    private FileStorageService fileStorageService;
+    private DocumentRepository documentRepository;
+    private final List<Runnable> queued = new ArrayList<>();
+    private AsyncUploadService service;
+    private Path staged;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        documentService = mock(DocumentService.class);
+        fileStorageService = mock(FileStorageService.class);
+        documentRepository = mock(DocumentRepository.class);
+        staged = Files.writeString(tempDir.resolve("upload.part"), "content");
+        when(fileStorageService.stage(any())).thenReturn(staged);
+        when(fileStorageService.describe(staged)).thenReturn(new StoredFile(staged.toString(), 7, "abc"));
+        // Runs handed-off work only when the test says so
+        TaskExecutor executor = queued::add;
+        service = new AsyncUploadService(documentService, fileStorageService, documentRepository, executor,
+                Duration.ofHours(1));
+    }
+
+    @Test
+    void submit_ReturnsBeforeHashingOrSaving() throws IOException {
+        UploadStatus status = service.submit(new MockMultipartFile("file", "a.txt", "text/plain", "content".getBytes()), "A");
+
+        assertEquals(ProcessingStatus.RECEIVED, status.getState());
+        assertEquals(1, queued.size());
+        verify(fileStorageService, never()).describe(any());
+        verifyNoInteractions(documentService);
+        assertEquals(ProcessingStatus.RECEIVED, service.getStatus(status.getToken()).orElseThrow().getState());
+    }
+
+    @Test
+    void submit_WorkerSavesDocument_StatusFollowsDocument() throws IOException {
+        Document document = new Document();
+        document.setId(7L);
+        document.setProcessingStatus(ProcessingStatus.QUEUED);
+        when(documentService.saveStagedUpload(any(), eq("A"), eq("a.txt"), eq("text/plain"))).thenReturn(document);
+
+        UploadStatus status = service.submit(new MockMultipartFile("file", "a.txt", "text/plain", "content".getBytes()), "A");
+        queued.forEach(Runnable::run);
+
+        when(documentRepository.findProcessingStatusById(7L)).thenReturn(Optional.of(ProcessingStatus.OCR_RUNNING));
+        UploadStatus current = service.getStatus(status.getToken()).orElseThrow();
+        assertEquals(7L, current.getDocumentId());
+        assertEquals(ProcessingStatus.OCR_RUNNING, current.getState());
+    }
+
+    @Test
+    void submit_WorkerFails_ReportsFailedAndRemovesStagedFile() throws IOException {
+        when(documentService.saveStagedUpload(any(), any(), any(), any())).thenThrow(new IllegalStateException("db down"));
+
+        UploadStatus status = service.submit(new MockMultipartFile("file", "a.txt", "text/plain", "content".getBytes()), "A");
+        queued.forEach(Runnable::run);
+
+        UploadStatus current = service.getStatus(status.getToken()).orElseThrow();
+        assertEquals(ProcessingStatus.FAILED, current.getState());
+        assertEquals("db down", current.getError());
+        assertFalse(Files.exists(staged));
+    }
+
+    @Test
+    void submit_QueueFull_RejectsAndRemovesStagedFile() {
+        service = new AsyncUploadService(documentService, fileStorageService, documentRepository, task -> {
+            throw new TaskRejectedException("full");
+        }, Duration.ofHours(1));
+
+        assertThrows(TaskRejectedException.class, () ->
+                service.submit(new MockMultipartFile("file", "a.txt", "text/plain", "content".getBytes()), "A"));
+        assertFalse(Files.exists(staged));
+    }
+
+    @Test
+    void submit_EmptyStream_Rejected() throws IOException {
+        StoredFile empty = new StoredFile(staged.toString(), 0, "e3b0");
+        when(fileStorageService.store(any(), eq("a.txt"))).thenReturn(empty);
+
+        assertThrows(IllegalArgumentException.class, () ->
+                service.submit(new ByteArrayInputStream(new byte[0]), "a.txt", "text/plain", "A"));
+        verify(fileStorageService).discard(empty);
+        assertTrue(queued.isEmpty());
+    }
+
+    @Test
+    void getStatus_UnknownToken_Empty() {
+        assertTrue(service.getStatus("nope").isEmpty());
+    }
+}
@@ -0,0 +1,114 @@
+package com.project.document_management.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.project.document_management.model.Document;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class BatchUploadServiceUnitTest {
+
+    @Mock
+    private DocumentService documentService;
+
+    @Mock
+    private FileStorageService fileStorageService;
+
+    private BatchUploadService batchUploadService;
+
+    @BeforeEach
+    void setUp() {
+        batchUploadService = new BatchUploadService(documentService, fileStorageService, new SimpleMeterRegistry(), 2);
+    }
+
+    @Test
+    void uploadZip_StoresEachEntryAndSavesOneBatch() throws IOException {
+        byte[] zip = zip("scans/invoice.pdf", "scans/", "receipt.png");
+        when(fileStorageService.store(any(InputStream.class), any())).thenAnswer(invocation -> {
+            InputStream entry = invocation.getArgument(0);
+            byte[] content = entry.readAllBytes();
+            entry.close(); // must not close the archive
+            return new StoredFile("staged/" + invocation.getArgument(1), content.length, "hash");
+        });
+        when(documentService.saveStagedUploads(anyList())).thenReturn(List.of(new Document(), new Document()));
+
+        batchUploadService.uploadZip(new ByteArrayInputStream(zip));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<PendingUpload>> batch = ArgumentCaptor.forClass(List.class);
+        verify(documentService).saveStagedUploads(batch.capture());
+        List<PendingUpload> uploads = batch.getValue();
+        assertEquals(List.of("invoice", "receipt"), uploads.stream().map(PendingUpload::getTitle).toList());
+        assertEquals(List.of("application/pdf", "image/png"),
+                uploads.stream().map(PendingUpload::getContentType).toList());
+        assertEquals("invoice.pdf".length(), uploads.get(0).getStored().getSize());
+    }
+
+    @Test
+    void uploadZip_TooManyEntries_DiscardsStoredFiles() throws IOException {
+        byte[] zip = zip("a.pdf", "b.pdf", "c.pdf");
+        StoredFile stored = new StoredFile("staged", 5, "hash");
+        when(fileStorageService.store(any(InputStream.class), any())).thenReturn(stored);
+
+        assertThrows(IllegalArgumentException.class, () -> batchUploadService.uploadZip(new ByteArrayInputStream(zip)));
+
+        verify(fileStorageService, times(2)).discard(stored);
+        verify(documentService, never()).saveStagedUploads(anyList());
+    }
+
+    @Test
+    void upload_MultipartFiles_TitledByFilename() throws IOException {
+        MultipartFile file = mock(MultipartFile.class);
+        when(file.getOriginalFilename()).thenReturn("contract.final.pdf");
+        when(file.getContentType()).thenReturn("application/pdf");
+        when(fileStorageService.store(file)).thenReturn(new StoredFile("staged", 5, "hash"));
+        when(documentService.saveStagedUploads(anyList())).thenReturn(List.of(new Document()));
+
+        batchUploadService.upload(List.of(file));
+
+        verify(documentService).saveStagedUploads(argThat(uploads ->
+                uploads.size() == 1 && "contract.final".equals(uploads.get(0).getTitle())));
+    }
+
+    // Every entry's content is its own name, so sizes are predictable
+    private static byte[] zip(String... names) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream out = new ZipOutputStream(bytes)) {
+            for (String name : names) {
+                out.putNextEntry(new ZipEntry(name));
+                if (!name.endsWith("/")) {
+                    out.write(name.substring(name.lastIndexOf('/') + 1).getBytes(StandardCharsets.UTF_8));
+                }
+                out.closeEntry();
+            }
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,82 @@
+package com.project.document_management.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Optional;
+
+import com.project.document_management.elastic.ElasticDocument;
+import com.project.document_management.model.Document;
+import com.project.document_management.repository.DocumentRepository;
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.json.jackson.JacksonJsonpMapper;
+import co.elastic.clients.transport.rest_client.RestClientTransport;
+import org.apache.http.HttpHost;
+import org.elasticsearch.client.RestClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.convert.MappingElasticsearchConverter;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.mapping.SimpleElasticsearchMappingContext;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class BulkIndexingServiceUnitTest {
+
+    private DocumentRepository documentRepository;
+    private BulkIndexingService bulkIndexingService;
+
+    @BeforeEach
+    void setUp() {
+        ElasticsearchOperations operations = mock(ElasticsearchOperations.class);
+        MappingElasticsearchConverter converter =
+                new MappingElasticsearchConverter(new SimpleElasticsearchMappingContext());
+        converter.afterPropertiesSet();
+        when(operations.getElasticsearchConverter()).thenReturn(converter);
+        when(operations.getIndexCoordinatesFor(ElasticDocument.class)).thenReturn(IndexCoordinates.of("documents"));
+        // Nothing listens there; with a large batch and a long interval operations stay buffered, where the test
+        // can count them, and are never sent
+        ElasticsearchClient client = new ElasticsearchClient(new RestClientTransport(
+                RestClient.builder(new HttpHost("localhost", 1)).build(), new JacksonJsonpMapper()));
+        bulkIndexingService = new BulkIndexingService(client, operations,
+                new SearchIndexVersion(), 1000, 10_000_000, 3_600_000);
+        documentRepository = mock(DocumentRepository.class);
+        ReflectionTestUtils.setField(bulkIndexingService, "documentRepository", documentRepository);
+    }
+
+
+    @Test
+    void resubmitUnindexed_DocumentLeftAtOcrDone_IndexedAgain() {
+        Document document = new Document();
+        document.setId(5L);
+        document.setOcrText("recognised text");
+        when(documentRepository.findIdsAwaitingIndex(any(), any())).thenReturn(List.of(5L));
+        when(documentRepository.findById(5L)).thenReturn(Optional.of(document));
+
+        bulkIndexingService.resubmitUnindexed();
+
+        assertEquals(1, bulkIndexingService.getPendingOperations());
+    }
+
+    @Test
+    void resubmitUnindexed_ThroughIndexingQueue_SkipsDocumentDeletedMeanwhile() {
+        IndexingQueue indexingQueue = mock(IndexingQueue.class);
+        ReflectionTestUtils.setField(bulkIndexingService, "indexingQueue", indexingQueue);
+        when(documentRepository.findIdsAwaitingIndex(any(), any())).thenReturn(List.of(5L));
+
+        bulkIndexingService.resubmitUnindexed();
+
+        ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+        verify(indexingQueue).submit(eq(5L), task.capture());
+        // Deleted before the queue got to it
+        when(documentRepository.findById(5L)).thenReturn(Optional.empty());
+        task.getValue().run();
+        assertEquals(0, bulkIndexingService.getPendingOperations());
+    }
+}
@@ -0,0 +1,73 @@
+package com.project.document_management.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.util.List;
+
+import com.project.document_management.model.ContentBlob;
+import com.project.document_management.repository.ContentBlobRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+class ContentStoreServiceUnitTest {
+
+    private FileStorageService fileStorageService;
+    private ContentBlobRepository contentBlobRepository;
+    private ContentStoreService contentStoreService;
+
+    @BeforeEach
+    void setUp() {
+        fileStorageService = mock(FileStorageService.class);
+        contentBlobRepository = mock(ContentBlobRepository.class);
+        contentStoreService = new ContentStoreService(fileStorageService, contentBlobRepository,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)));
+    }
+
+    @Test
+    void acquire_CountsReferenceInOneStatement() throws IOException {
+        StoredFile staged = new StoredFile("staged", 7, "abc123");
+        when(contentBlobRepository.addReference("abc123")).thenReturn(1);
+        when(fileStorageService.promote(staged)).thenReturn("blob_path");
+
+        assertEquals("blob_path", contentStoreService.acquire(staged));
+        verify(contentBlobRepository).addReference("abc123");
+        verifyNoMoreInteractions(contentBlobRepository);
+    }
+
+    @Test
+    void release_OnlyCountsDown() throws IOException {
+        contentStoreService.release("abc123");
+
+        verify(contentBlobRepository).decrementRefCount("abc123");
+        // Deleting the file here would break the document if the delete rolled back
+        verify(fileStorageService, never()).deleteBlob(any());
+    }
+
+    @Test
+    void purgeUnreferenced_DeletesFileThenRow() throws IOException {
+        ContentBlob blob = new ContentBlob("abc123");
+        when(contentBlobRepository.findByRefCountLessThanEqual(eq(0), any())).thenReturn(List.of(blob));
+
+        contentStoreService.purgeUnreferenced();
+
+        verify(fileStorageService).deleteBlob("abc123");
+        verify(contentBlobRepository).deleteAllInBatch(List.of(blob));
+    }
+
+    @Test
+    void purgeUnreferenced_FileNotDeleted_KeepsRow() throws IOException {
+        ContentBlob blob = new ContentBlob("abc123");
+        when(contentBlobRepository.findByRefCountLessThanEqual(eq(0), any())).thenReturn(List.of(blob));
+        doThrow(new IOException("busy")).when(fileStorageService).deleteBlob("abc123");
+
+        contentStoreService.purgeUnreferenced();
+
+        verify(contentBlobRepository).deleteAllInBatch(List.of());
+    }
+}
@@ -1,15 +1,33 @@
 package com.project.document_management.service;
 
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.project.document_management.elastic.ElasticDocument;
 import com.project.document_management.elastic.ElasticDocumentRepository;
 import com.project.document_management.model.Document;
+import com.project.document_management.repository.DocumentSearchRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 @ExtendWith(MockitoExtension.class)
 class DocumentEventListenerUnitTest {
@@ -17,9 +35,18 @@ class DocumentEventListenerUnitTest {
     @Mock
     private ElasticDocumentRepository elasticRepo;
 
+    @Mock
+    private BulkIndexingService bulkIndexingService;
+
+    @Mock
+    private DocumentSearchRepository documentSearchRepository;
+
     @InjectMocks
     private DocumentEventListener listener;
 
+    @TempDir
+    Path tempDir;
+
     @Test
     void handleDocumentUpdate_SavesToElasticsearch() {
         Document doc = new Document();
@@ -28,4 +55,89 @@ class DocumentEventListenerUnitTest {
         listener.handleDocumentUpdate(doc);
         verify(elasticRepo).save(any());
     }
-}
\ No newline at end of file
+
+    @Test
+    void handleDocumentUpdate_WithOcrText_QueuesForBulkIndexing() {
+        Document doc = new Document();
+        doc.setId(1L);
+        doc.setTitle("scan");
+        doc.setOcrText("recognised text");
+
+        listener.handleDocumentUpdate(doc);
+
+        verify(bulkIndexingService).index(argThat((ElasticDocument e) ->
+                "1".equals(e.getId()) && "recognised text".equals(e.getOcrText())));
+        verify(elasticRepo, never()).save(any());
+    }
+
+    @Test
+    void handleDocumentUpdate_WithIndexingQueue_IndexesOnlyWhenQueueRuns() {
+        IndexingQueue indexingQueue = mock(IndexingQueue.class);
+        ReflectionTestUtils.setField(listener, "indexingQueue", indexingQueue);
+        Document doc = new Document();
+        doc.setId(1L);
+        doc.setOcrText("recognised text");
+
+        listener.handleDocumentUpdate(doc);
+
+        ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+        verify(indexingQueue).submit(eq(1L), task.capture());
+        verify(bulkIndexingService, never()).index(any());
+
+        task.getValue().run();
+        verify(bulkIndexingService).index(argThat((ElasticDocument e) -> "1".equals(e.getId())));
+    }
+
+    @Test
+    void handleDocumentDeleted_RemovesIndexEntryAndFile() throws IOException {
+        Path file = Files.createTempFile(tempDir, "upload", ".txt");
+
+        listener.handleDocumentDeleted(new DocumentDeletedEvent(1L, file.toString()));
+
+        // Through the bulk indexer, behind any index operation still buffered there
+        verify(bulkIndexingService).delete("1");
+        verify(elasticRepo, never()).deleteById(any());
+        assertFalse(Files.exists(file));
+    }
+
+    @Test
+    void handleDocumentDeleted_UpdateStillQueued_OnlyDeleteReachesIndex() {
+        List<Runnable> tasks = new ArrayList<>();
+        ReflectionTestUtils.setField(listener, "indexingQueue", new IndexingQueue(tasks::add, new SimpleMeterRegistry()));
+        Document doc = new Document();
+        doc.setId(1L);
+        doc.setOcrText("recognised text");
+
+        listener.handleDocumentUpdate(doc);
+        listener.handleDocumentDeleted(new DocumentDeletedEvent(1L, null));
+        for (int i = 0; i < tasks.size(); i++) {
+            tasks.get(i).run();
+        }
+
+        verify(bulkIndexingService, never()).index(any());
+        verify(bulkIndexingService).delete("1");
+    }
+
+    @Test
+    void updateFullTextIndex_PostgresAvailable_UpdatesSearchVector() {
+        Document doc = new Document();
+        doc.setId(1L);
+        doc.setTitle("scan");
+        doc.setOcrText("recognised text");
+        when(documentSearchRepository.isAvailable()).thenReturn(true);
+
+        listener.updateFullTextIndex(doc);
+
+        verify(documentSearchRepository).updateSearchVector(1L, "scan", "recognised text");
+    }
+
+    @Test
+    void updateFullTextIndex_NotPostgres_DoesNothing() {
+        Document doc = new Document();
+        doc.setId(1L);
+
+        listener.updateFullTextIndex(doc);
+
+        verify(documentSearchRepository, never()).updateSearchVector(any(), any(), any());
+    }
+}
@@ -2,23 +2,49 @@ package com.project.document_management.service;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
+import com.project.document_management.model.CursorPage;
 import com.project.document_management.model.Document;
+import com.project.document_management.model.DocumentPage;
+import com.project.document_management.model.DocumentSummary;
+import com.project.document_management.model.OutboxMessage;
+import com.project.document_management.repository.DocumentPageRepository;
 import com.project.document_management.repository.DocumentRepository;
+import com.project.document_management.repository.DocumentSearchRepository;
+import com.project.document_management.repository.OutboxMessageRepository;
 import com.project.document_management.elastic.ElasticDocumentRepository;
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.TraceContext;
+import io.micrometer.tracing.Tracer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 
 class DocumentServiceUnitTest {
@@ -29,6 +55,9 @@ class DocumentServiceUnitTest {
     @Mock
     private RabbitTemplate rabbitTemplate;
 
+    @Mock
+    private OutboxMessageRepository outboxMessageRepository;
+
     @Mock
     private ApplicationEventPublisher eventPublisher;
 
@@ -38,6 +67,15 @@ class DocumentServiceUnitTest {
     @Mock
     private ElasticDocumentRepository elasticDocumentRepository;
 
+    @Mock
+    private DocumentPageRepository documentPageRepository;
+
+    @Mock
+    private ContentStoreService contentStoreService;
+
+    @Mock
+    private DocumentSearchRepository documentSearchRepository;
+
     @InjectMocks
     private DocumentService documentService;
 
@@ -46,13 +84,17 @@ class DocumentServiceUnitTest {
         MockitoAnnotations.openMocks(this);
         // Ensure the ElasticDocumentRepository is injected into documentService
         ReflectionTestUtils.setField(documentService, "elasticDocumentRepository", elasticDocumentRepository);
+        ReflectionTestUtils.setField(documentService, "documentPageRepository", documentPageRepository);
+        ReflectionTestUtils.setField(documentService, "transactionTemplate",
+                new TransactionTemplate(mock(PlatformTransactionManager.class)));
     }
 
     @Test
     void uploadDocument_ValidFile_ReturnsDocument() throws IOException {
         MultipartFile file = mock(MultipartFile.class);
         when(file.isEmpty()).thenReturn(false);
-        when(fileStorageService.storeFile(any())).thenReturn("test_path");
+        when(fileStorageService.store(any(MultipartFile.class))).thenReturn(new StoredFile("test_path", 7, "abc123"));
+        when(contentStoreService.acquire(any())).thenReturn("blob_path");
 
         // Create a document with an ID to avoid NPEs
         Document savedDocument = new Document();
@@ -62,8 +104,159 @@ class DocumentServiceUnitTest {
         Document result = documentService.uploadDocument(file, "test");
         assertNotNull(result);
         assertEquals(1L, result.getId());
-        // Verify that RabbitTemplate is called with the expected parameters.
-        verify(rabbitTemplate).convertAndSend(eq("documentQueue"), eq("1"));
+        verify(documentRepository).save(argThat((Document d) ->
+                "blob_path".equals(d.getStoragePath()) && "abc123".equals(d.getContentHash())));
+        // The OCR request goes to the outbox, not straight to the broker.
+        verify(outboxMessageRepository).save(argThat((OutboxMessage m) ->
+                "documentQueue".equals(m.getQueue()) && "1".equals(m.getPayload())));
+        verifyNoInteractions(rabbitTemplate);
+    }
+
+    @Test
+    void uploadDocument_RawBody_StagesBeforeTransactionStarts() throws IOException {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        ReflectionTestUtils.setField(documentService, "transactionTemplate", new TransactionTemplate(transactionManager));
+        InputStream body = new ByteArrayInputStream("content".getBytes());
+        when(fileStorageService.store(body, "scan.pdf")).thenReturn(new StoredFile("test_path", 7, "abc123"));
+        when(contentStoreService.acquire(any())).thenReturn("blob_path");
+        Document savedDocument = new Document();
+        savedDocument.setId(1L);
+        when(documentRepository.save(any())).thenReturn(savedDocument);
+
+        documentService.uploadDocument(body, "scan.pdf", "application/pdf", "scan");
+
+        InOrder inOrder = inOrder(fileStorageService, transactionManager, contentStoreService);
+        inOrder.verify(fileStorageService).store(body, "scan.pdf");
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(contentStoreService).acquire(any());
+        inOrder.verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void uploadDocument_WithinTrace_TimesSaveAndCarriesTraceParent() throws IOException {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ObservationRegistry observationRegistry = ObservationRegistry.create();
+        observationRegistry.observationConfig().observationHandler(new DefaultMeterObservationHandler(meterRegistry));
+        ReflectionTestUtils.setField(documentService, "observationRegistry", observationRegistry);
+        Tracer tracer = mock(Tracer.class);
+        Span span = mock(Span.class);
+        TraceContext traceContext = mock(TraceContext.class);
+        when(tracer.currentSpan()).thenReturn(span);
+        when(span.context()).thenReturn(traceContext);
+        when(traceContext.traceId()).thenReturn("4bf92f3577b34da6a3ce929d0e0e4736");
+        when(traceContext.spanId()).thenReturn("00f067aa0ba902b7");
+        when(traceContext.sampled()).thenReturn(true);
+        ReflectionTestUtils.setField(documentService, "tracer", tracer);
+        MultipartFile file = mock(MultipartFile.class);
+        when(fileStorageService.store(any(MultipartFile.class))).thenReturn(new StoredFile("test_path", 7, "abc123"));
+        when(contentStoreService.acquire(any())).thenReturn("blob_path");
+        Document savedDocument = new Document();
+        savedDocument.setId(1L);
+        when(documentRepository.save(any())).thenReturn(savedDocument);
+
+        documentService.uploadDocument(file, "test");
+
+        verify(outboxMessageRepository).save(argThat((OutboxMessage m) ->
+                "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01".equals(m.getTraceParent())));
+        assertEquals(1, meterRegistry.get("document.pipeline").tag("stage", "db.save").timer().count());
+    }
+
+    @Test
+    void uploadDocument_DuplicateContent_ReusesOcrText() throws IOException {
+        MultipartFile file = mock(MultipartFile.class);
+        when(file.isEmpty()).thenReturn(false);
+        when(fileStorageService.store(any(MultipartFile.class))).thenReturn(new StoredFile("test_path", 7, "abc123"));
+        when(contentStoreService.acquire(any())).thenReturn("blob_path");
+        Document original = new Document();
+        original.setId(1L);
+        original.setOcrText("invoice text");
+        original.setOcrPagesTotal(2);
+        when(documentRepository.findFirstByContentHashAndOcrTextIsNotNull("abc123")).thenReturn(Optional.of(original));
+        when(documentRepository.save(any())).thenAnswer(invocation -> {
+            Document saved = invocation.getArgument(0);
+            saved.setId(2L);
+            return saved;
+        });
+
+        Document result = documentService.uploadDocument(file, "copy");
+
+        assertEquals("invoice text", result.getOcrText());
+        assertEquals(2, result.getOcrPagesDone());
+        verifyNoInteractions(outboxMessageRepository);
+        verify(eventPublisher).publishEvent(result); // still indexed
+    }
+
+    @Test
+    void saveStagedUploads_SavesBatchAndQueuesOnlyUnrecognised() throws IOException {
+        when(contentStoreService.acquire(any())).thenAnswer(invocation ->
+                "blob_" + invocation.<StoredFile>getArgument(0).getSha256());
+        Document original = new Document();
+        original.setContentHash("bbb");
+        original.setOcrText("known text");
+        when(documentRepository.findByContentHashInAndOcrTextIsNotNull(any())).thenReturn(List.of(original));
+        when(documentRepository.saveAll(any())).thenAnswer(invocation -> {
+            List<Document> documents = invocation.getArgument(0);
+            long id = 1;
+            for (Document document : documents) {
+                document.setId(id++);
+            }
+            return documents;
+        });
+
+        List<Document> saved = documentService.saveStagedUploads(List.of(
+                new PendingUpload(new StoredFile("p1", 1, "ccc"), "first", "first.pdf", "application/pdf"),
+                new PendingUpload(new StoredFile("p2", 2, "bbb"), "second", "second.pdf", "application/pdf"),
+                new PendingUpload(new StoredFile("p3", 3, "aaa"), "third", "third.pdf", "application/pdf")));
+
+        assertEquals(List.of("first", "second", "third"), saved.stream().map(Document::getTitle).toList());
+        assertEquals("blob_ccc", saved.get(0).getStoragePath());
+        assertEquals("known text", saved.get(1).getOcrText());
+        // Blob rows are locked in hash order
+        var order = inOrder(contentStoreService);
+        order.verify(contentStoreService).acquire(argThat(stored -> stored != null && "aaa".equals(stored.getSha256())));
+        order.verify(contentStoreService).acquire(argThat(stored -> stored != null && "bbb".equals(stored.getSha256())));
+        order.verify(contentStoreService).acquire(argThat(stored -> stored != null && "ccc".equals(stored.getSha256())));
+        verify(documentRepository, never()).save(any());
+        verify(outboxMessageRepository).saveAll(argThat((List<OutboxMessage> messages) ->
+                messages.stream().map(OutboxMessage::getPayload).toList().equals(List.of("1", "3"))));
+        verify(eventPublisher, times(3)).publishEvent(any(Document.class));
+    }
+
+    @Test
+    void saveStagedUploads_WithRouter_QueuesBatchAsBulkByPosition() throws IOException {
+        ReflectionTestUtils.setField(documentService, "ocrQueueRouter", new OcrQueueRouter(DataSize.ofMegabytes(5)));
+        when(contentStoreService.acquire(any())).thenReturn("blob_path");
+        when(documentRepository.saveAll(any())).thenAnswer(invocation -> {
+            List<Document> documents = invocation.getArgument(0);
+            long id = 1;
+            for (Document document : documents) {
+                document.setId(id++);
+            }
+            return documents;
+        });
+
+        documentService.saveStagedUploads(List.of(
+                new PendingUpload(new StoredFile("p1", 1, "aaa"), "first", "first.pdf", null),
+                new PendingUpload(new StoredFile("p2", 2, "bbb"), "second", "second.pdf", null)));
+
+        verify(outboxMessageRepository).saveAll(argThat((List<OutboxMessage> messages) ->
+                messages.stream().allMatch(m -> "documentBulkQueue".equals(m.getQueue()))
+                        && messages.stream().map(OutboxMessage::getPriority).toList().equals(List.of(9, 8))));
+    }
+
+    @Test
+    void saveStagedUploads_AcquireFails_DiscardsTheRest() throws IOException {
+        StoredFile first = new StoredFile("p1", 1, "aaa");
+        StoredFile second = new StoredFile("p2", 2, "bbb");
+        when(contentStoreService.acquire(first)).thenThrow(new IOException("disk full"));
+
+        assertThrows(IOException.class, () -> documentService.saveStagedUploads(List.of(
+                new PendingUpload(second, "second", "second.pdf", null),
+                new PendingUpload(first, "first", "first.pdf", null))));
+
+        verify(fileStorageService).discard(first);
+        verify(fileStorageService).discard(second);
+        verifyNoInteractions(outboxMessageRepository);
     }
 
     @Test
@@ -84,6 +277,22 @@ class DocumentServiceUnitTest {
         assertEquals("test text", documentService.getOCRText(1L));
     }
 
+    @Test
+    void getOCRText_OcrInProgress_ReturnsPagesSoFar() {
+        Document doc = new Document();
+        doc.setId(1L);
+        when(documentRepository.findById(1L)).thenReturn(Optional.of(doc));
+        DocumentPage first = new DocumentPage();
+        first.setPageNumber(1);
+        first.setText("page one ");
+        DocumentPage third = new DocumentPage();
+        third.setPageNumber(3);
+        third.setText("page three");
+        when(documentPageRepository.findByDocumentIdOrderByPageNumber(1L)).thenReturn(List.of(first, third));
+
+        assertEquals("page one page three", documentService.getOCRText(1L));
+    }
+
     @Test
     void deleteDocument_ValidId_DeletesResources() {
         Document doc = new Document();
@@ -93,8 +302,72 @@ class DocumentServiceUnitTest {
 
         documentService.deleteDocument(1L);
         verify(documentRepository).delete(any());
-        // Verify that the ElasticDocumentRepository's deleteById method is called with the document's ID as a String.
-        verify(elasticDocumentRepository).deleteById(eq("1"));
+        // The file and the index entry are removed by the after-commit listener, not inside the transaction
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof DocumentDeletedEvent deleted
+                && deleted.getDocumentId() == 1L && "test_path".equals(deleted.getStoragePath())));
+        verifyNoInteractions(elasticDocumentRepository);
+    }
+
+    @Test
+    void deleteDocument_SharedBlob_ReleasesReference() throws IOException {
+        Document doc = new Document();
+        doc.setId(1L);
+        doc.setStoragePath("blob_path");
+        doc.setContentHash("abc123");
+        when(documentRepository.findById(1L)).thenReturn(Optional.of(doc));
+        when(fileStorageService.isBlob("blob_path")).thenReturn(true);
+
+        documentService.deleteDocument(1L);
+
+        verify(documentRepository).delete(doc);
+        verify(contentStoreService).release("abc123");
+        // The blob is left to ContentStoreService's purge
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof DocumentDeletedEvent deleted
+                && deleted.getStoragePath() == null));
+    }
+
+    @Test
+    void listDocuments_MoreRows_ReturnsCursorForNextPage() {
+        LocalDateTime uploadedAt = LocalDateTime.of(2024, 5, 1, 12, 0);
+        DocumentSummary newest = new DocumentSummary(3L, "c", null, 1L, "text/plain", uploadedAt, true);
+        DocumentSummary middle = new DocumentSummary(2L, "b", null, 1L, "text/plain", uploadedAt, true);
+        DocumentSummary oldest = new DocumentSummary(1L, "a", null, 1L, "text/plain", uploadedAt.minusDays(1), true);
+        when(documentRepository.findLatestSummaries(Limit.of(3))).thenReturn(List.of(newest, middle, oldest));
+
+        CursorPage<DocumentSummary> page = documentService.listDocuments(null, 2);
+        assertEquals(List.of(newest, middle), page.getItems());
+        assertNotNull(page.getNextCursor());
+
+        when(documentRepository.findSummariesBefore(uploadedAt, 2L, Limit.of(3))).thenReturn(List.of(oldest));
+        CursorPage<DocumentSummary> next = documentService.listDocuments(page.getNextCursor(), 2);
+        assertEquals(List.of(oldest), next.getItems());
+        assertNull(next.getNextCursor());
+    }
+
+    @Test
+    void getDocuments_FullTextAvailable_UsesRankedMatches() {
+        ReflectionTestUtils.setField(documentService, "documentSearchRepository", documentSearchRepository);
+        when(documentSearchRepository.isAvailable()).thenReturn(true);
+        DocumentSummary summary = new DocumentSummary(1L, "invoice", null, 1L, "application/pdf", LocalDateTime.now(), true);
+        Pageable secondPage = PageRequest.of(1, 50, Sort.by(Sort.Direction.DESC, "uploadedAt"));
+        when(documentSearchRepository.search("invoice", secondPage))
+                .thenReturn(new SliceImpl<>(List.of(summary), secondPage, true));
+
+        assertEquals(List.of(summary), documentService.getDocuments("invoice", "uploadedAt", "desc", 1, 50));
+        verify(documentRepository, never()).searchSummaries(any(String.class), any(Pageable.class));
+    }
+
+    @Test
+    void getDocuments_OversizedPage_CappedAtMaxPageSize() {
+        documentService.getDocuments("", "uploadedAt", "desc", 3, 10_000);
+
+        verify(documentRepository).findAllSummaries(
+                PageRequest.of(3, 200, Sort.by(Sort.Direction.DESC, "uploadedAt")));
+    }
+
+    @Test
+    void listDocuments_InvalidCursor_ThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> documentService.listDocuments("not-a-cursor", 10));
     }
 
     @Test
@@ -0,0 +1,144 @@
+package com.project.document_management.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.Map;
+
+import com.project.document_management.elastic.ElasticDocument;
+import com.project.document_management.elastic.ElasticDocumentRepository;
+import com.project.document_management.elastic.SearchResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.SearchHitsImpl;
+import org.springframework.data.elasticsearch.core.TotalHitsRelation;
+import org.springframework.data.elasticsearch.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class ElasticSearchServiceUnitTest {
+
+    private ElasticDocumentRepository repository;
+    private ElasticsearchOperations operations;
+    private SimpleMeterRegistry registry;
+    private ElasticSearchService service;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(ElasticDocumentRepository.class);
+        registry = new SimpleMeterRegistry();
+        service = new ElasticSearchService(new SearchIndexVersion(), registry, 1_000_000, 60_000);
+        operations = mock(ElasticsearchOperations.class);
+        ReflectionTestUtils.setField(service, "elasticDocumentRepository", repository);
+        ReflectionTestUtils.setField(service, "elasticsearchOperations", operations);
+        when(operations.search(any(Query.class), eq(ElasticDocument.class)))
+                .thenAnswer(invocation -> hits(document("1")));
+    }
+
+    @Test
+    void search_RepeatedQuery_ServedFromCache() {
+        Page<SearchResult> first = service.search("invoice  2024", PageRequest.of(0, 10), false, false);
+        Page<SearchResult> second = service.search(" invoice 2024 ", PageRequest.of(0, 10), false, false);
+
+        assertSame(first, second);
+        verify(operations, times(1)).search(any(Query.class), eq(ElasticDocument.class));
+        assertEquals(1.0, registry.get("cache.gets").tags("cache", "searchResults", "result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    void search_DifferentPageOrMode_NotShared() {
+        service.search("invoice", PageRequest.of(0, 10), false, false);
+        service.search("invoice", PageRequest.of(1, 10), false, false);
+        service.search("invoice", PageRequest.of(0, 10), true, false);
+        service.search("invoice", PageRequest.of(0, 10), false, true);
+
+        ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+        verify(operations, times(4)).search(queries.capture(), eq(ElasticDocument.class));
+        assertEquals("invoice", ((NativeQuery) queries.getAllValues().get(0)).getQuery().match().query().stringValue());
+        assertTrue(((NativeQuery) queries.getAllValues().get(2)).getQuery().isBool());
+    }
+
+    @Test
+    void search_ReturnsHighlightsWithoutFullText() {
+        SearchResult result = service.search("invoice", PageRequest.of(0, 10), false, false).getContent().get(0);
+
+        assertEquals("1", result.getId());
+        assertEquals(2.5f, result.getScore());
+        assertEquals(List.of("<em>invoice</em> 1", "text of <em>invoice</em>"), result.getHighlights());
+        assertNull(result.getOcrText());
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(operations).search(query.capture(), eq(ElasticDocument.class));
+        assertArrayEquals(new String[] {"ocrText"}, query.getValue().getSourceFilter().getExcludes());
+        assertTrue(query.getValue().getHighlightQuery().isPresent());
+    }
+
+    @Test
+    void search_Full_ReturnsTextAndFetchesWholeSource() {
+        SearchResult result = service.search("invoice", PageRequest.of(0, 10), false, true).getContent().get(0);
+
+        assertEquals("text of 1", result.getOcrText());
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(operations).search(query.capture(), eq(ElasticDocument.class));
+        assertNull(query.getValue().getSourceFilter());
+    }
+
+    @Test
+    void search_AfterIndexWrite_QueriesAgain() {
+        service.search("invoice", PageRequest.of(0, 10), false, false);
+        service.indexDocument(document("2"));
+        service.search("invoice", PageRequest.of(0, 10), false, false);
+        service.deleteDocument("2");
+        service.search("invoice", PageRequest.of(0, 10), false, false);
+
+        verify(operations, times(3)).search(any(Query.class), eq(ElasticDocument.class));
+    }
+
+    @Test
+    void suggestTitles_QueriesAutocompleteSubFieldForIdAndTitleOnly() {
+        List<SearchResult> suggestions = service.suggestTitles(" inv ", 50);
+
+        assertEquals(1, suggestions.size());
+        assertEquals("invoice 1", suggestions.get(0).getTitle());
+        assertNull(suggestions.get(0).getHighlights());
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(operations).search(query.capture(), eq(ElasticDocument.class));
+        NativeQuery nativeQuery = (NativeQuery) query.getValue();
+        assertEquals("title.autocomplete", nativeQuery.getQuery().match().field());
+        assertEquals("inv", nativeQuery.getQuery().match().query().stringValue());
+        assertEquals(20, nativeQuery.getPageable().getPageSize());
+        assertArrayEquals(new String[] {"id", "title"}, nativeQuery.getSourceFilter().getIncludes());
+    }
+
+    @Test
+    void suggestTitles_BlankPrefix_DoesNotQuery() {
+        assertTrue(service.suggestTitles("  ", 10).isEmpty());
+        verifyNoInteractions(operations);
+    }
+
+    private static SearchHits<ElasticDocument> hits(ElasticDocument document) {
+        SearchHit<ElasticDocument> hit = new SearchHit<>("documents", document.getId(), null, 2.5f, null,
+                Map.of("title", List.of("<em>invoice</em> " + document.getId()),
+                        "ocrText", List.of("text of <em>invoice</em>")),
+                null, null, null, null, document);
+        return new SearchHitsImpl<>(1, TotalHitsRelation.EQUAL_TO, 2.5f, null, null, List.of(hit), null, null);
+    }
+
+    private static ElasticDocument document(String id) {
+        ElasticDocument document = new ElasticDocument();
+        document.setId(id);
+        document.setTitle("invoice " + id);
+        document.setOcrText("text of " + id);
+        return document;
+    }
+}
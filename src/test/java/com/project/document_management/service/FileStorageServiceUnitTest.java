@@ -3,12 +3,18 @@ package com.project.document_management.service;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
 
 class FileStorageServiceUnitTest {
 
@@ -25,6 +31,57 @@ class FileStorageServiceUnitTest {
         assertTrue(path.contains("test.txt"));
     }
 
+    @Test
+    void store_Stream_HashesWhileWriting() throws IOException {
+        FileStorageService service = new FileStorageService();
+        byte[] content = "content".getBytes();
+
+        StoredFile stored = service.store(new ByteArrayInputStream(content), "test.txt");
+        try {
+            assertEquals(content.length, stored.getSize());
+            // sha256("content")
+            assertEquals("ed7002b439e9ac845f22357d822bac1444730fbdb6016d3ec9432297b9ec9f73", stored.getSha256());
+            assertArrayEquals(content, Files.readAllBytes(Path.of(stored.getPath())));
+        } finally {
+            Files.deleteIfExists(Path.of(stored.getPath()));
+        }
+    }
+
+    @Test
+    void store_StreamOverLimit_RejectsAndCleansUp() throws IOException {
+        FileStorageService service = new FileStorageService();
+        ReflectionTestUtils.setField(service, "maxUploadSize", DataSize.ofBytes(4));
+        long before;
+        try (Stream<Path> files = Files.list(service.getIncomingLocation())) {
+            before = files.count();
+        }
+
+        assertThrows(MaxUploadSizeExceededException.class, () ->
+                service.store(new ByteArrayInputStream("content".getBytes()), "test.txt"));
+        try (Stream<Path> files = Files.list(service.getIncomingLocation())) {
+            assertEquals(before, files.count());
+        }
+    }
+
+    @Test
+    void promote_SameContentTwice_StoresOneBlob() throws IOException {
+        FileStorageService service = new FileStorageService();
+        byte[] content = ("duplicate " + System.nanoTime()).getBytes();
+
+        StoredFile first = service.store(new ByteArrayInputStream(content), "a.pdf");
+        StoredFile second = service.store(new ByteArrayInputStream(content), "b.pdf");
+        String firstBlob = service.promote(first);
+        String secondBlob = service.promote(second);
+        try {
+            assertEquals(firstBlob, secondBlob);
+            assertTrue(service.isBlob(firstBlob));
+            assertArrayEquals(content, Files.readAllBytes(Path.of(firstBlob)));
+            assertFalse(Files.exists(Path.of(second.getPath())));
+        } finally {
+            service.deleteBlob(first.getSha256());
+        }
+    }
+
     @Test
     void sanitizeFilename_InvalidChars_ReplacesUnderscores() {
         FileStorageService service = new FileStorageService();
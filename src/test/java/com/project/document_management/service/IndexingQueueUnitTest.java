@@ -0,0 +1,141 @@
+package com.project.document_management.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class IndexingQueueUnitTest {
+
+    // Runs tasks only when told to, so the test decides what is waiting
+    private static class ManualExecutor implements TaskExecutor {
+        final Queue<Runnable> tasks = new ArrayDeque<>();
+        int capacity = Integer.MAX_VALUE;
+
+        @Override
+        public void execute(Runnable task) {
+            if (tasks.size() >= capacity) {
+                throw new TaskRejectedException("full");
+            }
+            tasks.add(task);
+        }
+
+        void runAll() {
+            Runnable task;
+            while ((task = tasks.poll()) != null) {
+                task.run();
+            }
+        }
+    }
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void submit_RepeatedUpdatesWhileWaiting_RunsOnlyTheNewest() {
+        ManualExecutor executor = new ManualExecutor();
+        IndexingQueue queue = new IndexingQueue(executor, meterRegistry);
+        List<String> indexed = new ArrayList<>();
+
+        queue.submit(1L, () -> indexed.add("v1"));
+        queue.submit(1L, () -> indexed.add("v2"));
+        queue.submit(1L, () -> indexed.add("v3"));
+        queue.submit(2L, () -> indexed.add("other"));
+
+        assertEquals(2, executor.tasks.size());
+        assertEquals(2, queue.getPending());
+        executor.runAll();
+
+        assertEquals(List.of("v3", "other"), indexed);
+        assertEquals(0, queue.getPending());
+        assertEquals(2.0, meterRegistry.counter("indexing.queue.coalesced").count());
+    }
+
+    @Test
+    void submit_ExecutorFull_DropsAndCounts() {
+        ManualExecutor executor = new ManualExecutor();
+        executor.capacity = 1;
+        IndexingQueue queue = new IndexingQueue(executor, meterRegistry);
+        List<Long> indexed = new ArrayList<>();
+
+        queue.submit(1L, () -> indexed.add(1L));
+        queue.submit(2L, () -> indexed.add(2L));
+        executor.runAll();
+
+        assertEquals(List.of(1L), indexed);
+        assertEquals(0, queue.getPending());
+        assertEquals(1.0, meterRegistry.counter("indexing.queue.dropped").count());
+
+        // The dropped document is picked up again by its next change
+        queue.submit(2L, () -> indexed.add(2L));
+        executor.runAll();
+        assertEquals(List.of(1L, 2L), indexed);
+    }
+
+    @Test
+    void submit_FailingTask_DoesNotStopLaterUpdates() {
+        ManualExecutor executor = new ManualExecutor();
+        IndexingQueue queue = new IndexingQueue(executor, meterRegistry);
+        AtomicInteger runs = new AtomicInteger();
+
+        queue.submit(1L, () -> {
+            throw new IllegalStateException("Elasticsearch down");
+        });
+        executor.runAll();
+        queue.submit(1L, runs::incrementAndGet);
+        executor.runAll();
+
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void submit_ConcurrentUpdates_NeverOverlapForOneDocument() throws InterruptedException {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);
+        executor.setMaxPoolSize(4);
+        executor.initialize();
+        try {
+            IndexingQueue queue = new IndexingQueue(executor, meterRegistry);
+            AtomicInteger running = new AtomicInteger();
+            List<Integer> overlaps = Collections.synchronizedList(new ArrayList<>());
+            AtomicInteger last = new AtomicInteger(-1);
+            int updates = 2000;
+            CountDownLatch newestIndexed = new CountDownLatch(1);
+
+            for (int i = 0; i < updates; i++) {
+                int version = i;
+                queue.submit(1L, () -> {
+                    if (running.incrementAndGet() > 1) {
+                        overlaps.add(version);
+                    }
+                    if (version < last.get()) {
+                        overlaps.add(version);
+                    }
+                    last.set(version);
+                    running.decrementAndGet();
+                    if (version == updates - 1) {
+                        newestIndexed.countDown();
+                    }
+                });
+            }
+
+            assertTrue(newestIndexed.await(10, TimeUnit.SECONDS));
+            assertTrue(overlaps.isEmpty(), "Updates overlapped or ran out of order: " + overlaps);
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.project.document_management.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.AmqpConnectException;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.QueueInformation;
+
+class OcrQueueMonitorUnitTest {
+
+    @Test
+    void refresh_ReadsDepthPerQueue_KeepsLastValueWhenBrokerIsDown() {
+        AmqpAdmin amqpAdmin = mock(AmqpAdmin.class);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        OcrQueueMonitor monitor = new OcrQueueMonitor(amqpAdmin, meterRegistry);
+        when(amqpAdmin.getQueueInfo("documentQueue")).thenReturn(new QueueInformation("documentQueue", 12, 4));
+        when(amqpAdmin.getQueueInfo("documentBulkQueue")).thenReturn(new QueueInformation("documentBulkQueue", 900, 1));
+
+        monitor.refresh();
+        when(amqpAdmin.getQueueInfo("documentQueue")).thenThrow(new AmqpConnectException(new RuntimeException("down")));
+        monitor.refresh();
+
+        assertEquals(12, meterRegistry.get("ocr.queue.depth").tag("queue", "interactive").gauge().value());
+        assertEquals(4, meterRegistry.get("ocr.queue.consumers").tag("queue", "interactive").gauge().value());
+        assertEquals(900, meterRegistry.get("ocr.queue.depth").tag("queue", "bulk").gauge().value());
+    }
+}
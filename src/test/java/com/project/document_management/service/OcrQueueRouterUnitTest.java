@@ -0,0 +1,50 @@
+package com.project.document_management.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import com.project.document_management.model.Document;
+import com.project.document_management.model.OutboxMessage;
+
+class OcrQueueRouterUnitTest {
+
+    private final OcrQueueRouter router = new OcrQueueRouter(DataSize.ofMegabytes(5));
+
+    @Test
+    void route_SmallSingleUpload_GoesToInteractiveQueue() {
+        OutboxMessage message = router.route(document(1L, 200_000));
+
+        assertEquals("documentQueue", message.getQueue());
+        assertEquals("1", message.getPayload());
+        assertNull(message.getPriority());
+    }
+
+    @Test
+    void route_LargeSingleUpload_GoesToBulkQueueAtTopPriority() {
+        OutboxMessage message = router.route(document(2L, DataSize.ofMegabytes(40).toBytes()));
+
+        assertEquals("documentBulkQueue", message.getQueue());
+        assertEquals(9, message.getPriority());
+    }
+
+    @Test
+    void routeBatch_PriorityFallsWithPosition() {
+        assertEquals(9, router.routeBatch(document(1L, 10), 0).getPriority());
+        assertEquals(8, router.routeBatch(document(1L, 10), 1).getPriority());
+        assertEquals(7, router.routeBatch(document(1L, 10), 3).getPriority());
+        assertEquals(7, router.routeBatch(document(1L, 10), 6).getPriority());
+        assertEquals(6, router.routeBatch(document(1L, 10), 7).getPriority());
+        assertEquals(1, router.routeBatch(document(1L, 10), 300).getPriority());
+        assertEquals(0, router.routeBatch(document(1L, 10), 4999).getPriority());
+    }
+
+    private static Document document(Long id, long fileSize) {
+        Document document = new Document();
+        document.setId(id);
+        document.setFileSize(fileSize);
+        return document;
+    }
+}
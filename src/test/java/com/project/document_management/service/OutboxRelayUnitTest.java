@@ -0,0 +1,127 @@
+package com.project.document_management.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.Optional;
+
+import com.project.document_management.model.OutboxMessage;
+import com.project.document_management.repository.OutboxMessageRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class OutboxRelayUnitTest {
+
+    @Mock
+    private OutboxMessageRepository outboxRepository;
+
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+
+    @Mock
+    private RabbitOperations channelOperations;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        relay = new OutboxRelay(outboxRepository, rabbitTemplate, transactionTemplate, meterRegistry, 2, 1000);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(rabbitTemplate.invoke(any())).thenAnswer(invocation ->
+                invocation.<RabbitOperations.OperationsCallback<?>>getArgument(0).doInRabbit(channelOperations));
+        when(outboxRepository.findFirstByOrderByIdAsc()).thenReturn(Optional.empty());
+    }
+
+    @Test
+    void relay_PrioritisedMessage_SetsPriority() {
+        List<OutboxMessage> batch = List.of(new OutboxMessage("documentBulkQueue", "1", 7));
+        when(outboxRepository.findAllByOrderByIdAsc(any(Pageable.class))).thenReturn(batch);
+
+        relay.relay();
+
+        ArgumentCaptor<MessagePostProcessor> postProcessor = ArgumentCaptor.forClass(MessagePostProcessor.class);
+        verify(channelOperations).convertAndSend(eq("documentBulkQueue"), eq((Object) "1"), postProcessor.capture());
+        Message message = postProcessor.getValue().postProcessMessage(new Message(new byte[0]));
+        assertEquals(7, message.getMessageProperties().getPriority());
+    }
+
+    @Test
+    void relay_TracedMessage_SendsTraceParentAndTimestamp() {
+        OutboxMessage outboxMessage = new OutboxMessage("documentQueue", "1");
+        outboxMessage.setTraceParent("00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01");
+        when(outboxRepository.findAllByOrderByIdAsc(any(Pageable.class))).thenReturn(List.of(outboxMessage));
+
+        relay.relay();
+
+        ArgumentCaptor<MessagePostProcessor> postProcessor = ArgumentCaptor.forClass(MessagePostProcessor.class);
+        verify(channelOperations).convertAndSend(eq("documentQueue"), eq((Object) "1"), postProcessor.capture());
+        Message message = postProcessor.getValue().postProcessMessage(new Message(new byte[0]));
+        assertEquals("00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01",
+                message.getMessageProperties().getHeader("traceparent"));
+        assertNotNull(message.getMessageProperties().getTimestamp());
+    }
+
+    @Test
+    void relay_PublishesConfirmedBatchAndDeletesIt() {
+        List<OutboxMessage> batch = List.of(new OutboxMessage("documentQueue", "1"));
+        when(outboxRepository.findAllByOrderByIdAsc(any(Pageable.class))).thenReturn(batch);
+
+        relay.relay();
+
+        verify(channelOperations).convertAndSend(eq("documentQueue"), eq((Object) "1"), any(MessagePostProcessor.class));
+        verify(channelOperations).waitForConfirmsOrDie(1000);
+        verify(outboxRepository).deleteAllInBatch(batch);
+        assertEquals(1.0, meterRegistry.counter("outbox.relay.published").count());
+    }
+
+    @Test
+    void relay_BrokerDoesNotConfirm_KeepsMessages() {
+        List<OutboxMessage> batch = List.of(new OutboxMessage("documentQueue", "1"));
+        when(outboxRepository.findAllByOrderByIdAsc(any(Pageable.class))).thenReturn(batch);
+        doThrow(new AmqpException("nack")).when(channelOperations).waitForConfirmsOrDie(anyLong());
+
+        relay.relay();
+
+        verify(outboxRepository, never()).deleteAllInBatch(any());
+        assertEquals(1.0, meterRegistry.counter("outbox.relay.failures").count());
+    }
+
+    @Test
+    void relay_FullBatch_KeepsDrainingUntilEmpty() {
+        when(outboxRepository.findAllByOrderByIdAsc(any(Pageable.class))).thenReturn(
+                List.of(new OutboxMessage("documentQueue", "1"), new OutboxMessage("documentQueue", "2")),
+                List.of(new OutboxMessage("documentQueue", "3")));
+
+        relay.relay();
+
+        verify(outboxRepository, times(2)).deleteAllInBatch(any());
+        assertEquals(3.0, meterRegistry.counter("outbox.relay.published").count());
+    }
+}
@@ -0,0 +1,281 @@
+package com.project.document_management.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import co.elastic.clients.elasticsearch._types.ErrorResponse;
+import co.elastic.clients.elasticsearch.core.BulkRequest;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.DeleteRequest;
+import co.elastic.clients.elasticsearch.indices.DeleteIndexRequest;
+import co.elastic.clients.elasticsearch.indices.ElasticsearchIndicesClient;
+import co.elastic.clients.elasticsearch.indices.ExistsRequest;
+import co.elastic.clients.elasticsearch.indices.GetAliasRequest;
+import co.elastic.clients.elasticsearch.indices.GetAliasResponse;
+import co.elastic.clients.elasticsearch.indices.UpdateAliasesRequest;
+import co.elastic.clients.elasticsearch.indices.get_alias.IndexAliases;
+import co.elastic.clients.elasticsearch.indices.update_aliases.Action;
+import co.elastic.clients.transport.endpoints.BooleanResponse;
+import com.project.document_management.elastic.ElasticDocument;
+import com.project.document_management.model.Document;
+import com.project.document_management.model.ReindexJob;
+import com.project.document_management.model.ReindexSlice;
+import com.project.document_management.repository.DocumentRepository;
+import com.project.document_management.repository.ReindexJobRepository;
+import com.project.document_management.repository.ReindexSliceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.convert.MappingElasticsearchConverter;
+import org.springframework.data.elasticsearch.core.mapping.SimpleElasticsearchMappingContext;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+class ReindexServiceUnitTest {
+
+    private ReindexJobRepository jobRepository;
+    private ReindexSliceRepository sliceRepository;
+    private DocumentRepository documentRepository;
+    private ElasticsearchClient client;
+    private ElasticsearchIndicesClient indices;
+    private SearchIndexVersion searchIndexVersion;
+    private ReindexService service;
+    private final List<ReindexSlice> slices = new CopyOnWriteArrayList<>();
+    private final List<BulkRequest> bulkRequests = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        jobRepository = mock(ReindexJobRepository.class);
+        sliceRepository = mock(ReindexSliceRepository.class);
+        documentRepository = mock(DocumentRepository.class);
+        client = mock(ElasticsearchClient.class);
+        indices = mock(ElasticsearchIndicesClient.class);
+        searchIndexVersion = new SearchIndexVersion();
+        when(client.indices()).thenReturn(indices);
+
+        // Real converter, so bulk sources are built as in production
+        MappingElasticsearchConverter converter = new MappingElasticsearchConverter(new SimpleElasticsearchMappingContext());
+        converter.afterPropertiesSet();
+        ElasticsearchOperations operations = mock(ElasticsearchOperations.class);
+        when(operations.getElasticsearchConverter()).thenReturn(converter);
+        when(operations.getIndexCoordinatesFor(ElasticDocument.class)).thenReturn(IndexCoordinates.of("documents"));
+        when(operations.indexOps(any(IndexCoordinates.class))).thenReturn(mock(IndexOperations.class));
+
+        when(jobRepository.save(any(ReindexJob.class))).thenAnswer(invocation -> {
+            ReindexJob job = invocation.getArgument(0);
+            if (job.getId() == null) {
+                job.setId(1L);
+            }
+            return job;
+        });
+        when(sliceRepository.saveAll(any())).thenAnswer(invocation -> {
+            invocation.<Iterable<ReindexSlice>>getArgument(0).forEach(slices::add);
+            return slices;
+        });
+        when(sliceRepository.save(any(ReindexSlice.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(jobRepository.claim(anyLong(), anyString(), any(), any())).thenReturn(1);
+        when(sliceRepository.findByJob_IdOrderBySliceNumberAsc(1L)).thenAnswer(invocation -> new ArrayList<>(slices));
+        when(client.bulk(any(BulkRequest.class))).thenAnswer(invocation -> {
+            bulkRequests.add(invocation.getArgument(0));
+            return BulkResponse.of(b -> b.errors(false).took(1).items(List.of()));
+        });
+
+        service = new ReindexService(jobRepository, sliceRepository, documentRepository, client, operations,
+                searchIndexVersion, mock(PlatformTransactionManager.class), new SimpleAsyncTaskExecutor(), 2, 2, 1);
+        ReflectionTestUtils.setField(service, "jobLauncher", (Executor) Runnable::run);
+    }
+
+    @Test
+    void start_BackfillsSlicesCatchesUpAndReplacesLegacyIndex() throws IOException {
+        givenDocuments(1, 5);
+        when(documentRepository.findIndexableIdsModifiedSince(any())).thenReturn(List.of(5L));
+        when(documentRepository.findAllById(List.of(5L))).thenReturn(List.of(document(5)));
+        when(indices.getAlias(any(GetAliasRequest.class))).thenThrow(notFound());
+        when(indices.exists(any(ExistsRequest.class))).thenReturn(new BooleanResponse(true));
+
+        ReindexJob job = service.start();
+
+        assertEquals(ReindexJob.Status.COMPLETED, job.getStatus());
+        assertTrue(job.getTargetIndex().startsWith("documents_v"));
+        // Ids 1..5 split into [1,3] and [4,5], two documents per bulk request
+        assertEquals(2, slices.size());
+        assertEquals(3, slices.get(0).getToId());
+        assertTrue(slices.stream().allMatch(ReindexSlice::isDone));
+        assertEquals(5, slices.stream().mapToLong(ReindexSlice::getDocsIndexed).sum());
+        // Backfill plus one document in each of the two catch-up passes
+        assertEquals(7, job.getDocsIndexed());
+        assertTrue(bulkRequests.stream().allMatch(request ->
+                request.operations().stream().allMatch(op -> op.index().index().equals(job.getTargetIndex()))));
+
+        ArgumentCaptor<UpdateAliasesRequest> update = ArgumentCaptor.forClass(UpdateAliasesRequest.class);
+        verify(indices).updateAliases(update.capture());
+        List<Action> actions = update.getValue().actions();
+        assertEquals(2, actions.size());
+        assertEquals("documents", actions.get(0).removeIndex().index());
+        assertEquals(job.getTargetIndex(), actions.get(1).add().index());
+        assertEquals("documents", actions.get(1).add().alias());
+        assertEquals(1, searchIndexVersion.current());
+    }
+
+    @Test
+    void start_ExistingAlias_MovesItAndDeletesPreviousIndex() throws IOException {
+        givenDocuments(1, 1);
+        when(documentRepository.findIndexableIdsModifiedSince(any())).thenReturn(List.of());
+        when(indices.getAlias(any(GetAliasRequest.class))).thenReturn(GetAliasResponse.of(r -> r.result(
+                Map.of("documents_v1", IndexAliases.of(a -> a.aliases(Map.of()))))));
+
+        ReindexJob job = service.start();
+
+        ArgumentCaptor<UpdateAliasesRequest> update = ArgumentCaptor.forClass(UpdateAliasesRequest.class);
+        verify(indices).updateAliases(update.capture());
+        List<Action> actions = update.getValue().actions();
+        assertEquals("documents_v1", actions.get(0).remove().index());
+        assertEquals(job.getTargetIndex(), actions.get(1).add().index());
+        ArgumentCaptor<DeleteIndexRequest> delete = ArgumentCaptor.forClass(DeleteIndexRequest.class);
+        verify(indices).delete(delete.capture());
+        assertEquals(List.of("documents_v1"), delete.getValue().index());
+    }
+
+    @Test
+    void resume_ContinuesFromSliceCheckpoints() throws IOException {
+        ReindexJob job = new ReindexJob("documents_v2", LocalDateTime.now());
+        job.setId(1L);
+        job.setStatus(ReindexJob.Status.FAILED);
+        ReindexSlice slice = new ReindexSlice(job, 0, 3, 5);
+        slices.add(slice);
+        when(jobRepository.findById(1L)).thenReturn(Optional.of(job));
+        givenDocuments(1, 5);
+        when(documentRepository.findIndexableIdsModifiedSince(any())).thenReturn(List.of());
+        when(indices.getAlias(any(GetAliasRequest.class))).thenReturn(GetAliasResponse.of(r -> r.result(
+                Map.of("documents_v2", IndexAliases.of(a -> a.aliases(Map.of()))))));
+
+        service.resume(1L);
+
+        assertEquals(ReindexJob.Status.COMPLETED, job.getStatus());
+        verify(documentRepository, never()).findIndexableInRange(eq(0L), anyLong(), any());
+        assertEquals(List.of("4", "5"), bulkRequests.stream()
+                .flatMap(request -> request.operations().stream())
+                .map(op -> op.index().id())
+                .toList());
+        // Alias already on the target (crash after the swap): nothing to move
+        verify(indices, never()).updateAliases(any(UpdateAliasesRequest.class));
+    }
+
+    @Test
+    void start_BulkItemFails_MarksJobFailed() throws IOException {
+        givenDocuments(1, 2);
+        when(client.bulk(any(BulkRequest.class))).thenReturn(BulkResponse.of(b -> b.errors(true).took(1)
+                .items(i -> i.operationType(co.elastic.clients.elasticsearch.core.bulk.OperationType.Index)
+                        .index("documents_v").id("1").status(400)
+                        .error(e -> e.type("mapper_parsing_exception").reason("bad field")))));
+
+        ReindexJob job = service.start();
+
+        assertEquals(ReindexJob.Status.FAILED, job.getStatus());
+        assertTrue(job.getError().contains("bad field"));
+        verify(indices, never()).updateAliases(any(UpdateAliasesRequest.class));
+    }
+
+    @Test
+    void documentDeleted_RunningJob_DeletesFromTargetIndex() throws IOException {
+        ReindexJob job = new ReindexJob("documents_v3", LocalDateTime.now());
+        when(jobRepository.findFirstByStatusOrderByIdDesc(ReindexJob.Status.RUNNING)).thenReturn(Optional.of(job));
+
+        service.documentDeleted("42");
+
+        ArgumentCaptor<DeleteRequest> delete = ArgumentCaptor.forClass(DeleteRequest.class);
+        verify(client).delete(delete.capture());
+        assertEquals("documents_v3", delete.getValue().index());
+        assertEquals("42", delete.getValue().id());
+    }
+
+    @Test
+    void resumeInterruptedJobs_LeaseHeldByAnotherNode_LeavesJobAlone() {
+        ReindexJob job = new ReindexJob("documents_v5", LocalDateTime.now());
+        job.setId(1L);
+        when(jobRepository.findByStatus(ReindexJob.Status.RUNNING)).thenReturn(List.of(job));
+        when(jobRepository.claim(eq(1L), anyString(), any(), any())).thenReturn(0);
+
+        service.resumeInterruptedJobs();
+
+        assertEquals(ReindexJob.Status.RUNNING, job.getStatus());
+        verifyNoInteractions(sliceRepository, client);
+    }
+
+    @Test
+    void heartbeat_LeaseTakenOver_StopsWithoutFailingJob() throws IOException {
+        givenDocuments(1, 10);
+        when(jobRepository.renewLease(eq(1L), anyString(), any())).thenReturn(0);
+        when(client.bulk(any(BulkRequest.class))).thenAnswer(invocation -> {
+            bulkRequests.add(invocation.getArgument(0));
+            // The other node's claim lands while this batch is in flight
+            service.heartbeat();
+            return BulkResponse.of(b -> b.errors(false).took(1).items(List.of()));
+        });
+
+        ReindexJob job = service.start();
+
+        assertEquals(ReindexJob.Status.RUNNING, job.getStatus());
+        // At most the batch each slice already had in flight, then every slice stops at its next lease check
+        assertTrue(bulkRequests.size() <= 2);
+        verify(indices, never()).updateAliases(any(UpdateAliasesRequest.class));
+        verify(jobRepository, never()).releaseLease(eq(1L), anyString());
+    }
+
+    @Test
+    void start_WhileRunning_Rejected() {
+        when(jobRepository.findFirstByStatusOrderByIdDesc(ReindexJob.Status.RUNNING))
+                .thenReturn(Optional.of(new ReindexJob("documents_v4", LocalDateTime.now())));
+
+        assertThrows(IllegalStateException.class, () -> service.start());
+    }
+
+    // Documents min..max, all with text, served by id range like the keyset query
+    private void givenDocuments(long min, long max) {
+        when(documentRepository.findMinId()).thenReturn(min);
+        when(documentRepository.findMaxId()).thenReturn(max);
+        when(documentRepository.findIndexableInRange(anyLong(), anyLong(), any(Limit.class))).thenAnswer(invocation -> {
+            long afterId = invocation.getArgument(0);
+            long toId = invocation.getArgument(1);
+            int limit = invocation.<Limit>getArgument(2).max();
+            List<Document> batch = new ArrayList<>();
+            for (long id = Math.max(afterId + 1, min); id <= Math.min(toId, max) && batch.size() < limit; id++) {
+                batch.add(document(id));
+            }
+            return batch;
+        });
+    }
+
+    private static Document document(long id) {
+        Document document = new Document();
+        document.setId(id);
+        document.setTitle("doc " + id);
+        document.setOcrText("text " + id);
+        return document;
+    }
+
+    private static ElasticsearchException notFound() {
+        return new ElasticsearchException("indices.get_alias", ErrorResponse.of(r -> r.status(404)
+                .error(e -> e.type("aliases_not_found_exception").reason("missing"))));
+    }
+}